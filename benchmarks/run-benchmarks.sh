@@ -0,0 +1,22 @@
+#!/usr/bin/env sh
+# Runs the JMH benchmarks and stores the results as results/<commit>.json.
+#   ./run-benchmarks.sh [jmh options]        e.g. ./run-benchmarks.sh ShareComputationBenchmark -p members=100
+#   BASELINE=results/abc1234.json ./run-benchmarks.sh   also compares against an earlier run
+set -e
+cd "$(dirname "$0")"
+
+commit=$(git rev-parse --short HEAD)
+if [ -n "$(git status --porcelain -- ../src ../pom.xml src pom.xml)" ]; then
+  commit="$commit-dirty"
+fi
+
+(cd .. && ./mvnw -B -q install -DskipTests)
+../mvnw -B -q package
+
+mkdir -p results
+java -jar target/benchmarks.jar -rf json -rff "results/$commit.json" "$@"
+
+if [ -n "$BASELINE" ]; then
+  java -cp target/benchmarks.jar com.expensetracker.smartsplitter.benchmark.CompareResults \
+    "$BASELINE" "results/$commit.json" "${THRESHOLD:-10}"
+fi
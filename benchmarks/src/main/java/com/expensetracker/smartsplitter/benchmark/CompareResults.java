@@ -0,0 +1,99 @@
+package com.expensetracker.smartsplitter.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two JMH JSON result files, typically from two commits:
+ * <pre>
+ * java -cp target/benchmarks.jar com.expensetracker.smartsplitter.benchmark.CompareResults \
+ *     results/&lt;base&gt;.json results/&lt;head&gt;.json [threshold-percent]
+ * </pre>
+ * A row is a regression when it got worse by more than the threshold (default 10%) and by more
+ * than the two runs' combined error, so noise alone does not trip it. Exits with status 1 if any
+ * row regressed, so the comparison can gate a CI job.
+ */
+public final class CompareResults {
+
+    private record Score(String mode, double score, double error, String unit) {
+    }
+
+    private CompareResults() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: CompareResults <baseline.json> <current.json> [threshold-percent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+        Map<String, Score> baseline = read(new File(args[0]));
+        Map<String, Score> current = read(new File(args[1]));
+
+        int regressions = 0;
+        System.out.printf("%-80s %14s %14s %9s%n", "Benchmark", "Baseline", "Current", "Change");
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score now = entry.getValue();
+            Score before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-80s %14s %14.3f %9s  new%n", entry.getKey(), "-", now.score(), "");
+                continue;
+            }
+            double change = (now.score() - before.score()) / before.score() * 100;
+            // Throughput is better when higher, every time-based mode when lower
+            double worse = "thrpt".equals(now.mode()) ? -change : change;
+            boolean beyondNoise = Math.abs(now.score() - before.score()) > finite(now.error()) + finite(before.error());
+            boolean regressed = worse > threshold && beyondNoise;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-80s %14.3f %14.3f %+8.1f%%  %s%s%n", entry.getKey(), before.score(), now.score(),
+                    change, now.unit(), regressed ? "  REGRESSION" : "");
+        }
+        for (String missing : baseline.keySet()) {
+            if (!current.containsKey(missing)) {
+                System.out.printf("%-80s %14.3f %14s %9s  removed%n", missing, baseline.get(missing).score(), "-", "");
+            }
+        }
+
+        System.out.printf("%n%d regression(s) over %.1f%%%n", regressions, threshold);
+        if (regressions > 0) {
+            System.exit(1);
+        }
+    }
+
+    // Keyed by benchmark name plus its parameters, e.g. "ShareComputationBenchmark.splitAndDeltas members=100"
+    private static Map<String, Score> read(File file) throws IOException {
+        Map<String, Score> scores = new TreeMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            String name = run.path("benchmark").asText();
+            name = name.substring(name.lastIndexOf('.', name.lastIndexOf('.') - 1) + 1);
+
+            Map<String, String> params = new LinkedHashMap<>();
+            Iterator<Map.Entry<String, JsonNode>> fields = run.path("params").fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> param = fields.next();
+                params.put(param.getKey(), param.getValue().asText());
+            }
+            StringBuilder key = new StringBuilder(name);
+            params.forEach((param, value) -> key.append(' ').append(param).append('=').append(value));
+
+            JsonNode metric = run.path("primaryMetric");
+            scores.put(key.toString(), new Score(run.path("mode").asText(), metric.path("score").asDouble(),
+                    metric.path("scoreError").asDouble(Double.NaN), metric.path("scoreUnit").asText()));
+        }
+        return scores;
+    }
+
+    // JMH reports NaN error when there were too few iterations to compute one
+    private static double finite(double error) {
+        return Double.isFinite(error) ? error : 0;
+    }
+}
@@ -0,0 +1,38 @@
+package com.expensetracker.smartsplitter.benchmark;
+
+import com.expensetracker.smartsplitter.settlement.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency and transfer count of the exact settlement solver, on the same synthetic groups as
+ * {@link SettlementSolverBenchmark} but only at sizes within {@link ExactSettlementSolver#MAX_MEMBERS},
+ * since it is exponential in the number of members.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExactSettlementSolverBenchmark {
+
+    @Param({"8", "12", "16"})
+    public int members;
+
+    private final ExactSettlementSolver settlementSolver = new ExactSettlementSolver();
+    private BalanceSheet sheet;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sheet = SyntheticGroup.of(members).balanceSheet();
+    }
+
+    @Benchmark
+    public SettlementPlan solve(SettlementSolverBenchmark.TransferCount count) {
+        SettlementPlan plan = settlementSolver.solve(sheet);
+        count.transfers = plan.size();
+        return plan;
+    }
+}
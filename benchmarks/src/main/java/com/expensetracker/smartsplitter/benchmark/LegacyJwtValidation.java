@@ -0,0 +1,47 @@
+package com.expensetracker.smartsplitter.benchmark;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+import java.security.Key;
+import java.util.Date;
+
+/**
+ * The original JwtService validation path, kept as a baseline: the HMAC key and parser are
+ * rebuilt for every call and the token is parsed and verified twice per request.
+ */
+final class LegacyJwtValidation {
+
+    private final String secret;
+
+    LegacyJwtValidation(String secret) {
+        this.secret = secret;
+    }
+
+    private Key getSignInKey() {
+        return Keys.hmacShaKeyFor(secret.getBytes());
+    }
+
+    String extractUsername(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(getSignInKey())
+                .build()
+                .parseClaimsJws(token)
+                .getBody()
+                .getSubject();
+    }
+
+    boolean isTokenValid(String token, String username) {
+        return extractUsername(token).equals(username) && !isTokenExpired(token);
+    }
+
+    private boolean isTokenExpired(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(getSignInKey())
+                .build()
+                .parseClaimsJws(token)
+                .getBody()
+                .getExpiration()
+                .before(new Date());
+    }
+}
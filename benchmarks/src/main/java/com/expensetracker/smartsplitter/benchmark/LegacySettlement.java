@@ -0,0 +1,72 @@
+package com.expensetracker.smartsplitter.benchmark;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The original SettlementServiceImpl algorithm, minus the repository calls: a boxed
+ * {@code HashMap<Long, BigDecimal>} balance loop followed by two-pointer matching over
+ * sorted {@code Map.Entry} lists. Kept as the baseline the cents engine is measured against.
+ */
+public final class LegacySettlement {
+
+    public record Transfer(Long from, Long to, BigDecimal amount) {
+    }
+
+    private LegacySettlement() {
+    }
+
+    public static Map<Long, BigDecimal> balances(SyntheticGroup group) {
+        Map<Long, BigDecimal> netBalances = new HashMap<>();
+        for (int e = 0; e < group.expenses; e++) {
+            for (int row = group.participantStart[e]; row < group.participantStart[e + 1]; row++) {
+                Long participantId = group.participantIds[row];
+                netBalances.put(participantId,
+                        netBalances.getOrDefault(participantId, BigDecimal.ZERO).subtract(group.shares[row]));
+            }
+            Long payerId = group.payerIds[e];
+            netBalances.put(payerId,
+                    netBalances.getOrDefault(payerId, BigDecimal.ZERO).add(group.amounts[e]));
+        }
+        return netBalances;
+    }
+
+    public static List<Transfer> settle(Map<Long, BigDecimal> netBalances) {
+        List<Transfer> settlements = new ArrayList<>();
+
+        List<Map.Entry<Long, BigDecimal>> positive = new ArrayList<>(netBalances.entrySet().stream()
+                .filter(e -> e.getValue().compareTo(BigDecimal.ZERO) > 0)
+                .sorted((a, b) -> b.getValue().compareTo(a.getValue()))
+                .toList());
+
+        List<Map.Entry<Long, BigDecimal>> negative = new ArrayList<>(netBalances.entrySet().stream()
+                .filter(e -> e.getValue().compareTo(BigDecimal.ZERO) < 0)
+                .sorted(Map.Entry.comparingByValue())
+                .toList());
+
+        int i = 0, j = 0;
+        while (i < negative.size() && j < positive.size()) {
+            var debtor = negative.get(i);
+            var creditor = positive.get(j);
+
+            BigDecimal debit = debtor.getValue().abs();
+            BigDecimal credit = creditor.getValue();
+            BigDecimal settleAmount = debit.min(credit);
+
+            settlements.add(new Transfer(debtor.getKey(), creditor.getKey(), settleAmount));
+
+            BigDecimal updatedDebtor = debit.subtract(settleAmount);
+            BigDecimal updatedCreditor = credit.subtract(settleAmount);
+
+            if (updatedDebtor.compareTo(BigDecimal.ZERO) == 0) i++;
+            else negative.set(i, Map.entry(debtor.getKey(), updatedDebtor.negate()));
+
+            if (updatedCreditor.compareTo(BigDecimal.ZERO) == 0) j++;
+            else positive.set(j, Map.entry(creditor.getKey(), updatedCreditor));
+        }
+        return settlements;
+    }
+}
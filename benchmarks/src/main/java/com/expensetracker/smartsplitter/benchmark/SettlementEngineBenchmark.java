@@ -0,0 +1,53 @@
+package com.expensetracker.smartsplitter.benchmark;
+
+import com.expensetracker.smartsplitter.settlement.BalanceSheet;
+import com.expensetracker.smartsplitter.settlement.SettlementPlan;
+import com.expensetracker.smartsplitter.settlement.TwoPointerSettlementSolver;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Balance aggregation plus greedy matching over a group's full expense history:
+ * the original BigDecimal/boxed-map implementation against the same algorithm in cents.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SettlementEngineBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int members;
+
+    private SyntheticGroup group;
+    private final TwoPointerSettlementSolver solver = new TwoPointerSettlementSolver();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        group = SyntheticGroup.of(members);
+    }
+
+    @Benchmark
+    public List<LegacySettlement.Transfer> legacyBigDecimal() {
+        Map<Long, BigDecimal> balances = LegacySettlement.balances(group);
+        return LegacySettlement.settle(balances);
+    }
+
+    @Benchmark
+    public SettlementPlan primitiveCents() {
+        BalanceSheet sheet = new BalanceSheet(group.members);
+        for (int e = 0; e < group.expenses; e++) {
+            for (int row = group.participantStart[e]; row < group.participantStart[e + 1]; row++) {
+                sheet.add(group.participantIds[row], -group.shareCents[row]);
+            }
+            sheet.add(group.payerIds[e], group.amountCents[e]);
+        }
+        return solver.solve(sheet);
+    }
+}
@@ -0,0 +1,51 @@
+package com.expensetracker.smartsplitter.benchmark;
+
+import com.expensetracker.smartsplitter.settlement.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency and transfer count of the heuristic settlement solvers on the net balances of synthetic
+ * groups. The exact solver is exponential and has its own {@link ExactSettlementSolverBenchmark}
+ * over the sizes it supports. The {@code transfers} secondary metric is the number of transfers in
+ * the last plan produced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SettlementSolverBenchmark {
+
+    @Param({"8", "12", "16", "100", "1000", "10000"})
+    public int members;
+
+    @Param({TwoPointerSettlementSolver.NAME, GreedyHeapSettlementSolver.NAME})
+    public String solver;
+
+    private BalanceSheet sheet;
+    private SettlementSolver settlementSolver;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class TransferCount {
+        public long transfers;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        settlementSolver = TwoPointerSettlementSolver.NAME.equals(solver)
+                ? new TwoPointerSettlementSolver()
+                : new GreedyHeapSettlementSolver();
+        sheet = SyntheticGroup.of(members).balanceSheet();
+    }
+
+    @Benchmark
+    public SettlementPlan solve(TransferCount count) {
+        SettlementPlan plan = settlementSolver.solve(sheet);
+        count.transfers = plan.size();
+        return plan;
+    }
+}
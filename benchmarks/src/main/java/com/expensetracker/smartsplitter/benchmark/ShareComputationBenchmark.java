@@ -0,0 +1,81 @@
+package com.expensetracker.smartsplitter.benchmark;
+
+import com.expensetracker.smartsplitter.model.Expense;
+import com.expensetracker.smartsplitter.model.ExpenseParticipant;
+import com.expensetracker.smartsplitter.model.User;
+import com.expensetracker.smartsplitter.util.BalanceDeltas;
+import com.expensetracker.smartsplitter.util.ShareCalculator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The in-memory part of ExpenseServiceImpl.addExpense for a group's whole history: equal
+ * shares per participant, the participant rows, and the ledger deltas each expense produces.
+ * Persistence is left out so the number tracks only the Java work per expense.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShareComputationBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int members;
+
+    private SyntheticGroup group;
+    private User[] users;
+    // Participant ids per expense, as the request hands them to the service
+    private List<List<Long>> participantIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        group = SyntheticGroup.of(members);
+        users = new User[members + 1];
+        for (int id = 1; id <= members; id++) {
+            users[id] = User.builder().id((long) id).username("user" + id).build();
+        }
+        participantIds = new ArrayList<>(group.expenses);
+        for (int e = 0; e < group.expenses; e++) {
+            List<Long> ids = new ArrayList<>();
+            for (int row = group.participantStart[e]; row < group.participantStart[e + 1]; row++) {
+                ids.add(group.participantIds[row]);
+            }
+            participantIds.add(ids);
+        }
+    }
+
+    @Benchmark
+    public void splitAndDeltas(Blackhole blackhole) {
+        for (int e = 0; e < group.expenses; e++) {
+            int from = group.participantStart[e];
+            int to = group.participantStart[e + 1];
+            Expense expense = Expense.builder()
+                    .amount(group.amounts[e])
+                    .paidBy(users[(int) group.payerIds[e]])
+                    .build();
+
+            List<BigDecimal> shares = ShareCalculator.equalShares(expense.getAmount(), group.payerIds[e],
+                    participantIds.get(e));
+            List<ExpenseParticipant> participants = new ArrayList<>(to - from);
+            for (int row = from; row < to; row++) {
+                participants.add(ExpenseParticipant.builder()
+                        .expense(expense)
+                        .user(users[(int) group.participantIds[row]])
+                        .shareAmount(shares.get(row - from))
+                        .build());
+            }
+            expense.setParticipants(participants);
+
+            Map<Long, BigDecimal> deltas = BalanceDeltas.forExpense(expense, false);
+            blackhole.consume(deltas);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.expensetracker.smartsplitter.benchmark;
+
+import com.expensetracker.smartsplitter.settlement.BalanceSheet;
+import com.expensetracker.smartsplitter.util.ShareCalculator;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic synthetic expense history for one group, laid out the way the
+ * services see it: one payer and amount per expense, one share per participant row.
+ * Amounts are kept both in cents and as BigDecimal so each implementation reads
+ * its native representation.
+ */
+public final class SyntheticGroup {
+
+    public final int members;
+    public final int expenses;
+
+    public final long[] payerIds;
+    public final long[] amountCents;
+    public final BigDecimal[] amounts;
+
+    // Participants of expense e are rows participantStart[e] until participantStart[e + 1]
+    public final int[] participantStart;
+    public final long[] participantIds;
+    public final long[] shareCents;
+    public final BigDecimal[] shares;
+
+    private SyntheticGroup(int members, int expenses, int maxParticipants, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        this.members = members;
+        this.expenses = expenses;
+        this.payerIds = new long[expenses];
+        this.amountCents = new long[expenses];
+        this.amounts = new BigDecimal[expenses];
+        this.participantStart = new int[expenses + 1];
+
+        int[] counts = new int[expenses];
+        int rows = 0;
+        for (int e = 0; e < expenses; e++) {
+            counts[e] = 2 + random.nextInt(Math.min(members, maxParticipants) - 1);
+            rows += counts[e];
+        }
+        this.participantIds = new long[rows];
+        this.shareCents = new long[rows];
+        this.shares = new BigDecimal[rows];
+
+        int row = 0;
+        for (int e = 0; e < expenses; e++) {
+            payerIds[e] = 1 + random.nextInt(members);
+            amountCents[e] = 100 + random.nextInt(50_000);
+            amounts[e] = BigDecimal.valueOf(amountCents[e], 2);
+            participantStart[e] = row;
+
+            int first = random.nextInt(members);
+            int stride = 1 + random.nextInt(Math.max(1, members - 1));
+            List<Long> ids = new ArrayList<>(counts[e]);
+            for (int p = 0; p < counts[e]; p++) {
+                ids.add(1 + (first + (long) p * stride) % members);
+            }
+            // Same split as ExpenseServiceImpl, so each expense's shares add up to its amount
+            List<BigDecimal> split = ShareCalculator.equalShares(amounts[e], payerIds[e], ids);
+            for (int p = 0; p < counts[e]; p++) {
+                participantIds[row] = ids.get(p);
+                shares[row] = split.get(p);
+                shareCents[row] = split.get(p).unscaledValue().longValueExact();
+                row++;
+            }
+        }
+        participantStart[expenses] = row;
+    }
+
+    /** A group with four expenses per member, each split between two and eight people. */
+    public static SyntheticGroup of(int members) {
+        return new SyntheticGroup(members, Math.max(50, members * 4), 8, 0x5EED + members);
+    }
+
+    /** Net balance of every member over the whole history, as the settlement solvers take it. */
+    public BalanceSheet balanceSheet() {
+        BalanceSheet sheet = new BalanceSheet(members);
+        for (int e = 0; e < expenses; e++) {
+            for (int row = participantStart[e]; row < participantStart[e + 1]; row++) {
+                sheet.add(participantIds[row], -shareCents[row]);
+            }
+            sheet.add(payerIds[e], amountCents[e]);
+        }
+        return sheet;
+    }
+
+    public int participantRows() {
+        return participantIds.length;
+    }
+}
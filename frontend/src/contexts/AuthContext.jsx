@@ -117,6 +117,11 @@ export const AuthProvider = ({ children }) => {
   };
 
   const logout = () => {
+    // Best effort: revoke the token on the server so it cannot be reused before it expires
+    const token = localStorage.getItem('token');
+    if (token) {
+      authAPI.logout(token).catch(() => {});
+    }
     localStorage.removeItem('token');
     localStorage.removeItem('user');
     setUser(null);
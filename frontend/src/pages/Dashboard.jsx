@@ -8,7 +8,7 @@ import {
   PlusIcon,
 } from '@heroicons/react/24/outline';
 import { useAuth } from '../contexts/AuthContext';
-import { groupAPI, expenseAPI, settlementAPI } from '../services/api';
+import { userAPI, subscribeToEvents } from '../services/api';
 
 const StatCard = ({ title, value, icon: Icon, color, delay }) => (
   <motion.div
@@ -64,30 +64,31 @@ const Dashboard = () => {
     fetchDashboardData();
   }, []);
 
-  const fetchDashboardData = async () => {
+  // Refresh when the server reports a change; the summary is rebuilt in the background, so wait briefly
+  useEffect(() => {
+    let timer;
+    const unsubscribe = subscribeToEvents(`/users/${user.id}/events`, () => {
+      clearTimeout(timer);
+      timer = setTimeout(() => fetchDashboardData(false), 500);
+    });
+    return () => {
+      clearTimeout(timer);
+      unsubscribe();
+    };
+  }, [user.id]);
+
+  const fetchDashboardData = async (showLoading = true) => {
     try {
-      setLoading(true);
-      
-      // Fetch user's groups
-      const groupsResponse = await groupAPI.getUserGroups(user.id);
-      const groups = groupsResponse.data;
-      
-      // Fetch user's expenses
-      const expensesResponse = await expenseAPI.getUserExpenses(user.id);
-      const expenses = expensesResponse.data;
-      
-      // Fetch user's settlements
-      const settlementsResponse = await settlementAPI.getUserSettlements(user.id);
-      const settlements = settlementsResponse.data;
-      
-      // Calculate total amount
-      const totalAmount = expenses.reduce((sum, expense) => sum + expense.amount, 0);
+      setLoading(showLoading);
       
+      // All totals come precomputed from the summary read model
+      const { data: summary } = await userAPI.getUserSummary(user.id);
+
       setStats({
-        totalGroups: groups.length,
-        totalExpenses: expenses.length,
-        totalAmount: totalAmount,
-        pendingSettlements: settlements.length,
+        totalGroups: summary.groupCount,
+        totalExpenses: summary.expenseCount,
+        totalAmount: Number(summary.expenseTotal),
+        pendingSettlements: summary.pendingSettlements,
       });
     } catch (error) {
       console.error('Failed to fetch dashboard data:', error);
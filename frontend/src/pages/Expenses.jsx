@@ -13,6 +13,8 @@ import { useAuth } from '../contexts/AuthContext';
 import { expenseAPI, groupAPI } from '../services/api';
 import AddExpenseModal from '../components/expenses/AddExpenseModal';
 
+const PAGE_SIZE = 20;
+
 const ExpenseCard = ({ expense, delay, onDelete, currentUserId }) => {
   return (
     <motion.div
@@ -109,26 +111,34 @@ const Expenses = () => {
   const [loading, setLoading] = useState(true);
   const [showAddModal, setShowAddModal] = useState(false);
   const [filter, setFilter] = useState('all'); // all, paid, owe
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
 
   useEffect(() => {
     fetchData();
-  }, []);
+  }, [filter]);
+
+  // "Paid by Me" is filtered on the server so every page is full
+  const pageParams = (cursor) => ({
+    cursor: cursor || undefined,
+    limit: PAGE_SIZE,
+    payerId: filter === 'paid' ? user.id : undefined,
+  });
 
   const fetchData = async () => {
     try {
       setLoading(true);
       const [expensesResponse, groupsResponse] = await Promise.all([
-        expenseAPI.getUserExpenses(user.id),
+        expenseAPI.getUserExpensePage(user.id, pageParams(null)),
         groupAPI.getUserGroups(user.id)
       ]);
-      console.log('Expenses data:', expensesResponse.data);
-      console.log('Groups data for expenses:', groupsResponse.data);
 
       // Ensure expenses is always an array
-      const expensesData = Array.isArray(expensesResponse.data) ? expensesResponse.data : [];
+      const expensesData = Array.isArray(expensesResponse.data?.expenses) ? expensesResponse.data.expenses : [];
       const groupsData = Array.isArray(groupsResponse.data) ? groupsResponse.data : [];
 
       setExpenses(expensesData);
+      setNextCursor(expensesResponse.data?.nextCursor || null);
       setGroups(groupsData);
     } catch (error) {
       console.error('Failed to fetch data:', error);
@@ -137,6 +147,19 @@ const Expenses = () => {
     }
   };
 
+  const loadMore = async () => {
+    try {
+      setLoadingMore(true);
+      const response = await expenseAPI.getUserExpensePage(user.id, pageParams(nextCursor));
+      setExpenses((current) => [...current, ...(response.data?.expenses || [])]);
+      setNextCursor(response.data?.nextCursor || null);
+    } catch (error) {
+      console.error('Failed to load more expenses:', error);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const handleAddExpense = async (expenseData) => {
     try {
       await expenseAPI.addExpense(
@@ -285,7 +308,7 @@ const Expenses = () => {
             <ExpenseCard
               key={expense.id}
               expense={expense}
-              delay={index * 0.1}
+              delay={(index % PAGE_SIZE) * 0.1}
               onDelete={handleDeleteExpense}
               currentUserId={user.id}
             />
@@ -293,6 +316,18 @@ const Expenses = () => {
         </div>
       )}
 
+      {nextCursor && (
+        <div className="flex justify-center">
+          <button
+            onClick={loadMore}
+            disabled={loadingMore}
+            className="btn btn-secondary"
+          >
+            {loadingMore ? 'Loading...' : 'Load more'}
+          </button>
+        </div>
+      )}
+
       {/* Add Expense Modal */}
       <AddExpenseModal
         isOpen={showAddModal}
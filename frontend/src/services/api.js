@@ -39,6 +39,8 @@ export const authAPI = {
   register: (userData) => api.post('/auth/register', userData),
   login: (credentials) => api.post('/auth/login', credentials),
   getCurrentUser: () => api.get('/auth/me'),
+  // Token passed explicitly because local storage is cleared right after the call
+  logout: (token) => api.post('/auth/logout', null, { headers: { Authorization: `Bearer ${token}` } }),
 };
 
 // User API
@@ -46,6 +48,7 @@ export const userAPI = {
   getAllUsers: () => api.get('/users'),
   getUserById: (id) => api.get(`/user/id/${id}`),
   getUserByEmail: (email) => api.get(`/user/email/${email}`),
+  getUserSummary: (userId) => api.get(`/users/${userId}/summary`),
 };
 
 // Group API
@@ -61,7 +64,12 @@ export const expenseAPI = {
   addExpense: (groupId, payerId, expenseData) =>
     api.post(`/expenses/add?groupId=${groupId}&payerId=${payerId}`, expenseData),
   getGroupExpenses: (groupId) => api.get(`/expenses/group/${groupId}`),
+  exportGroupExpenses: (groupId, format = 'csv') =>
+    api.get(`/expenses/group/${groupId}/export?format=${format}`, { responseType: 'blob' }),
   getUserExpenses: (userId) => api.get(`/expenses/user/${userId}`),
+  // Keyset pages: params are { cursor, limit, from, to, payerId }; pass back nextCursor for the next page
+  getGroupExpensePage: (groupId, params = {}) => api.get(`/expenses/group/${groupId}/page`, { params }),
+  getUserExpensePage: (userId, params = {}) => api.get(`/expenses/user/${userId}/page`, { params }),
   deleteExpense: (expenseId) => api.delete(`/expenses/${expenseId}`),
 };
 
@@ -69,6 +77,62 @@ export const expenseAPI = {
 export const settlementAPI = {
   getGroupSettlements: (groupId) => api.get(`/settlement/group/${groupId}`),
   getUserSettlements: (userId) => api.get(`/settlement/user/${userId}`),
+  getNettedUserSettlements: (userId) => api.get(`/settlement/user/${userId}/netted`),
+};
+
+// Server-Sent Events over fetch, since EventSource cannot send the Authorization header.
+// Calls onEvent(type, data) per event and reconnects after a dropped connection; returns an unsubscribe function.
+export const subscribeToEvents = (path, onEvent) => {
+  const controller = new AbortController();
+
+  const connect = async () => {
+    while (!controller.signal.aborted) {
+      try {
+        const token = localStorage.getItem('token');
+        const response = await fetch(`${API_BASE_URL}${path}`, {
+          headers: { Accept: 'text/event-stream', Authorization: `Bearer ${token}` },
+          signal: controller.signal,
+        });
+        if (!response.ok) {
+          return;
+        }
+        const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+        let buffer = '';
+        for (;;) {
+          const { value, done } = await reader.read();
+          if (done) {
+            break;
+          }
+          buffer += value;
+          let boundary;
+          while ((boundary = buffer.indexOf('\n\n')) >= 0) {
+            const block = buffer.slice(0, boundary);
+            buffer = buffer.slice(boundary + 2);
+            let type = 'message';
+            let data = '';
+            for (const line of block.split('\n')) {
+              if (line.startsWith('event:')) {
+                type = line.slice(6).trim();
+              } else if (line.startsWith('data:')) {
+                data += line.slice(5).trim();
+              }
+            }
+            if (data) {
+              onEvent(type, JSON.parse(data));
+            }
+          }
+        }
+      } catch (error) {
+        if (controller.signal.aborted) {
+          return;
+        }
+      }
+      await new Promise((resolve) => setTimeout(resolve, 3000));
+    }
+  };
+
+  connect();
+  return () => controller.abort();
 };
 
 export default api;
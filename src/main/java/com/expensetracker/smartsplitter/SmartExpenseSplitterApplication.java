@@ -1,13 +1,16 @@
 package com.expensetracker.smartsplitter;
 
 import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 @SpringBootApplication
+@EnableScheduling
 public class SmartExpenseSplitterApplication {
 
 	public static void main(String[] args) {
@@ -21,8 +24,8 @@ public class SmartExpenseSplitterApplication {
 	}
 
 	@Bean
-	public BCryptPasswordEncoder bCryptPasswordEncoder(){
-		return new BCryptPasswordEncoder(12);
+	public BCryptPasswordEncoder bCryptPasswordEncoder(@Value("${app.password.bcrypt-cost:12}") int cost){
+		return new BCryptPasswordEncoder(cost);
 	}
 
 }
\ No newline at end of file
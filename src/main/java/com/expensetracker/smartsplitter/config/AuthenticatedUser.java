@@ -0,0 +1,26 @@
+package com.expensetracker.smartsplitter.config;
+
+import com.expensetracker.smartsplitter.model.Role;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.Principal;
+import java.util.List;
+
+/**
+ * Principal rebuilt from verified JWT claims, so authenticated requests never need a users lookup.
+ * Controllers can take it with {@code @AuthenticationPrincipal AuthenticatedUser}.
+ * {@link #getName()} is the email, matching what {@code Authentication.getName()} returned before.
+ */
+public record AuthenticatedUser(Long id, String email, Role role, String tokenId,
+                                long issuedAtMillis, long expiresAtMillis) implements Principal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    public List<GrantedAuthority> authorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+}
@@ -0,0 +1,61 @@
+package com.expensetracker.smartsplitter.config;
+
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.core.config.DefaultConfiguration;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Local second-level cache for users and group memberships, the rows read on nearly every
+ * request and rarely written. Groups themselves are left out since every expense or payment
+ * bumps their ledger counters; only their member lists are cached. Each region holds at most {@code app.cache.max-entries} entries
+ * and drops them {@code app.cache.ttl} after they were written, so rows changed outside
+ * Hibernate are picked up again within the TTL.
+ */
+@Configuration
+public class CacheConfig {
+
+    public static final String USERS = "users";
+    public static final String USERS_BY_EMAIL = "users-by-email";
+    public static final String GROUP_MEMBERS = "group-members";
+    public static final String GROUP_MEMBERS_BY_GROUP = "group-members-by-group";
+    public static final String MEMBERSHIPS_BY_USER = "memberships-by-user";
+
+    public static final List<String> REGIONS = List.of(
+            USERS, USERS_BY_EMAIL, GROUP_MEMBERS, GROUP_MEMBERS_BY_GROUP, MEMBERSHIPS_BY_USER);
+
+    // Own manager per application context, so test contexts sharing a JVM never share entries
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(@Value("${app.cache.max-entries:10000}") long maxEntries,
+                                              @Value("${app.cache.ttl:10m}") Duration ttl) {
+        EhcacheCachingProvider provider =
+                (EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(URI.create("urn:smart-splitter:" + UUID.randomUUID()),
+                new DefaultConfiguration(getClass().getClassLoader()));
+        for (String region : REGIONS) {
+            cacheManager.createCache(region, Eh107Configuration.fromEhcacheCacheConfiguration(
+                    CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class,
+                                    ResourcePoolsBuilder.heap(maxEntries))
+                            .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(ttl))));
+        }
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put("hibernate.javax.cache.cache_manager", hibernateCacheManager);
+    }
+}
@@ -0,0 +1,102 @@
+package com.expensetracker.smartsplitter.config;
+
+import com.expensetracker.smartsplitter.model.Group;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serialises writes to a group's expenses, balances, event log and settlement plan. Every
+ * transaction that changes them calls {@link #lock} before it reads the group, since a copy
+ * read earlier would not be refreshed.
+ *
+ * Two guards are held until the transaction completes. The first is one of
+ * {@code app.group-locks.stripes} in-process locks, picked by group id, so writers on this
+ * instance queue in memory. The second is a {@code SELECT ... FOR UPDATE} on the group row,
+ * which also covers other instances. Unrelated groups usually land on different stripes and
+ * run in parallel. A transaction locks at most one group, so stripes cannot deadlock.
+ */
+@Component
+public class GroupLocks {
+
+    private final ReentrantLock[] stripes;
+    private final long timeoutMillis;
+    private final EntityManager entityManager;
+
+    @Autowired
+    public GroupLocks(@Value("${app.group-locks.stripes:256}") int stripes,
+                      @Value("${app.group-locks.timeout:10s}") Duration timeout,
+                      EntityManager entityManager) {
+        this.stripes = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.timeoutMillis = timeout.toMillis();
+        this.entityManager = entityManager;
+    }
+
+    // Locks the group for the rest of the current transaction and returns it; must come before any other read of it
+    public Group lock(Long groupId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Group locks are held until commit and need a transaction");
+        }
+
+        // Nested service calls in the same transaction already hold the group
+        Set<Long> held = heldGroups();
+        if (held.contains(groupId)) {
+            return entityManager.find(Group.class, groupId);
+        }
+
+        ReentrantLock stripe = stripeFor(groupId);
+        try {
+            if (!stripe.tryLock(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new CannotAcquireLockException("Timed out waiting for group " + groupId);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CannotAcquireLockException("Interrupted waiting for group " + groupId, e);
+        }
+        held.add(groupId);
+
+        // A pessimistic load skips the second-level cache and reads the row with SELECT ... FOR UPDATE
+        Group group = entityManager.find(Group.class, groupId, LockModeType.PESSIMISTIC_WRITE);
+        if (group == null) {
+            throw new RuntimeException("Group not found");
+        }
+        return group;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<Long> heldGroups() {
+        Set<Long> held = (Set<Long>) TransactionSynchronizationManager.getResource(this);
+        if (held != null) {
+            return held;
+        }
+        Set<Long> created = new HashSet<>();
+        TransactionSynchronizationManager.bindResource(this, created);
+        // Runs on the thread that took the locks, once commit or rollback has released the row locks too
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResource(GroupLocks.this);
+                created.forEach(groupId -> stripeFor(groupId).unlock());
+            }
+        });
+        return created;
+    }
+
+    private ReentrantLock stripeFor(Long groupId) {
+        return stripes[Math.floorMod(Long.hashCode(groupId), stripes.length)];
+    }
+}
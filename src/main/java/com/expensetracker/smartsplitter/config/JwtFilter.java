@@ -1,5 +1,6 @@
 package com.expensetracker.smartsplitter.config;
 
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -7,8 +8,6 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -17,11 +16,16 @@ import java.io.IOException;
 @Component
 public class JwtFilter extends OncePerRequestFilter {
 
-    @Autowired
-    private JwtService jwtService;
+    private final JwtService jwtService;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenDenylist tokenDenylist;
 
     @Autowired
-    private UserDetailsService userDetailsService;
+    public JwtFilter(JwtService jwtService, VerifiedTokenCache verifiedTokenCache, TokenDenylist tokenDenylist) {
+        this.jwtService = jwtService;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.tokenDenylist = tokenDenylist;
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -37,26 +41,21 @@ public class JwtFilter extends OncePerRequestFilter {
         }
 
         final String authHeader = request.getHeader("Authorization");
-        final String token;
-        final String username;
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        token = authHeader.substring(7);
-        username = jwtService.extractUsername(token);
-
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-
-            if (jwtService.isTokenValid(token, userDetails.getUsername())) {
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            AuthenticatedUser principal = authenticate(authHeader.substring(7));
+            if (principal != null) {
+                // Built from the token claims alone; no users lookup per request
                 UsernamePasswordAuthenticationToken authToken =
                         new UsernamePasswordAuthenticationToken(
-                                userDetails,
+                                principal,
                                 null,
-                                userDetails.getAuthorities()
+                                principal.authorities()
                         );
                 SecurityContextHolder.getContext().setAuthentication(authToken);
             }
@@ -64,4 +63,19 @@ public class JwtFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    // Principal for the token, or null when it does not verify or was revoked; the request then continues unauthenticated
+    private AuthenticatedUser authenticate(String token) {
+        AuthenticatedUser principal = verifiedTokenCache.get(token);
+        if (principal == null) {
+            try {
+                // Signature and expiry are checked once here
+                principal = jwtService.parsePrincipal(token);
+            } catch (JwtException | IllegalArgumentException e) {
+                return null;
+            }
+            verifiedTokenCache.put(token, principal, principal.expiresAtMillis());
+        }
+        return tokenDenylist.isRevoked(principal) ? null : principal;
+    }
 }
@@ -1,5 +1,6 @@
 package com.expensetracker.smartsplitter.config;
 
+import com.expensetracker.smartsplitter.model.Role;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
@@ -7,46 +8,80 @@ import org.springframework.stereotype.Service;
 
 import java.security.Key;
 import java.util.Date;
+import java.util.UUID;
 
 @Service
 public class JwtService {
 
-    @Value("${app.jwt.secret}")
-    private String SECRET_KEY;
+    static final String CLAIM_USER_ID = "uid";
+    static final String CLAIM_ROLE = "role";
+    // The standard iat claim has whole-second precision, too coarse to order a token against a logout
+    static final String CLAIM_ISSUED_AT_MILLIS = "iat_ms";
+    static final long TOKEN_LIFETIME_MILLIS = 1000 * 60 * 10; // 10 minutes
 
-    private Key getSignInKey() {
-        return Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+    // Built once: the key and parser are immutable and thread-safe
+    private final Key signingKey;
+    private final JwtParser parser;
+
+    public JwtService(@Value("${app.jwt.secret}") String secret) {
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
     }
 
-    public String generateToken(String username) {
+    // The token carries everything needed to authenticate a request without touching the database
+    public String generateToken(Long userId, String email, Role role) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
-                .setSubject(username)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 10)) // 10 hrs
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .setId(UUID.randomUUID().toString())
+                .setSubject(email)
+                .claim(CLAIM_USER_ID, userId)
+                .claim(CLAIM_ROLE, role.name())
+                .claim(CLAIM_ISSUED_AT_MILLIS, now)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + TOKEN_LIFETIME_MILLIS))
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public String extractUsername(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+    /**
+     * Verifies the signature and expiry once and returns the claims.
+     *
+     * @throws JwtException if the token is malformed, tampered with or expired
+     */
+    public Claims parseClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
     }
 
-    public boolean isTokenValid(String token, String username) {
-        return extractUsername(token).equals(username) && !isTokenExpired(token);
+    /**
+     * Verifies the token and builds its principal from the claims alone.
+     *
+     * @throws JwtException if the token does not verify or predates the user id and role claims
+     */
+    public AuthenticatedUser parsePrincipal(String token) {
+        Claims claims = parseClaims(token);
+        Number userId = claims.get(CLAIM_USER_ID, Number.class);
+        String role = claims.get(CLAIM_ROLE, String.class);
+        if (userId == null || role == null) {
+            throw new MalformedJwtException("Token is missing the user id or role claim");
+        }
+        Number issuedAtMillis = claims.get(CLAIM_ISSUED_AT_MILLIS, Number.class);
+        return new AuthenticatedUser(userId.longValue(), claims.getSubject(), Role.valueOf(role), claims.getId(),
+                issuedAtMillis != null ? issuedAtMillis.longValue() : claims.getIssuedAt().getTime(),
+                claims.getExpiration().getTime());
     }
 
-    private boolean isTokenExpired(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getExpiration()
-                .before(new Date());
+    public String extractUsername(String token) {
+        return parseClaims(token).getSubject();
+    }
+
+    public boolean isTokenValid(String token, String username) {
+        try {
+            Claims claims = parseClaims(token);
+            return claims.getSubject().equals(username) && !claims.getExpiration().before(new Date());
+        } catch (JwtException e) {
+            return false;
+        }
     }
 }
@@ -0,0 +1,106 @@
+package com.expensetracker.smartsplitter.config;
+
+import com.expensetracker.smartsplitter.job.SettlementRecomputeQueue;
+import com.expensetracker.smartsplitter.stream.ChangeStreamBroker;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Gauges for the app's own pools, queues and caches. Hibernate statistics, Hikari pool and HTTP request
+ * metrics come from Spring Boot's auto-configuration (see the management.* properties).
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder passwordHashingMetrics(PasswordHasher passwordHasher) {
+        return registry -> {
+            Gauge.builder("password.hashing.active", passwordHasher, hasher -> hasher.stats().activeThreads())
+                    .description("Hashes running on the password pool")
+                    .register(registry);
+            Gauge.builder("password.hashing.queued", passwordHasher, hasher -> hasher.stats().queueDepth())
+                    .description("Hashes waiting for a password pool thread")
+                    .register(registry);
+            Gauge.builder("password.hashing.mean.wait", passwordHasher, hasher -> hasher.stats().meanWaitMillis())
+                    .description("Mean time a hash waited in the queue")
+                    .baseUnit("milliseconds")
+                    .register(registry);
+            FunctionCounter.builder("password.hashing.completed", passwordHasher, hasher -> hasher.stats().completed())
+                    .register(registry);
+            FunctionCounter.builder("password.hashing.rejected", passwordHasher, hasher -> hasher.stats().rejected())
+                    .description("Hashes refused because the pool was full or the wait timed out")
+                    .register(registry);
+            FunctionCounter.builder("password.hashing.rehashed", passwordHasher, hasher -> hasher.stats().rehashed())
+                    .description("Stored hashes re-encoded at the configured cost")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder threadingMetrics(ThreadingDiagnostics threadingDiagnostics) {
+        return registry -> FunctionCounter.builder("threads.virtual.pinned", threadingDiagnostics,
+                        ThreadingDiagnostics::pinnedCount)
+                .description("Virtual threads that blocked while pinned to their carrier")
+                .register(registry);
+    }
+
+    @Bean
+    public MeterBinder changeStreamMetrics(ChangeStreamBroker changeStreamBroker) {
+        return registry -> {
+            Gauge.builder("sse.subscribers", changeStreamBroker, ChangeStreamBroker::subscriberCount)
+                    .description("Open Server-Sent Event streams")
+                    .register(registry);
+            FunctionCounter.builder("sse.subscribers.stalled", changeStreamBroker, ChangeStreamBroker::stalledCount)
+                    .description("Streams closed because a write to the client blocked past the send timeout")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder settlementRecomputeMetrics(SettlementRecomputeQueue queue) {
+        return registry -> {
+            Gauge.builder("settlement.recompute.pending", queue, SettlementRecomputeQueue::pendingGroups)
+                    .description("Groups waiting for a background settlement recomputation")
+                    .register(registry);
+            FunctionCounter.builder("settlement.recompute.marked", queue, SettlementRecomputeQueue::markedCount)
+                    .description("Times a group was marked stale, before coalescing")
+                    .register(registry);
+            FunctionCounter.builder("settlement.recompute.runs", queue, SettlementRecomputeQueue::recomputedCount)
+                    .description("Settlement plans recomputed in the background")
+                    .register(registry);
+            FunctionCounter.builder("settlement.recompute.failed", queue, SettlementRecomputeQueue::failedCount)
+                    .register(registry);
+        };
+    }
+
+    // Hit and miss counts per region come from hibernate-micrometer; the ratio saves every dashboard computing it
+    @Bean
+    public MeterBinder secondLevelCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        return registry -> {
+            for (String region : CacheConfig.REGIONS) {
+                Gauge.builder("hibernate.cache.hit.ratio", statistics, stats -> hitRatio(stats, region))
+                        .description("Share of second-level cache lookups answered from the cache")
+                        .tag("region", region)
+                        .register(registry);
+            }
+        };
+    }
+
+    private static double hitRatio(Statistics statistics, String region) {
+        CacheRegionStatistics regionStatistics = statistics.getDomainDataRegionStatistics(region);
+        if (regionStatistics == null) {
+            return Double.NaN;
+        }
+        long hits = regionStatistics.getHitCount();
+        long lookups = hits + regionStatistics.getMissCount();
+        return lookups == 0 ? Double.NaN : (double) hits / lookups;
+    }
+}
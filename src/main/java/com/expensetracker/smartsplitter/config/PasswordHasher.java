@@ -0,0 +1,195 @@
+package com.expensetracker.smartsplitter.config;
+
+import com.expensetracker.smartsplitter.exception.PasswordHashingRejectedException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs BCrypt on a small dedicated pool so login and register bursts cannot pin every request
+ * thread on hashing. The pool has {@code app.password.hashing.threads} workers (0 means one per
+ * core) and a queue of {@code app.password.hashing.queue-capacity}; when both are full the call
+ * fails straight away with {@link PasswordHashingRejectedException} instead of piling up.
+ *
+ * Hashes whose cost differs from {@code app.password.bcrypt-cost} are re-encoded after a
+ * successful match, so the cost can be tuned up or down and stored hashes follow on next login.
+ */
+@Component
+public class PasswordHasher {
+
+    // Outcome of a match; upgradedHash is set only when the stored hash should be replaced
+    public record Verification(boolean matches, String upgradedHash) {
+    }
+
+    private final PasswordEncoder encoder;
+    private final int cost;
+    private final long timeoutMillis;
+    private final int queueCapacity;
+    private final ThreadPoolExecutor executor;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder rehashed = new LongAdder();
+    private final LongAdder timed = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final LongAdder totalHashNanos = new LongAdder();
+    private final AtomicLong maxHashNanos = new AtomicLong();
+
+    // Encoded once on first use; unknown emails are checked against it so they cost as much as real ones
+    private volatile String dummyHash;
+
+    @Autowired
+    public PasswordHasher(BCryptPasswordEncoder encoder,
+                          @Value("${app.password.bcrypt-cost:12}") int cost,
+                          @Value("${app.password.hashing.threads:0}") int threads,
+                          @Value("${app.password.hashing.queue-capacity:64}") int queueCapacity,
+                          @Value("${app.password.hashing.timeout:5s}") Duration timeout) {
+        this(encoder, cost, threads > 0 ? threads : Runtime.getRuntime().availableProcessors(),
+                queueCapacity, timeout.toMillis());
+    }
+
+    PasswordHasher(PasswordEncoder encoder, int cost, int threads, int queueCapacity, long timeoutMillis) {
+        this.encoder = encoder;
+        this.cost = cost;
+        this.timeoutMillis = timeoutMillis;
+        this.queueCapacity = queueCapacity;
+        AtomicInteger threadIds = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                task -> {
+                    Thread thread = new Thread(task, "password-hash-" + threadIds.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public String encode(String rawPassword) {
+        return submit(() -> timedHash(() -> encoder.encode(rawPassword)));
+    }
+
+    public Verification verify(String rawPassword, String encodedPassword) {
+        return submit(() -> {
+            boolean matches = timedHash(() -> encoder.matches(rawPassword, encodedPassword));
+            if (!matches || !needsRehash(encodedPassword)) {
+                return new Verification(matches, null);
+            }
+            rehashed.increment();
+            return new Verification(true, timedHash(() -> encoder.encode(rawPassword)));
+        });
+    }
+
+    // Burns the same work as a real check so a missing account is not visible from response times
+    public void verifyAgainstDummy(String rawPassword) {
+        String hash = dummyHash;
+        if (hash == null) {
+            hash = encode("dummy-password-for-unknown-accounts");
+            dummyHash = hash;
+        }
+        verify(rawPassword, hash);
+    }
+
+    public boolean needsRehash(String encodedPassword) {
+        int storedCost = bcryptCost(encodedPassword);
+        return storedCost >= 0 && storedCost != cost;
+    }
+
+    public PasswordHashingStats stats() {
+        long count = timed.sum();
+        long done = completed.sum();
+        return new PasswordHashingStats(
+                executor.getMaximumPoolSize(),
+                executor.getActiveCount(),
+                executor.getQueue().size(),
+                queueCapacity,
+                done,
+                rejected.sum(),
+                rehashed.sum(),
+                done == 0 ? 0 : totalWaitNanos.sum() / 1e6 / done,
+                count == 0 ? 0 : totalHashNanos.sum() / 1e6 / count,
+                maxHashNanos.get() / 1e6);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> T submit(Callable<T> work) {
+        long queuedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                totalWaitNanos.add(System.nanoTime() - queuedAt);
+                try {
+                    return work.call();
+                } finally {
+                    completed.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingRejectedException("Password hashing is at capacity, try again shortly");
+        }
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Drops the task if it is still queued; a running hash is left to finish
+            future.cancel(false);
+            rejected.increment();
+            throw new PasswordHashingRejectedException("Password hashing timed out, try again shortly");
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingRejectedException("Interrupted while waiting for password hashing");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private <T> T timedHash(Callable<T> hash) throws Exception {
+        long start = System.nanoTime();
+        try {
+            return hash.call();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            timed.increment();
+            totalHashNanos.add(elapsed);
+            maxHashNanos.accumulateAndGet(elapsed, Math::max);
+        }
+    }
+
+    // Cost from a "$2a$12$..." style hash, or -1 if the value is not BCrypt
+    static int bcryptCost(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.length() < 7 || !encodedPassword.startsWith("$2")
+                || encodedPassword.charAt(3) != '$' || encodedPassword.charAt(6) != '$') {
+            return -1;
+        }
+        char tens = encodedPassword.charAt(4);
+        char units = encodedPassword.charAt(5);
+        if (!Character.isDigit(tens) || !Character.isDigit(units)) {
+            return -1;
+        }
+        return (tens - '0') * 10 + (units - '0');
+    }
+}
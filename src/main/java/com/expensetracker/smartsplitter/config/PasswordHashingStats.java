@@ -0,0 +1,19 @@
+package com.expensetracker.smartsplitter.config;
+
+/**
+ * Point-in-time view of the password-hashing pool. Wait is the time a task spent queued,
+ * hash is the time spent in BCrypt itself; both are in milliseconds.
+ */
+public record PasswordHashingStats(
+        int threads,
+        int activeThreads,
+        int queueDepth,
+        int queueCapacity,
+        long completed,
+        long rejected,
+        long rehashed,
+        double meanWaitMillis,
+        double meanHashMillis,
+        double maxHashMillis
+) {
+}
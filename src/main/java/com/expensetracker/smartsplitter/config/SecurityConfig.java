@@ -1,6 +1,7 @@
 package com.expensetracker.smartsplitter.config;
 
-
+import com.expensetracker.smartsplitter.model.Role;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -33,8 +34,13 @@ public class SecurityConfig {
                 .csrf(csrf -> csrf.disable())
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .authorizeHttpRequests(auth -> auth
+                        // Async dispatches (streamed responses) were already authorized on the original request
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/api/auth/**", "/api/register").permitAll() // public endpoints
                         .requestMatchers("/h2-console/**").permitAll() // for H2 console if needed
+                        .requestMatchers("/actuator/health").permitAll() // liveness and readiness probes
+                        // Metrics expose traffic, pool and cache internals; the scraper authenticates as an admin
+                        .requestMatchers("/actuator/prometheus").hasRole(Role.ADMIN.name())
                         .anyRequest().authenticated()
                 )
                 .authenticationProvider(authenticationProvider())
@@ -0,0 +1,118 @@
+package com.expensetracker.smartsplitter.config;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reports which threading mode the app came up in and watches virtual threads for pinning.
+ * With {@code spring.threads.virtual.enabled=true} on Java 21+, Spring Boot runs Tomcat request
+ * handling, {@code @Async} work and scheduled jobs on virtual threads; on older runtimes the flag
+ * is ignored and we warn about it here.
+ *
+ * Virtual threads make request concurrency effectively unbounded, so the JDBC pool becomes the
+ * real limit: requests queue for a connection for at most the Hikari connection timeout.
+ * Password hashing stays on its own platform-thread pool since it is CPU bound.
+ *
+ * In virtual mode a JFR stream listens for {@code jdk.VirtualThreadPinned}: a virtual thread that
+ * blocked for longer than {@code app.threads.pinned-threshold} while holding its carrier (inside
+ * {@code synchronized} or native code). Every event counts towards {@code threads.virtual.pinned},
+ * and the first event from each code location is logged with its stack.
+ */
+@Component
+public class ThreadingDiagnostics {
+
+    private static final Logger log = LoggerFactory.getLogger(ThreadingDiagnostics.class);
+
+    private static final int VIRTUAL_THREADS_MIN_JAVA = 21;
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 8;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreadsRequested;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int maxPoolSize;
+
+    @Value("${spring.datasource.hikari.connection-timeout:30000}")
+    private long connectionTimeoutMillis;
+
+    @Value("${app.threads.pinned-threshold:20ms}")
+    private Duration pinnedThreshold;
+
+    private final LongAdder pinned = new LongAdder();
+    private final Set<String> loggedLocations = ConcurrentHashMap.newKeySet();
+    private RecordingStream pinningStream;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void report() {
+        int javaVersion = Runtime.version().feature();
+        if (!virtualThreadsRequested) {
+            log.info("Request handling on platform threads (JDBC pool max {})", maxPoolSize);
+            return;
+        }
+        if (javaVersion < VIRTUAL_THREADS_MIN_JAVA) {
+            log.warn("spring.threads.virtual.enabled is set but Java {} has no virtual threads (needs {}+); "
+                    + "falling back to platform threads", javaVersion, VIRTUAL_THREADS_MIN_JAVA);
+            return;
+        }
+        log.info("Request handling, async and scheduled work on virtual threads; "
+                + "JDBC pool max {} with {} ms connection timeout bounds database concurrency",
+                maxPoolSize, connectionTimeoutMillis);
+        watchPinning();
+    }
+
+    private void watchPinning() {
+        pinningStream = new RecordingStream();
+        pinningStream.enable(PINNED_EVENT).withThreshold(pinnedThreshold).withStackTrace();
+        pinningStream.onEvent(PINNED_EVENT, this::onPinned);
+        pinningStream.startAsync();
+        log.info("Watching for virtual threads pinned longer than {} ms", pinnedThreshold.toMillis());
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinned.increment();
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return;
+        }
+        // The set only grows by distinct pinning sites, of which there are few
+        String location = frame(stackTrace.getFrames().get(0));
+        if (loggedLocations.add(location)) {
+            StringBuilder stack = new StringBuilder();
+            stackTrace.getFrames().stream().limit(LOGGED_FRAMES)
+                    .forEach(frame -> stack.append("\n\tat ").append(frame(frame)));
+            log.warn("Virtual thread pinned its carrier for {} ms at {}{}",
+                    event.getDuration().toMillis(), location, stack);
+        }
+    }
+
+    private static String frame(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + ":" + frame.getLineNumber();
+    }
+
+    public long pinnedCount() {
+        return pinned.sum();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (pinningStream != null) {
+            pinningStream.close();
+        }
+    }
+}
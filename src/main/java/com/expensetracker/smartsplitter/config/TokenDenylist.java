@@ -0,0 +1,61 @@
+package com.expensetracker.smartsplitter.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revoked tokens, checked by JwtFilter after a token verifies (or is served from the cache).
+ * Single tokens are revoked by id (logout); all of a user's tokens issued before a moment can be
+ * revoked at once (password change, compromised account). Entries only need to outlive the
+ * tokens they cover, so the lists stay as small as the number of live revoked tokens.
+ *
+ * The lists are per instance; disable with {@code app.jwt.denylist.enabled=false}.
+ */
+@Component
+public class TokenDenylist {
+
+    private record Cutoff(long issuedBeforeMillis, long keepUntilMillis) {
+    }
+
+    private final boolean enabled;
+    private final ConcurrentHashMap<String, Long> revokedTokens = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Cutoff> userCutoffs = new ConcurrentHashMap<>();
+
+    public TokenDenylist(@Value("${app.jwt.denylist.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isRevoked(AuthenticatedUser principal) {
+        if (!enabled || (revokedTokens.isEmpty() && userCutoffs.isEmpty())) {
+            return false;
+        }
+        if (principal.tokenId() != null && revokedTokens.containsKey(principal.tokenId())) {
+            return true;
+        }
+        // Issue times are in milliseconds, so a login right after "log out everywhere" is not caught by it
+        Cutoff cutoff = userCutoffs.get(principal.id());
+        return cutoff != null && principal.issuedAtMillis() <= cutoff.issuedBeforeMillis();
+    }
+
+    public void revoke(AuthenticatedUser principal) {
+        if (enabled && principal.tokenId() != null) {
+            purgeExpired(System.currentTimeMillis());
+            revokedTokens.put(principal.tokenId(), principal.expiresAtMillis());
+        }
+    }
+
+    public void revokeAllIssuedBefore(Long userId, long issuedBeforeMillis) {
+        if (enabled) {
+            // Dropped once every token it covers has expired
+            purgeExpired(System.currentTimeMillis());
+            userCutoffs.put(userId, new Cutoff(issuedBeforeMillis, issuedBeforeMillis + JwtService.TOKEN_LIFETIME_MILLIS));
+        }
+    }
+
+    private void purgeExpired(long now) {
+        revokedTokens.values().removeIf(expiresAt -> expiresAt <= now);
+        userCutoffs.values().removeIf(cutoff -> cutoff.keepUntilMillis() <= now);
+    }
+}
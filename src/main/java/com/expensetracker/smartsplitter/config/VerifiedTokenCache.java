@@ -0,0 +1,85 @@
+package com.expensetracker.smartsplitter.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Bearer tokens whose signature has already been verified, mapped to their principal.
+ * A hit lets JwtFilter skip signature verification and claim parsing.
+ *
+ * Entries live until the token expires or for at most {@code app.jwt.cache.ttl}, whichever
+ * comes first. The cache holds at most
+ * {@code app.jwt.cache.max-entries} tokens; when it is full and nothing has expired, new
+ * tokens are simply verified on every request until space frees up.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private record Entry(AuthenticatedUser principal, long expiresAtMillis) {
+    }
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+
+    @Autowired
+    public VerifiedTokenCache(@Value("${app.jwt.cache.max-entries:10000}") int maxEntries,
+                              @Value("${app.jwt.cache.ttl:5m}") Duration ttl) {
+        this(maxEntries, ttl.toMillis(), System::currentTimeMillis);
+    }
+
+    VerifiedTokenCache(int maxEntries, long ttlMillis, LongSupplier clock) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+    }
+
+    // Null when the token was never verified, has expired or aged out of the cache
+    public AuthenticatedUser get(String token) {
+        Entry entry = entries.get(token);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAtMillis() <= clock.getAsLong()) {
+            entries.remove(token, entry);
+            return null;
+        }
+        return entry.principal();
+    }
+
+    public void put(String token, AuthenticatedUser principal, long tokenExpiresAtMillis) {
+        if (maxEntries <= 0) {
+            return;
+        }
+        long now = clock.getAsLong();
+        long expiresAt = Math.min(tokenExpiresAtMillis, now + ttlMillis);
+        if (expiresAt <= now) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            evictExpired(now);
+            if (entries.size() >= maxEntries) {
+                return;
+            }
+        }
+        entries.put(token, new Entry(principal, expiresAt));
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void evictExpired(long now) {
+        entries.values().removeIf(entry -> entry.expiresAtMillis() <= now);
+    }
+}
@@ -1,12 +1,15 @@
 package com.expensetracker.smartsplitter.controller;
 
+import com.expensetracker.smartsplitter.config.AuthenticatedUser;
 import com.expensetracker.smartsplitter.dto.AuthResponse;
 import com.expensetracker.smartsplitter.dto.LoginRequest;
 import com.expensetracker.smartsplitter.dto.RegisterRequest;
 import com.expensetracker.smartsplitter.dto.UserDto;
 import com.expensetracker.smartsplitter.service.AuthService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -16,19 +19,33 @@ public class AuthController {
     @Autowired
     private AuthService authService;
 
+    // A saturated hashing pool answers 503 through RestExceptionHandler
     @PostMapping("/register")
     public ResponseEntity<AuthResponse> register(@RequestBody RegisterRequest request) {
         return ResponseEntity.ok(authService.register(request));
-        }
+    }
 
-        @PostMapping("/login")
-        public ResponseEntity<AuthResponse> login(@RequestBody LoginRequest request) {
-            return ResponseEntity.ok(authService.login(request));
-        }
+    @PostMapping("/login")
+    public ResponseEntity<AuthResponse> login(@RequestBody LoginRequest request) {
+        return ResponseEntity.ok(authService.login(request));
+    }
 
     @GetMapping("/me")
-    public ResponseEntity<UserDto> currentUser() {
-        return ResponseEntity.ok(authService.getCurrentUser());
+    public ResponseEntity<UserDto> currentUser(@AuthenticationPrincipal AuthenticatedUser principal) {
+        if (principal == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return ResponseEntity.ok(authService.getCurrentUser(principal));
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@AuthenticationPrincipal AuthenticatedUser principal,
+                                       @RequestParam(defaultValue = "false") boolean allSessions) {
+        if (principal == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        authService.logout(principal, allSessions);
+        return ResponseEntity.noContent().build();
     }
 }
 
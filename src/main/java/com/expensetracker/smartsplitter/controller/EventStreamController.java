@@ -0,0 +1,46 @@
+package com.expensetracker.smartsplitter.controller;
+
+import com.expensetracker.smartsplitter.config.AuthenticatedUser;
+import com.expensetracker.smartsplitter.repository.GroupMemberRepository;
+import com.expensetracker.smartsplitter.stream.ChangeStreamBroker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Server-Sent Event streams of committed changes, so clients can update in place instead of
+ * polling. Events are named after their type (expense-added, balance-changed, plan-updated, ...)
+ * and carry the sequence number from the group's ledger event log.
+ */
+@RestController
+@RequestMapping("/api")
+public class EventStreamController {
+
+    @Autowired
+    private ChangeStreamBroker changeStreamBroker;
+
+    @Autowired
+    private GroupMemberRepository groupMemberRepository;
+
+    @GetMapping(value = "/groups/{groupId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter groupEvents(@PathVariable Long groupId,
+                                  @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        if (!groupMemberRepository.existsByUserIdAndGroupId(currentUser.id(), groupId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not a member of this group");
+        }
+        return changeStreamBroker.subscribeToGroup(groupId);
+    }
+
+    @GetMapping(value = "/users/{userId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter userEvents(@PathVariable Long userId,
+                                 @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        if (!currentUser.id().equals(userId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Cannot subscribe to another user's events");
+        }
+        return changeStreamBroker.subscribeToUser(userId);
+    }
+}
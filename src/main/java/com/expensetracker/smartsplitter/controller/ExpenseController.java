@@ -1,13 +1,28 @@
 package com.expensetracker.smartsplitter.controller;
 
+import com.expensetracker.smartsplitter.dto.ExpenseImportResult;
+import com.expensetracker.smartsplitter.dto.ExpensePage;
+import com.expensetracker.smartsplitter.dto.ExpenseQuery;
 import com.expensetracker.smartsplitter.dto.ExpenseRequest;
+import com.expensetracker.smartsplitter.dto.view.ExpenseView;
 import com.expensetracker.smartsplitter.model.Expense;
-import com.expensetracker.smartsplitter.model.ExpenseParticipant;
+import com.expensetracker.smartsplitter.service.ExpenseExportService;
+import com.expensetracker.smartsplitter.service.ExpenseImportService;
 import com.expensetracker.smartsplitter.service.ExpenseService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.*;
 
 @RestController
@@ -17,6 +32,12 @@ public class ExpenseController {
     @Autowired
     private ExpenseService expenseService;
 
+    @Autowired
+    private ExpenseImportService expenseImportService;
+
+    @Autowired
+    private ExpenseExportService expenseExportService;
+
     // Add new expense
     @PostMapping("/add")
     public ResponseEntity<Expense> addExpense(
@@ -28,6 +49,22 @@ public class ExpenseController {
         return ResponseEntity.ok(expense);
     }
 
+    // Bulk import expenses into a group from a streamed CSV or NDJSON body
+    @PostMapping("/import")
+    public ResponseEntity<ExpenseImportResult> importExpenses(
+            @RequestParam Long groupId,
+            @RequestParam(required = false) String format,
+            HttpServletRequest request) throws IOException {
+
+        ExpenseImportService.Format importFormat = resolveImportFormat(format, request.getContentType());
+        try {
+            return ResponseEntity.ok(expenseImportService.importExpenses(groupId, request.getInputStream(), importFormat));
+        } catch (IllegalArgumentException e) {
+            // Bad rows are reported in the result; only an unusable CSV header rejects the whole body
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
     // Get all expenses for a group
     @GetMapping("/group/{groupId}")
     public ResponseEntity<List<Expense>> getExpensesForGroup(@PathVariable Long groupId) {
@@ -35,66 +72,77 @@ public class ExpenseController {
         return ResponseEntity.ok(expenses);
     }
 
-    // Get all expenses by a user
-    @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Map<String, Object>>> getExpensesByUser(@PathVariable Long userId) {
-        List<Expense> expenses = expenseService.getExpensesByUser(userId);
-
-        // Manually construct response to avoid Hibernate proxy serialization issues
-        List<Map<String, Object>> response = new ArrayList<>();
-
-        for (Expense expense : expenses) {
-            Map<String, Object> expenseData = new HashMap<>();
-            expenseData.put("id", expense.getId());
-            expenseData.put("title", expense.getTitle());
-            expenseData.put("amount", expense.getAmount());
-            expenseData.put("createdAt", expense.getCreatedAt());
-
-            // Handle paidBy user
-            if (expense.getPaidBy() != null) {
-                Map<String, Object> paidBy = new HashMap<>();
-                paidBy.put("id", expense.getPaidBy().getId());
-                paidBy.put("username", expense.getPaidBy().getUsername());
-                paidBy.put("email", expense.getPaidBy().getEmail());
-                paidBy.put("mobile", expense.getPaidBy().getMobile());
-                expenseData.put("paidBy", paidBy);
-            }
+    // Stream a group's full expense history as NDJSON (default) or CSV
+    @GetMapping("/group/{groupId}/export")
+    public ResponseEntity<StreamingResponseBody> exportExpensesForGroup(
+            @PathVariable Long groupId,
+            @RequestParam(defaultValue = "ndjson") String format) {
 
-            // Handle group (basic info only)
-            if (expense.getGroup() != null) {
-                Map<String, Object> group = new HashMap<>();
-                group.put("id", expense.getGroup().getId());
-                group.put("groupName", expense.getGroup().getGroupName());
-                expenseData.put("group", group);
-            }
+        ExpenseExportService.Format exportFormat;
+        try {
+            exportFormat = ExpenseExportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported export format: " + format);
+        }
+        // Checked up front: once streaming starts the status can no longer change
+        if (!expenseExportService.groupExists(groupId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Group not found");
+        }
 
-            // Handle participants
-            List<Map<String, Object>> participants = new ArrayList<>();
-            if (expense.getParticipants() != null) {
-                for (ExpenseParticipant participant : expense.getParticipants()) {
-                    Map<String, Object> participantData = new HashMap<>();
-                    participantData.put("id", participant.getId());
-                    participantData.put("shareAmount", participant.getShareAmount());
-
-                    // Handle participant user
-                    if (participant.getUser() != null) {
-                        Map<String, Object> userData = new HashMap<>();
-                        userData.put("id", participant.getUser().getId());
-                        userData.put("username", participant.getUser().getUsername());
-                        userData.put("email", participant.getUser().getEmail());
-                        userData.put("mobile", participant.getUser().getMobile());
-                        participantData.put("user", userData);
-                    }
-
-                    participants.add(participantData);
-                }
-            }
-            expenseData.put("participants", participants);
+        boolean csv = exportFormat == ExpenseExportService.Format.CSV;
+        StreamingResponseBody body = out -> expenseExportService.exportExpenses(groupId, out, exportFormat);
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                        : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"group-" + groupId
+                        + "-expenses." + (csv ? "csv" : "ndjson") + "\"")
+                .body(body);
+    }
 
-            response.add(expenseData);
+    // Keyset-paginated expenses of a group, newest first; pass nextCursor back to get the following page
+    @GetMapping("/group/{groupId}/page")
+    public ResponseEntity<ExpensePage> getExpensePageForGroup(
+            @PathVariable Long groupId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long payerId) {
+
+        ExpenseQuery query = ExpenseQuery.builder()
+                .cursor(cursor).limit(limit).from(from).to(to).payerId(payerId)
+                .build();
+        try {
+            return ResponseEntity.ok(expenseService.getExpensePageForGroup(groupId, query));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
         }
+    }
 
-        return ResponseEntity.ok(response);
+    // Keyset-paginated expenses a user paid for or shares in, newest first
+    @GetMapping("/user/{userId}/page")
+    public ResponseEntity<ExpensePage> getExpensePageForUser(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long payerId) {
+
+        ExpenseQuery query = ExpenseQuery.builder()
+                .cursor(cursor).limit(limit).from(from).to(to).payerId(payerId)
+                .build();
+        try {
+            return ResponseEntity.ok(expenseService.getExpensePageForUser(userId, query));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    // Get all expenses by a user
+    @GetMapping("/user/{userId}")
+    public ResponseEntity<List<ExpenseView>> getExpensesByUser(@PathVariable Long userId) {
+        return ResponseEntity.ok(expenseService.getExpenseViewsByUser(userId));
     }
 
     // Delete an expense
@@ -111,4 +159,17 @@ public class ExpenseController {
             return ResponseEntity.badRequest().body(errorResponse);
         }
     }
+
+    private static ExpenseImportService.Format resolveImportFormat(String format, String contentType) {
+        if (format != null) {
+            try {
+                return ExpenseImportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported import format: " + format);
+            }
+        }
+        return contentType != null && contentType.contains("csv")
+                ? ExpenseImportService.Format.CSV
+                : ExpenseImportService.Format.NDJSON;
+    }
 }
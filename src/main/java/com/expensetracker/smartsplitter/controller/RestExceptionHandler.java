@@ -0,0 +1,21 @@
+package com.expensetracker.smartsplitter.controller;
+
+import com.expensetracker.smartsplitter.exception.PasswordHashingRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+// Error responses shared by every controller
+@RestControllerAdvice
+public class RestExceptionHandler {
+
+    // Hashing pool is saturated (register, login or any other hashing path): shed the request quickly and let the client retry
+    @ExceptionHandler(PasswordHashingRejectedException.class)
+    public ResponseEntity<Void> hashingUnavailable(PasswordHashingRejectedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .build();
+    }
+}
@@ -1,13 +1,17 @@
 package com.expensetracker.smartsplitter.controller;
 
+import com.expensetracker.smartsplitter.dto.view.NettedSettlementView;
+import com.expensetracker.smartsplitter.dto.view.SettlementView;
 import com.expensetracker.smartsplitter.model.Settlement;
 import com.expensetracker.smartsplitter.model.User;
+import com.expensetracker.smartsplitter.service.SettlementNettingService;
 import com.expensetracker.smartsplitter.service.SettlementService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.*;
 import java.math.BigDecimal;
 
@@ -15,58 +19,34 @@ import java.math.BigDecimal;
 @RequestMapping("/api/settlement")
 public class SettlementController {
 
+    static final String STALE_SINCE_HEADER = "X-Settlement-Stale-Since";
+
     @Autowired
     private SettlementService settlementService;
 
+    @Autowired
+    private SettlementNettingService settlementNettingService;
+
+    // Last committed plan; while a recomputation is pending the header tells since when it has been behind
     @GetMapping("group/{groupId}")
     public ResponseEntity<List<Settlement>> getAllSettlements(@PathVariable Long groupId) {
-        return new ResponseEntity<List<Settlement>>(settlementService.calculateSettlements(groupId), HttpStatus.OK);
+        List<Settlement> settlements = settlementService.getSettlementsForGroup(groupId);
+        LocalDateTime staleSince = settlementService.getPlanStaleSince(groupId);
+        if (staleSince == null) {
+            return new ResponseEntity<>(settlements, HttpStatus.OK);
+        }
+        return ResponseEntity.ok().header(STALE_SINCE_HEADER, staleSince.toString()).body(settlements);
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Map<String, Object>>> getSettlementsForUser(@PathVariable Long userId) {
-        List<Settlement> settlements = settlementService.getSettlementsForUser(userId);
-
-        // Manually construct response to avoid Hibernate proxy serialization issues
-        List<Map<String, Object>> response = new ArrayList<>();
-
-        for (Settlement settlement : settlements) {
-            Map<String, Object> settlementData = new HashMap<>();
-            settlementData.put("id", settlement.getId());
-            settlementData.put("amount", settlement.getAmount());
-            settlementData.put("paid", settlement.isPaid());
-
-            // Handle fromUser
-            if (settlement.getFromUser() != null) {
-                Map<String, Object> fromUser = new HashMap<>();
-                fromUser.put("id", settlement.getFromUser().getId());
-                fromUser.put("username", settlement.getFromUser().getUsername());
-                fromUser.put("email", settlement.getFromUser().getEmail());
-                fromUser.put("mobile", settlement.getFromUser().getMobile());
-                settlementData.put("fromUser", fromUser);
-            }
-
-            if (settlement.getToUser() != null) {
-                Map<String, Object> toUser = new HashMap<>();
-                toUser.put("id", settlement.getToUser().getId());
-                toUser.put("username", settlement.getToUser().getUsername());
-                toUser.put("email", settlement.getToUser().getEmail());
-                toUser.put("mobile", settlement.getToUser().getMobile());
-                settlementData.put("toUser", toUser);
-            }
-
-            // Handle group (basic info only)
-            if (settlement.getGroup() != null) {
-                Map<String, Object> group = new HashMap<>();
-                group.put("id", settlement.getGroup().getId());
-                group.put("groupName", settlement.getGroup().getGroupName());
-                settlementData.put("group", group);
-            }
-
-            response.add(settlementData);
-        }
+    public ResponseEntity<List<SettlementView>> getSettlementsForUser(@PathVariable Long userId) {
+        return new ResponseEntity<>(settlementService.getSettlementViewsForUser(userId), HttpStatus.OK);
+    }
 
-        return new ResponseEntity<>(response, HttpStatus.OK);
+    // Opt-in alternative to the per-group lists: balances netted across all of the user's groups
+    @GetMapping("/user/{userId}/netted")
+    public ResponseEntity<List<NettedSettlementView>> getNettedSettlementsForUser(@PathVariable Long userId) {
+        return new ResponseEntity<>(settlementNettingService.getNettedSettlementsForUser(userId), HttpStatus.OK);
     }
 
     @PostMapping("/payment/{settlementId}")
@@ -2,6 +2,8 @@ package com.expensetracker.smartsplitter.controller;
 
 import com.expensetracker.smartsplitter.dto.RegisterRequest;
 import com.expensetracker.smartsplitter.dto.UserDto;
+import com.expensetracker.smartsplitter.dto.view.UserSummaryView;
+import com.expensetracker.smartsplitter.service.UserSummaryService;
 import com.expensetracker.smartsplitter.service.impl.UserServiceImpl;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -17,6 +19,9 @@ public class UserController {
     @Autowired
     private UserServiceImpl userService;
 
+    @Autowired
+    private UserSummaryService userSummaryService;
+
     @PostMapping("/register")
     public ResponseEntity<UserDto> register(@RequestBody RegisterRequest registerRequest){
         UserDto user = userService.register(registerRequest);
@@ -36,4 +41,10 @@ public class UserController {
     public ResponseEntity<List<UserDto>> getAllUsers(){
         return new ResponseEntity<List<UserDto>>(userService.findAllUsers(),HttpStatus.OK);
     }
+
+    // Dashboard totals in one indexed read of the summary read model
+    @GetMapping("/users/{userId}/summary")
+    public ResponseEntity<UserSummaryView> getSummary(@PathVariable Long userId){
+        return new ResponseEntity<UserSummaryView>(userSummaryService.getSummary(userId),HttpStatus.OK);
+    }
 }
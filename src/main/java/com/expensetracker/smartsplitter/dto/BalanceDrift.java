@@ -0,0 +1,18 @@
+package com.expensetracker.smartsplitter.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceDrift {
+    private Long userId;
+    private BigDecimal recorded;
+    private BigDecimal expected;
+}
@@ -0,0 +1,22 @@
+package com.expensetracker.smartsplitter.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// One participant share of an expense, flattened so exports never load entities
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseExportRow {
+    private Long expenseId;
+    private String title;
+    private BigDecimal amount;
+    private LocalDateTime createdAt;
+    private Long payerId;
+    private Long participantId;
+    private BigDecimal shareAmount;
+}
@@ -0,0 +1,15 @@
+package com.expensetracker.smartsplitter.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseImportError {
+    private long line;
+    private String message;
+}
@@ -0,0 +1,20 @@
+package com.expensetracker.smartsplitter.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseImportResult {
+    private long imported;
+    private long failed;
+    private int batches;
+    // Capped at app.import.max-reported-errors; 'failed' always has the full count
+    private List<ExpenseImportError> errors;
+}
@@ -0,0 +1,22 @@
+package com.expensetracker.smartsplitter.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseImportRow {
+    private String title;
+    private BigDecimal amount;
+    private Long payerId;
+    private List<Long> participantIds;
+    private LocalDateTime createdAt;
+}
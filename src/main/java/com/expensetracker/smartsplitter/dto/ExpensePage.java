@@ -0,0 +1,20 @@
+package com.expensetracker.smartsplitter.dto;
+
+import com.expensetracker.smartsplitter.dto.view.ExpenseView;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpensePage {
+    // Newest first
+    private List<ExpenseView> expenses;
+    // Null on the last page
+    private String nextCursor;
+}
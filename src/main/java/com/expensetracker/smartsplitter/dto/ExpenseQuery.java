@@ -0,0 +1,21 @@
+package com.expensetracker.smartsplitter.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// Page request for an expense listing; every filter is optional
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseQuery {
+    private String cursor;
+    private Integer limit;
+    private LocalDate from;   // inclusive
+    private LocalDate to;     // inclusive
+    private Long payerId;
+}
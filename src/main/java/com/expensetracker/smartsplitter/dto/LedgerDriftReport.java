@@ -0,0 +1,22 @@
+package com.expensetracker.smartsplitter.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerDriftReport {
+    private Long groupId;
+    private List<BalanceDrift> drifts;
+    private boolean repaired;
+
+    public boolean hasDrift() {
+        return drifts != null && !drifts.isEmpty();
+    }
+}
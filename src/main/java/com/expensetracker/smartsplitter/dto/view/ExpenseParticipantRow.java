@@ -0,0 +1,46 @@
+package com.expensetracker.smartsplitter.dto.view;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One participant share of an expense, flattened with the expense, payer and group by a JPQL
+ * constructor expression. Rows must arrive ordered by expense so {@link #toExpenseViews} can fold them.
+ */
+public record ExpenseParticipantRow(Long expenseId, String title, BigDecimal amount, LocalDateTime createdAt,
+                                    Long payerId, String payerUsername, String payerEmail, String payerMobile,
+                                    Long groupId, String groupName,
+                                    Long participantId, BigDecimal shareAmount,
+                                    Long userId, String username, String email, String mobile) {
+
+    public static List<ExpenseView> toExpenseViews(List<ExpenseParticipantRow> rows) {
+        List<ExpenseView> expenses = new ArrayList<>();
+        ExpenseParticipantRow head = null;
+        List<ExpenseParticipantView> participants = null;
+        for (ExpenseParticipantRow row : rows) {
+            if (head == null || !head.expenseId().equals(row.expenseId())) {
+                if (head != null) {
+                    expenses.add(head.toExpenseView(participants));
+                }
+                head = row;
+                participants = new ArrayList<>();
+            }
+            if (row.participantId() != null) {
+                participants.add(new ExpenseParticipantView(row.participantId(), row.shareAmount(),
+                        UserView.of(row.userId(), row.username(), row.email(), row.mobile())));
+            }
+        }
+        if (head != null) {
+            expenses.add(head.toExpenseView(participants));
+        }
+        return expenses;
+    }
+
+    private ExpenseView toExpenseView(List<ExpenseParticipantView> participants) {
+        return new ExpenseView(expenseId, title, amount, createdAt,
+                UserView.of(payerId, payerUsername, payerEmail, payerMobile),
+                new GroupRefView(groupId, groupName), List.copyOf(participants));
+    }
+}
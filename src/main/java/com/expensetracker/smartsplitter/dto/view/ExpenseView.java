@@ -0,0 +1,9 @@
+package com.expensetracker.smartsplitter.dto.view;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record ExpenseView(Long id, String title, BigDecimal amount, LocalDateTime createdAt, UserView paidBy,
+                          GroupRefView group, List<ExpenseParticipantView> participants) {
+}
@@ -0,0 +1,43 @@
+package com.expensetracker.smartsplitter.dto.view;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One member of a group, flattened with its group and creator by a JPQL constructor expression.
+ * Rows must arrive ordered by group so {@link #toGroupViews} can fold them in one pass.
+ */
+public record GroupMemberRow(Long groupId, String groupName, LocalDateTime groupCreatedAt,
+                             Long creatorId, String creatorUsername, String creatorEmail, String creatorMobile,
+                             Long memberId, LocalDateTime joinedAt,
+                             Long userId, String username, String email, String mobile) {
+
+    public static List<GroupView> toGroupViews(List<GroupMemberRow> rows) {
+        List<GroupView> groups = new ArrayList<>();
+        GroupMemberRow head = null;
+        List<GroupMemberView> members = null;
+        for (GroupMemberRow row : rows) {
+            if (head == null || !head.groupId().equals(row.groupId())) {
+                if (head != null) {
+                    groups.add(head.toGroupView(members));
+                }
+                head = row;
+                members = new ArrayList<>();
+            }
+            if (row.memberId() != null) {
+                members.add(new GroupMemberView(row.memberId(), row.joinedAt(),
+                        UserView.of(row.userId(), row.username(), row.email(), row.mobile())));
+            }
+        }
+        if (head != null) {
+            groups.add(head.toGroupView(members));
+        }
+        return groups;
+    }
+
+    private GroupView toGroupView(List<GroupMemberView> members) {
+        return new GroupView(groupId, groupName, groupCreatedAt,
+                UserView.of(creatorId, creatorUsername, creatorEmail, creatorMobile), List.copyOf(members));
+    }
+}
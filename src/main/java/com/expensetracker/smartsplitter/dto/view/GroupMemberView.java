@@ -0,0 +1,6 @@
+package com.expensetracker.smartsplitter.dto.view;
+
+import java.time.LocalDateTime;
+
+public record GroupMemberView(Long id, LocalDateTime joinedAt, UserView user) {
+}
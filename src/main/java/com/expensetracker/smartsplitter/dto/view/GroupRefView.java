@@ -0,0 +1,5 @@
+package com.expensetracker.smartsplitter.dto.view;
+
+// Basic group info embedded in expense and settlement views
+public record GroupRefView(Long id, String groupName) {
+}
@@ -0,0 +1,8 @@
+package com.expensetracker.smartsplitter.dto.view;
+
+import java.math.BigDecimal;
+
+// One group's line in the dashboard summary
+public record GroupSummaryView(Long groupId, String groupName, BigDecimal net, long expenseCount,
+                               BigDecimal expenseTotal, int pendingSettlements) {
+}
@@ -0,0 +1,8 @@
+package com.expensetracker.smartsplitter.dto.view;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record GroupView(Long id, String groupName, LocalDateTime createdAt, UserView createdBy,
+                        List<GroupMemberView> members) {
+}
@@ -0,0 +1,10 @@
+package com.expensetracker.smartsplitter.dto.view;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// Transfer of the cross-group plan; the sources split the amount over the groups whose debts of the payer
+// it settles, the credits over the groups where it pays what the payee is owed
+public record NettedSettlementView(UserView fromUser, UserView toUser, BigDecimal amount,
+                                   List<SettlementSourceView> sources, List<SettlementSourceView> credits) {
+}
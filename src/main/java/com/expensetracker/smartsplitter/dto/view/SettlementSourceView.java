@@ -0,0 +1,6 @@
+package com.expensetracker.smartsplitter.dto.view;
+
+import java.math.BigDecimal;
+
+public record SettlementSourceView(GroupRefView group, BigDecimal amount) {
+}
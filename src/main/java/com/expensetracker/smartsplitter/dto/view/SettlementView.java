@@ -0,0 +1,19 @@
+package com.expensetracker.smartsplitter.dto.view;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record SettlementView(Long id, BigDecimal amount, boolean paid, UserView fromUser, UserView toUser,
+                             GroupRefView group, LocalDateTime planStaleSince) {
+
+    // Constructor expression target: JPQL cannot build nested objects, so the flat columns are folded here
+    public SettlementView(Long id, BigDecimal amount, boolean paid,
+                          Long fromId, String fromUsername, String fromEmail, String fromMobile,
+                          Long toId, String toUsername, String toEmail, String toMobile,
+                          Long groupId, String groupName, LocalDateTime planStaleSince) {
+        this(id, amount, paid,
+                UserView.of(fromId, fromUsername, fromEmail, fromMobile),
+                UserView.of(toId, toUsername, toEmail, toMobile),
+                new GroupRefView(groupId, groupName), planStaleSince);
+    }
+}
@@ -0,0 +1,30 @@
+package com.expensetracker.smartsplitter.dto.view;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// Dashboard totals across all of a user's groups; totalOwed and totalOwing are both non-negative
+public record UserSummaryView(Long userId, BigDecimal totalOwed, BigDecimal totalOwing, int groupCount,
+                              long expenseCount, BigDecimal expenseTotal, int pendingSettlements,
+                              List<GroupSummaryView> groups) {
+
+    public static UserSummaryView of(Long userId, List<GroupSummaryView> groups) {
+        BigDecimal owed = BigDecimal.ZERO;
+        BigDecimal owing = BigDecimal.ZERO;
+        long expenseCount = 0;
+        BigDecimal expenseTotal = BigDecimal.ZERO;
+        int pendingSettlements = 0;
+        for (GroupSummaryView group : groups) {
+            if (group.net().signum() > 0) {
+                owed = owed.add(group.net());
+            } else {
+                owing = owing.subtract(group.net());
+            }
+            expenseCount += group.expenseCount();
+            expenseTotal = expenseTotal.add(group.expenseTotal());
+            pendingSettlements += group.pendingSettlements();
+        }
+        return new UserSummaryView(userId, owed, owing, groups.size(), expenseCount, expenseTotal,
+                pendingSettlements, groups);
+    }
+}
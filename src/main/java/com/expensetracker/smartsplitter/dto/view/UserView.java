@@ -0,0 +1,9 @@
+package com.expensetracker.smartsplitter.dto.view;
+
+public record UserView(Long id, String username, String email, String mobile) {
+
+    // Outer joins yield an all-null user when the association is absent
+    static UserView of(Long id, String username, String email, String mobile) {
+        return id == null ? null : new UserView(id, username, email, mobile);
+    }
+}
@@ -0,0 +1,11 @@
+package com.expensetracker.smartsplitter.event;
+
+import com.expensetracker.smartsplitter.model.LedgerEventType;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+// Published for every event added to a group's ledger log; listeners should act after commit
+public record LedgerEventAppended(Long groupId, long sequence, LedgerEventType type, Long subjectId,
+                                  Map<Long, BigDecimal> deltas) {
+}
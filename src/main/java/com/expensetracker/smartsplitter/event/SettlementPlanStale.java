@@ -0,0 +1,5 @@
+package com.expensetracker.smartsplitter.event;
+
+// Published when a group's balances move away from its stored settlement plan, or a read finds the plan behind
+public record SettlementPlanStale(Long groupId) {
+}
@@ -0,0 +1,5 @@
+package com.expensetracker.smartsplitter.event;
+
+// Published when a group's stored settlement plan is regenerated or one of its transfers changes
+public record SettlementPlanUpdated(Long groupId) {
+}
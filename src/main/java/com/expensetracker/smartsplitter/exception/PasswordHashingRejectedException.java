@@ -0,0 +1,8 @@
+package com.expensetracker.smartsplitter.exception;
+
+// Thrown when the password-hashing pool is saturated; RestExceptionHandler answers 503 instead of queueing more work
+public class PasswordHashingRejectedException extends RuntimeException {
+    public PasswordHashingRejectedException(String message) {
+        super(message);
+    }
+}
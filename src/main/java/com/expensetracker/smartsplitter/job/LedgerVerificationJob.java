@@ -0,0 +1,85 @@
+package com.expensetracker.smartsplitter.job;
+
+import com.expensetracker.smartsplitter.dto.LedgerDriftReport;
+import com.expensetracker.smartsplitter.service.BalanceLedgerService;
+import com.expensetracker.smartsplitter.service.SettlementService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Recomputes every group's balances from the expense history and compares them
+ * with the incrementally maintained ledger. Runs once at startup (which also
+ * backfills the ledger for data created before it existed) and then on a schedule.
+ * Afterwards any group whose stored settlement plan is behind its ledger is recomputed.
+ */
+@Component
+public class LedgerVerificationJob {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerVerificationJob.class);
+
+    @Autowired
+    private BalanceLedgerService balanceLedgerService;
+
+    @Autowired
+    private SettlementService settlementService;
+
+    @Value("${app.ledger.verify.repair:true}")
+    private boolean repair;
+
+    @Value("${app.ledger.verify.on-startup:true}")
+    private boolean verifyOnStartup;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (verifyOnStartup) {
+            verifyAll();
+        }
+    }
+
+    @Scheduled(cron = "${app.ledger.verify.cron:0 0 3 * * *}")
+    public void onSchedule() {
+        verifyAll();
+    }
+
+    public List<LedgerDriftReport> verifyAll() {
+        List<LedgerDriftReport> drifted = new ArrayList<>();
+        List<Long> groupIds = balanceLedgerService.findGroupIdsToVerify();
+
+        for (Long groupId : groupIds) {
+            try {
+                LedgerDriftReport report = balanceLedgerService.verifyGroup(groupId, repair);
+                if (report.hasDrift()) {
+                    log.warn("Balance ledger drift in group {}: {} (repaired: {})",
+                            groupId, report.getDrifts(), report.isRepaired());
+                    drifted.add(report);
+                }
+            } catch (RuntimeException e) {
+                log.error("Balance ledger verification failed for group {}", groupId, e);
+            }
+        }
+
+        log.info("Balance ledger verification checked {} groups, {} drifted", groupIds.size(), drifted.size());
+
+        refreshStaleSettlements();
+        return drifted;
+    }
+
+    private void refreshStaleSettlements() {
+        for (Long groupId : settlementService.findGroupIdsWithStaleSettlements()) {
+            try {
+                settlementService.calculateSettlements(groupId);
+            } catch (RuntimeException e) {
+                log.error("Settlement plan refresh failed for group {}", groupId, e);
+            }
+        }
+    }
+}
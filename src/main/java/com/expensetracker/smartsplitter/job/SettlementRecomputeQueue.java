@@ -0,0 +1,182 @@
+package com.expensetracker.smartsplitter.job;
+
+import com.expensetracker.smartsplitter.event.SettlementPlanStale;
+import com.expensetracker.smartsplitter.service.SettlementService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Recomputes stale settlement plans in the background instead of inside the request that changed
+ * the balances. A group marked stale waits until it has been quiet for
+ * {@code app.settlement.recompute.debounce}, and never longer than
+ * {@code app.settlement.recompute.max-delay} after the first mark. Every mark in between is folded
+ * into that one run, so a burst of edits costs a single recomputation. A group is recomputed only
+ * if its plan is still stale once its lock is held.
+ *
+ * A single timer thread only keeps the debounce schedule; the runs themselves are handed to a
+ * separate executor, at most {@code app.settlement.recompute.threads} at a time. With virtual
+ * threads enabled each run gets its own virtual thread, otherwise they share a pool of that many
+ * platform threads.
+ *
+ * Marks are kept in memory. A group whose run is lost to a restart is queued again by the next
+ * read of its plan and by the nightly ledger verification.
+ */
+@Component
+public class SettlementRecomputeQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(SettlementRecomputeQueue.class);
+
+    // Time of the first and the latest mark since the group was last picked up
+    private static final class Pending {
+        private final long firstMarkNanos;
+        private volatile long lastMarkNanos;
+
+        private Pending(long nanos) {
+            this.firstMarkNanos = nanos;
+            this.lastMarkNanos = nanos;
+        }
+    }
+
+    private final SettlementService settlementService;
+    private final long debounceNanos;
+    private final long maxDelayNanos;
+    private final ScheduledThreadPoolExecutor timer;
+    private final Executor runs;
+    // Caps concurrent runs; only ever waits in virtual mode, where runs are not pooled
+    private final Semaphore running;
+    private final ConcurrentHashMap<Long, Pending> pending = new ConcurrentHashMap<>();
+
+    private final LongAdder marked = new LongAdder();
+    private final LongAdder recomputed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    @Autowired
+    public SettlementRecomputeQueue(SettlementService settlementService,
+                                    @Value("${app.settlement.recompute.debounce:500ms}") Duration debounce,
+                                    @Value("${app.settlement.recompute.max-delay:10s}") Duration maxDelay,
+                                    @Value("${app.settlement.recompute.threads:2}") int threads,
+                                    Environment environment) {
+        this.settlementService = settlementService;
+        this.debounceNanos = debounce.toNanos();
+        this.maxDelayNanos = maxDelay.toNanos();
+        int maxRunning = Math.max(1, threads);
+        this.timer = new ScheduledThreadPoolExecutor(1, task -> {
+            Thread thread = new Thread(task, "settlement-recompute-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.runs = Threading.VIRTUAL.isActive(environment)
+                ? virtualThreadPerRun()
+                : platformPool(maxRunning);
+        this.running = new Semaphore(maxRunning);
+    }
+
+    private static Executor virtualThreadPerRun() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("settlement-recompute-");
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+
+    private static Executor platformPool(int threads) {
+        AtomicInteger threadIds = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                task -> {
+                    Thread thread = new Thread(task, "settlement-recompute-" + threadIds.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    // After commit, so the run is sure to see the change that marked the group
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPlanStale(SettlementPlanStale event) {
+        mark(event.groupId());
+    }
+
+    public void mark(Long groupId) {
+        marked.increment();
+        long now = System.nanoTime();
+        Pending created = new Pending(now);
+        Pending existing = pending.putIfAbsent(groupId, created);
+        if (existing != null) {
+            existing.lastMarkNanos = now;
+            return;
+        }
+        timer.schedule(() -> runWhenQuiet(groupId, created), debounceNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void runWhenQuiet(Long groupId, Pending entry) {
+        long now = System.nanoTime();
+        long quietFor = now - entry.lastMarkNanos;
+        long waitedFor = now - entry.firstMarkNanos;
+        if (quietFor < debounceNanos && waitedFor < maxDelayNanos) {
+            long delay = Math.min(debounceNanos - quietFor, maxDelayNanos - waitedFor);
+            timer.schedule(() -> runWhenQuiet(groupId, entry), delay, TimeUnit.NANOSECONDS);
+            return;
+        }
+
+        // Marks from here on start a new entry and get a run of their own
+        pending.remove(groupId, entry);
+        runs.execute(() -> recompute(groupId));
+    }
+
+    private void recompute(Long groupId) {
+        running.acquireUninterruptibly();
+        try {
+            if (settlementService.recalculateIfStale(groupId)) {
+                recomputed.increment();
+            }
+        } catch (RuntimeException e) {
+            failed.increment();
+            log.warn("Could not recompute the settlement plan of group {}", groupId, e);
+        } finally {
+            running.release();
+        }
+    }
+
+    public int pendingGroups() {
+        return pending.size();
+    }
+
+    public long markedCount() {
+        return marked.sum();
+    }
+
+    public long recomputedCount() {
+        return recomputed.sum();
+    }
+
+    public long failedCount() {
+        return failed.sum();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+        if (runs instanceof ExecutorService pool) {
+            pool.shutdownNow();
+        } else if (runs instanceof SimpleAsyncTaskExecutor perRun) {
+            perRun.close();
+        }
+    }
+}
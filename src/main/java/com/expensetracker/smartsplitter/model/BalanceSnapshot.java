@@ -0,0 +1,53 @@
+package com.expensetracker.smartsplitter.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Net balances of a group after applying its event log up to and including {@code sequence}.
+ * Current balances are the latest snapshot plus the events that follow it.
+ */
+@Entity
+@Table(name = "balance_snapshots",
+        uniqueConstraints = @UniqueConstraint(name = "uk_balance_snapshots_group_sequence",
+                columnNames = {"group_id", "sequence"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BalanceSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "balance_snapshot_seq")
+    @SequenceGenerator(name = "balance_snapshot_seq", sequenceName = "balance_snapshots_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "group_id", nullable = false)
+    private Group group;
+
+    // Last event sequence included; 0 is the baseline taken when the log was started
+    @Column(nullable = false)
+    private Long sequence;
+
+    // Non-zero balance per user id
+    @ElementCollection
+    @CollectionTable(name = "balance_snapshot_entries", joinColumns = @JoinColumn(name = "snapshot_id"))
+    @MapKeyColumn(name = "user_id")
+    @Column(name = "balance", nullable = false, precision = 14, scale = 2)
+    private Map<Long, BigDecimal> balances;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    public void prePersist() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+}
@@ -8,15 +8,21 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "expenses")
+// Composite indexes back the keyset-paginated listings ordered by (created_at, id)
+@Table(name = "expenses", indexes = {
+        @Index(name = "idx_expenses_group_created", columnList = "group_id, created_at, id"),
+        @Index(name = "idx_expenses_payer_created", columnList = "paid_by, created_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Expense {
 
+    // Pooled sequence instead of IDENTITY so Hibernate can batch the inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "expense_seq")
+    @SequenceGenerator(name = "expense_seq", sequenceName = "expenses_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
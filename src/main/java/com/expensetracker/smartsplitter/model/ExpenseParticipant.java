@@ -6,15 +6,19 @@ import lombok.*;
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "expense_participants")
+@Table(name = "expense_participants", indexes = {
+        @Index(name = "idx_expense_participants_user", columnList = "user_id, expense_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class ExpenseParticipant {
 
+    // Pooled sequence instead of IDENTITY so Hibernate can batch the inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "expense_participant_seq")
+    @SequenceGenerator(name = "expense_participant_seq", sequenceName = "expense_participants_seq", allocationSize = 50)
     private Long id;
 
     // Which expense this participant is part of
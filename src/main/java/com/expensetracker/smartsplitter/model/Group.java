@@ -1,19 +1,33 @@
 package com.expensetracker.smartsplitter.model;
 
+import com.expensetracker.smartsplitter.config.CacheConfig;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
 @Table(name = "groups")
+// Creator plus members with their users, loaded in the same query as the group
+@NamedEntityGraph(name = Group.WITH_MEMBERS,
+        attributeNodes = {
+                @NamedAttributeNode("createdBy"),
+                @NamedAttributeNode(value = "members", subgraph = "members")
+        },
+        subgraphs = @NamedSubgraph(name = "members", attributeNodes = @NamedAttributeNode("user")))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+// Not in the entity cache: the version, staleness and event counters below change on every write,
+// so a cached copy would be invalidated about as often as it is read. Only the member list is cached.
 public class Group {
 
+    public static final String WITH_MEMBERS = "Group.withMembers";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -28,6 +42,7 @@ public class Group {
 
     // List of members in the group
     @OneToMany(mappedBy = "group", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheConfig.GROUP_MEMBERS_BY_GROUP)
     private List<GroupMember> members;
 
     // List of expenses in the group
@@ -38,11 +53,47 @@ public class Group {
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
+    // Bumped every time the group's balances change
+    @Column(name = "ledger_version", nullable = false, columnDefinition = "bigint default 0")
+    private Long ledgerVersion;
+
+    // Ledger version the stored settlement plan was computed from (-1 = never computed)
+    @Column(name = "settlement_version", nullable = false, columnDefinition = "bigint default -1")
+    private Long settlementVersion;
+
+    // When the stored plan stopped matching the balances (null while it is current); recomputed in the background
+    @Column(name = "settlement_stale_since")
+    private LocalDateTime settlementStaleSince;
+
+    // Sequence number of the last event appended to the group's ledger event log
+    @Column(name = "event_sequence", nullable = false, columnDefinition = "bigint default 0")
+    private Long eventSequence;
+
+    // Event sequence covered by the latest balance snapshot (-1 = event log not started yet)
+    @Column(name = "snapshot_sequence", nullable = false, columnDefinition = "bigint default -1")
+    private Long snapshotSequence;
+
     // Auto-set createdAt before persisting
     @PrePersist
     public void prePersist() {
         if (createdAt == null) {
             createdAt = LocalDateTime.now();
         }
+        if (ledgerVersion == null) {
+            ledgerVersion = 0L;
+        }
+        if (settlementVersion == null) {
+            settlementVersion = ledgerVersion; // a new group starts with an empty, up to date plan
+        }
+        if (eventSequence == null) {
+            eventSequence = 0L;
+        }
+        if (snapshotSequence == null) {
+            snapshotSequence = -1L;
+        }
+    }
+
+    public boolean isSettlementPlanCurrent() {
+        return settlementVersion != null && settlementVersion.equals(ledgerVersion);
     }
 }
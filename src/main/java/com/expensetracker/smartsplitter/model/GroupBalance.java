@@ -0,0 +1,38 @@
+package com.expensetracker.smartsplitter.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+/**
+ * Running net balance of one user inside one group.
+ * Positive means the user is owed money, negative means the user owes money.
+ * Maintained incrementally whenever an expense is added or deleted.
+ */
+@Entity
+@Table(name = "group_balances",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"group_id", "user_id"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GroupBalance {
+
+    // Pooled sequence instead of IDENTITY so Hibernate can batch the inserts
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "group_balance_seq")
+    @SequenceGenerator(name = "group_balance_seq", sequenceName = "group_balances_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "group_id", nullable = false)
+    private Group group;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal balance;
+}
@@ -0,0 +1,62 @@
+package com.expensetracker.smartsplitter.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * One entry of a group's append-only event log. Events are numbered per group and carry the
+ * balance change they caused, so replaying them never needs the expense rows they refer to.
+ */
+@Entity
+@Table(name = "ledger_events",
+        uniqueConstraints = @UniqueConstraint(name = "uk_ledger_events_group_sequence",
+                columnNames = {"group_id", "sequence"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LedgerEvent {
+
+    // Pooled sequence instead of IDENTITY so Hibernate can batch the inserts
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ledger_event_seq")
+    @SequenceGenerator(name = "ledger_event_seq", sequenceName = "ledger_events_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "group_id", nullable = false)
+    private Group group;
+
+    // Position in the group's log, starting at 1
+    @Column(nullable = false)
+    private Long sequence;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private LedgerEventType type;
+
+    // Expense id, settlement id or joining user id, depending on the type
+    @Column(name = "subject_id")
+    private Long subjectId;
+
+    // Balance change per user id; empty for membership events
+    @ElementCollection
+    @CollectionTable(name = "ledger_event_deltas", joinColumns = @JoinColumn(name = "event_id"))
+    @MapKeyColumn(name = "user_id")
+    @Column(name = "amount", nullable = false, precision = 14, scale = 2)
+    private Map<Long, BigDecimal> deltas;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    public void prePersist() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.expensetracker.smartsplitter.model;
+
+public enum LedgerEventType {
+    EXPENSE_ADDED,
+    EXPENSE_DELETED,
+    MEMBER_JOINED,
+    PAYMENT_RECORDED
+}
@@ -6,15 +6,21 @@ import lombok.*;
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "settlements")
+@Table(name = "settlements", indexes = {
+        @Index(name = "idx_settlements_from_user", columnList = "from_user_id"),
+        @Index(name = "idx_settlements_to_user", columnList = "to_user_id"),
+        @Index(name = "idx_settlements_group", columnList = "group_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Settlement {
 
+    // Pooled sequence instead of IDENTITY so Hibernate can batch the inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "settlement_seq")
+    @SequenceGenerator(name = "settlement_seq", sequenceName = "settlements_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -35,4 +41,8 @@ public class Settlement {
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "group_id", nullable = false)
     private Group group;
+
+    // Group ledger version this settlement was computed from
+    @Column(name = "plan_version")
+    private Long planVersion;
 }
@@ -1,8 +1,13 @@
 package com.expensetracker.smartsplitter.model;
 
+import com.expensetracker.smartsplitter.config.CacheConfig;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.util.List;
 
@@ -12,12 +17,17 @@ import java.util.List;
 @AllArgsConstructor
 @NoArgsConstructor
 @Table(name = "users")
+// Cached: read on almost every request, written on register and password rehash only
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheConfig.USERS)
+@NaturalIdCache(region = CacheConfig.USERS_BY_EMAIL)
 public class User {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Login and lookups by email resolve through the natural-id cache
+    @NaturalId(mutable = true)
     @Column(nullable = false, unique = true)
     private String email;
 
@@ -37,6 +47,7 @@ public class User {
     // 👇 One user can belong to many GroupMember entries
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
     @JsonIgnore // Prevent circular reference in JSON serialization
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheConfig.MEMBERSHIPS_BY_USER)
     private List<GroupMember> groups;
 
     // 👇 Optional: To track groups created by this user (as admin)
@@ -0,0 +1,54 @@
+package com.expensetracker.smartsplitter.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Dashboard read model: one user's standing in one group. Rebuilt for the whole group in the
+ * background after each change, so the dashboard is a single indexed read by user id.
+ */
+@Entity
+@Table(name = "user_group_summaries",
+        uniqueConstraints = @UniqueConstraint(name = "uk_user_group_summaries_user_group",
+                columnNames = {"user_id", "group_id"}),
+        indexes = @Index(name = "idx_user_group_summaries_group", columnList = "group_id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserGroupSummary {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_group_summary_seq")
+    @SequenceGenerator(name = "user_group_summary_seq", sequenceName = "user_group_summaries_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "group_id", nullable = false)
+    private Group group;
+
+    // Ledger balance: positive means the user is owed money
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal net;
+
+    // Expenses the user paid for or takes part in
+    @Column(name = "expense_count", nullable = false)
+    private long expenseCount;
+
+    @Column(name = "expense_total", nullable = false, precision = 14, scale = 2)
+    private BigDecimal expenseTotal;
+
+    // Unpaid settlements the user is on either side of
+    @Column(name = "pending_settlements", nullable = false)
+    private int pendingSettlements;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
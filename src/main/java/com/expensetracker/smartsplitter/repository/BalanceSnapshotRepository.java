@@ -0,0 +1,24 @@
+package com.expensetracker.smartsplitter.repository;
+
+import com.expensetracker.smartsplitter.model.BalanceSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface BalanceSnapshotRepository extends JpaRepository<BalanceSnapshot, Long> {
+
+    // Balances of one snapshot as [userId, balance] rows, without loading the entity
+    @Query("SELECT KEY(b), VALUE(b) FROM BalanceSnapshot s JOIN s.balances b " +
+            "WHERE s.group.id = :groupId AND s.sequence = :sequence")
+    List<Object[]> findBalances(@Param("groupId") Long groupId, @Param("sequence") Long sequence);
+
+    @Modifying
+    @Query("DELETE FROM BalanceSnapshot s WHERE s.group.id = :groupId AND s.sequence < :sequence")
+    int deleteOlderThan(@Param("groupId") Long groupId, @Param("sequence") Long sequence);
+
+    @Query("SELECT DISTINCT s.group.id FROM BalanceSnapshot s")
+    List<Long> findGroupIds();
+}
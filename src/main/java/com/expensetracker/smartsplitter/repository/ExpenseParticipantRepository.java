@@ -2,6 +2,19 @@ package com.expensetracker.smartsplitter.repository;
 
 import com.expensetracker.smartsplitter.model.ExpenseParticipant;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
 
 public interface ExpenseParticipantRepository extends JpaRepository<ExpenseParticipant,Long> {
+
+    // Total share owed by each participant of a group, as [userId, sum(shareAmount)] rows
+    @Query("SELECT p.user.id, SUM(p.shareAmount) FROM ExpenseParticipant p WHERE p.expense.group.id = :groupId GROUP BY p.user.id")
+    List<Object[]> sumSharesByUser(@Param("groupId") Long groupId);
+
+    // Expenses each participant takes part in, as [userId, count, total amount] rows
+    @Query("SELECT p.user.id, COUNT(p), SUM(p.expense.amount) FROM ExpenseParticipant p " +
+            "WHERE p.expense.group.id = :groupId GROUP BY p.user.id")
+    List<Object[]> countExpensesByParticipant(@Param("groupId") Long groupId);
 }
@@ -1,18 +1,70 @@
 package com.expensetracker.smartsplitter.repository;
 
+import com.expensetracker.smartsplitter.dto.ExpenseExportRow;
+import com.expensetracker.smartsplitter.dto.view.ExpenseParticipantRow;
 import com.expensetracker.smartsplitter.model.Expense;
 import com.expensetracker.smartsplitter.model.Settlement;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface ExpenseRepository extends JpaRepository<Expense,Long> {
+public interface ExpenseRepository extends JpaRepository<Expense,Long>, JpaSpecificationExecutor<Expense> {
     List<Expense> findByGroupId(Long groupId);        // For getExpensesForGroup
     List<Expense> findByPaidById(Long userId);        // For expenses paid by user
 
     // Get all expenses where user is involved (either as payer or participant)
     @Query("SELECT DISTINCT e FROM Expense e LEFT JOIN e.participants p WHERE e.paidBy.id = :userId OR p.user.id = :userId")
     List<Expense> findExpensesByUserInvolvement(@Param("userId") Long userId);
+
+    // Total amount paid by each payer of a group, as [userId, sum(amount)] rows
+    @Query("SELECT e.paidBy.id, SUM(e.amount) FROM Expense e WHERE e.group.id = :groupId GROUP BY e.paidBy.id")
+    List<Object[]> sumAmountsByPayer(@Param("groupId") Long groupId);
+
+    // Expenses the payer paid for without taking part, as [userId, count, total amount] rows
+    @Query("SELECT e.paidBy.id, COUNT(e), SUM(e.amount) FROM Expense e WHERE e.group.id = :groupId " +
+            "AND NOT EXISTS (SELECT p FROM ExpenseParticipant p WHERE p.expense = e AND p.user = e.paidBy) " +
+            "GROUP BY e.paidBy.id")
+    List<Object[]> countExpensesPaidWithoutTakingPart(@Param("groupId") Long groupId);
+
+    @Query("SELECT e.group.id FROM Expense e WHERE e.id = :expenseId")
+    Optional<Long> findGroupIdById(@Param("expenseId") Long expenseId);
+
+    @Query("SELECT DISTINCT e.group.id FROM Expense e")
+    List<Long> findGroupIdsWithExpenses();
+
+    // Forward-only cursor over a group's expense history, one row per participant share.
+    // Must be consumed inside a transaction; rows arrive ordered by expense so they can be regrouped.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.expensetracker.smartsplitter.dto.ExpenseExportRow("
+            + "e.id, e.title, e.amount, e.createdAt, e.paidBy.id, p.user.id, p.shareAmount) "
+            + "FROM Expense e LEFT JOIN e.participants p WHERE e.group.id = :groupId ORDER BY e.id, p.id")
+    Stream<ExpenseExportRow> streamExportRows(@Param("groupId") Long groupId);
+
+    // Expenses with payer, group and participant users as flat rows, so expense views need a single query
+    String EXPENSE_PARTICIPANT_ROW = "SELECT new com.expensetracker.smartsplitter.dto.view.ExpenseParticipantRow("
+            + "e.id, e.title, e.amount, e.createdAt, pb.id, pb.username, pb.email, pb.mobile, g.id, g.groupName, "
+            + "p.id, p.shareAmount, u.id, u.username, u.email, u.mobile) "
+            + "FROM Expense e JOIN e.paidBy pb JOIN e.group g LEFT JOIN e.participants p LEFT JOIN p.user u ";
+
+    @Query(EXPENSE_PARTICIPANT_ROW
+            + "WHERE pb.id = :userId OR EXISTS (SELECT 1 FROM ExpenseParticipant mine "
+            + "WHERE mine.expense = e AND mine.user.id = :userId) "
+            + "ORDER BY e.createdAt DESC, e.id DESC, p.id")
+    List<ExpenseParticipantRow> findParticipantRowsByUserInvolvement(@Param("userId") Long userId);
+
+    // Renders one keyset page, in listing order
+    @Query(EXPENSE_PARTICIPANT_ROW + "WHERE e.id IN :ids ORDER BY e.createdAt DESC, e.id DESC, p.id")
+    List<ExpenseParticipantRow> findParticipantRowsByExpenseIds(@Param("ids") Collection<Long> ids);
 }
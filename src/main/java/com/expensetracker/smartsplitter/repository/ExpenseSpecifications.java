@@ -0,0 +1,53 @@
+package com.expensetracker.smartsplitter.repository;
+
+import com.expensetracker.smartsplitter.model.Expense;
+import com.expensetracker.smartsplitter.model.ExpenseParticipant;
+import com.expensetracker.smartsplitter.util.ExpenseCursor;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+// Building blocks for keyset-paginated expense listings, combined by ExpenseServiceImpl
+public final class ExpenseSpecifications {
+
+    private ExpenseSpecifications() {
+    }
+
+    public static Specification<Expense> inGroup(Long groupId) {
+        return (root, query, cb) -> cb.equal(root.get("group").get("id"), groupId);
+    }
+
+    // Paid by the user or shared with them; EXISTS keeps one row per expense without DISTINCT
+    public static Specification<Expense> involvingUser(Long userId) {
+        return (root, query, cb) -> {
+            Subquery<Long> shares = query.subquery(Long.class);
+            Root<ExpenseParticipant> participant = shares.from(ExpenseParticipant.class);
+            shares.select(participant.get("id"))
+                    .where(cb.equal(participant.get("expense"), root),
+                            cb.equal(participant.get("user").get("id"), userId));
+            return cb.or(cb.equal(root.get("paidBy").get("id"), userId), cb.exists(shares));
+        };
+    }
+
+    public static Specification<Expense> paidBy(Long payerId) {
+        return (root, query, cb) -> cb.equal(root.get("paidBy").get("id"), payerId);
+    }
+
+    public static Specification<Expense> createdFrom(LocalDateTime from) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("createdAt"), from);
+    }
+
+    public static Specification<Expense> createdBefore(LocalDateTime before) {
+        return (root, query, cb) -> cb.lessThan(root.get("createdAt"), before);
+    }
+
+    // Rows strictly after the cursor in (createdAt DESC, id DESC) order
+    public static Specification<Expense> after(ExpenseCursor cursor) {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("createdAt"), cursor.createdAt()),
+                cb.and(cb.equal(root.get("createdAt"), cursor.createdAt()),
+                        cb.lessThan(root.get("id"), cursor.id())));
+    }
+}
@@ -0,0 +1,33 @@
+package com.expensetracker.smartsplitter.repository;
+
+import com.expensetracker.smartsplitter.model.GroupBalance;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface GroupBalanceRepository extends JpaRepository<GroupBalance, Long> {
+
+    List<GroupBalance> findByGroupId(Long groupId);
+
+    // Non-zero balances of a group as [userId, balance] rows, without loading entities
+    @Query("SELECT b.user.id, b.balance FROM GroupBalance b WHERE b.group.id = :groupId AND b.balance <> 0")
+    List<Object[]> findNonZeroBalances(@Param("groupId") Long groupId);
+
+    // Non-zero balances as [groupId, userId, balance] rows of every group where one of the users has one, for netting
+    @Query("SELECT b.group.id, b.user.id, b.balance FROM GroupBalance b WHERE b.balance <> 0 AND b.group.id IN "
+            + "(SELECT o.group.id FROM GroupBalance o WHERE o.user.id IN :userIds AND o.balance <> 0)")
+    List<Object[]> findNonZeroBalancesOfGroupsWith(@Param("userIds") Collection<Long> userIds);
+
+    // Rows are locked in user id order so concurrent writers on the same group cannot deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM GroupBalance b WHERE b.group.id = :groupId AND b.user.id IN :userIds ORDER BY b.user.id")
+    List<GroupBalance> findForUpdate(@Param("groupId") Long groupId, @Param("userIds") Collection<Long> userIds);
+
+    @Query("SELECT DISTINCT b.group.id FROM GroupBalance b")
+    List<Long> findGroupIds();
+}
@@ -2,17 +2,29 @@ package com.expensetracker.smartsplitter.repository;
 
 import com.expensetracker.smartsplitter.model.Group;
 import com.expensetracker.smartsplitter.model.GroupMember;
+import com.expensetracker.smartsplitter.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface GroupMemberRepository extends JpaRepository<GroupMember,Long> {
 
     @Query("SELECT gm.group FROM GroupMember gm WHERE gm.user.id = :userId")
     List<Group> findGroupsByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT gm.group.id FROM GroupMember gm WHERE gm.user.id = :userId ORDER BY gm.group.id")
+    List<Long> findGroupIdsByUserId(@Param("userId") Long userId);
     boolean existsByUserIdAndGroupId(Long userId, Long groupId);
+
+    @Query("SELECT gm.user.id FROM GroupMember gm WHERE gm.group.id = :groupId")
+    List<Long> findMemberIdsByGroupId(@Param("groupId") Long groupId);
     List<GroupMember> findByUserId(Long userId);
 
+    // Resolves many users in one query, returning only those who are members of the group
+    @Query("SELECT gm.user FROM GroupMember gm WHERE gm.group.id = :groupId AND gm.user.id IN :userIds")
+    List<User> findMemberUsers(@Param("groupId") Long groupId, @Param("userIds") Collection<Long> userIds);
+
 }
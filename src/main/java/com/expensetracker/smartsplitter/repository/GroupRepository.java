@@ -1,7 +1,54 @@
 package com.expensetracker.smartsplitter.repository;
 
+import com.expensetracker.smartsplitter.dto.view.GroupMemberRow;
 import com.expensetracker.smartsplitter.model.Group;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface GroupRepository extends JpaRepository<Group,Long> {
+
+    @Query("SELECT g.id FROM Group g WHERE g.settlementVersion <> g.ledgerVersion")
+    List<Long> findGroupIdsWithStaleSettlements();
+
+    // Ledger versions the stored plan is behind, read without loading the group
+    @Query("SELECT g.ledgerVersion - g.settlementVersion FROM Group g WHERE g.id = :groupId")
+    Optional<Long> findSettlementLag(@Param("groupId") Long groupId);
+
+    // Every balance change bumps its group's ledger version, so the sum changes whenever a balance of the users does
+    @Query("SELECT COALESCE(SUM(g.ledgerVersion), 0) FROM Group g WHERE g.id IN "
+            + "(SELECT gm.group.id FROM GroupMember gm WHERE gm.user.id IN :userIds)")
+    long sumLedgerVersionsOfMembers(@Param("userIds") Collection<Long> userIds);
+
+    @Query("SELECT g.settlementStaleSince FROM Group g WHERE g.id = :groupId")
+    Optional<LocalDateTime> findSettlementStaleSince(@Param("groupId") Long groupId);
+
+    @EntityGraph(Group.WITH_MEMBERS)
+    @Query("SELECT g FROM Group g WHERE g.id IN "
+            + "(SELECT gm.group.id FROM GroupMember gm WHERE gm.user.id = :userId) ORDER BY g.id")
+    List<Group> findWithMembersByMemberUserId(@Param("userId") Long userId);
+
+    @EntityGraph(Group.WITH_MEMBERS)
+    @Query("SELECT g FROM Group g WHERE g.id = :groupId")
+    Optional<Group> findWithMembersById(@Param("groupId") Long groupId);
+
+    // Groups with creator and members as flat rows, so a group view needs a single query
+    String GROUP_MEMBER_ROW = "SELECT new com.expensetracker.smartsplitter.dto.view.GroupMemberRow("
+            + "g.id, g.groupName, g.createdAt, c.id, c.username, c.email, c.mobile, "
+            + "m.id, m.joinedAt, u.id, u.username, u.email, u.mobile) "
+            + "FROM Group g LEFT JOIN g.createdBy c LEFT JOIN g.members m LEFT JOIN m.user u ";
+
+    @Query(GROUP_MEMBER_ROW
+            + "WHERE g.id IN (SELECT gm.group.id FROM GroupMember gm WHERE gm.user.id = :userId) "
+            + "ORDER BY g.id, m.id")
+    List<GroupMemberRow> findGroupMemberRowsByUserId(@Param("userId") Long userId);
+
+    @Query(GROUP_MEMBER_ROW + "WHERE g.id = :groupId ORDER BY m.id")
+    List<GroupMemberRow> findGroupMemberRowsByGroupId(@Param("groupId") Long groupId);
 }
@@ -0,0 +1,27 @@
+package com.expensetracker.smartsplitter.repository;
+
+import com.expensetracker.smartsplitter.model.LedgerEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface LedgerEventRepository extends JpaRepository<LedgerEvent, Long> {
+
+    List<LedgerEvent> findByGroupIdOrderBySequence(Long groupId);
+
+    // Summed balance change per user of every event after the given sequence, as [userId, delta] rows
+    @Query("SELECT KEY(d), SUM(VALUE(d)) FROM LedgerEvent e JOIN e.deltas d " +
+            "WHERE e.group.id = :groupId AND e.sequence > :afterSequence GROUP BY KEY(d)")
+    List<Object[]> sumDeltasAfter(@Param("groupId") Long groupId, @Param("afterSequence") Long afterSequence);
+
+    @Query("SELECT COUNT(e) FROM LedgerEvent e WHERE e.group.id = :groupId")
+    long countByGroupId(@Param("groupId") Long groupId);
+
+    // Compaction; the delta rows go with their events
+    @Modifying
+    @Query("DELETE FROM LedgerEvent e WHERE e.group.id = :groupId AND e.sequence <= :sequence")
+    int deleteUpTo(@Param("groupId") Long groupId, @Param("sequence") Long sequence);
+}
@@ -1,12 +1,39 @@
 package com.expensetracker.smartsplitter.repository;
 
+import com.expensetracker.smartsplitter.dto.view.SettlementView;
 import com.expensetracker.smartsplitter.model.Settlement;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 
 import java.util.List;
+import java.util.Optional;
 
 public interface SettlementRepository extends JpaRepository<Settlement,Long> {
     List<Settlement> findByFromUserIdOrToUserId(Long fromUserId, Long toUserId);
     List<Settlement> findByGroupId(Long groupId);
+
+    @Query("SELECT s.group.id FROM Settlement s WHERE s.id = :settlementId")
+    Optional<Long> findGroupIdById(@Param("settlementId") Long settlementId);
+
+    // Debtor and creditor of each unpaid settlement in the group, as [fromUserId, toUserId] rows
+    @Query("SELECT s.fromUser.id, s.toUser.id FROM Settlement s WHERE s.group.id = :groupId AND s.paid = false")
+    List<Object[]> findUnpaidParties(@Param("groupId") Long groupId);
+
+    // Stored plan of every group the user takes part in, with users and group already loaded
+    @Query("SELECT s FROM Settlement s JOIN FETCH s.fromUser JOIN FETCH s.toUser JOIN FETCH s.group " +
+            "WHERE s.fromUser.id = :userId OR s.toUser.id = :userId ORDER BY s.group.id, s.id")
+    List<Settlement> findPlanForUser(@Param("userId") Long userId);
+
+    @Query("SELECT s FROM Settlement s JOIN FETCH s.fromUser JOIN FETCH s.toUser JOIN FETCH s.group " +
+            "WHERE s.group.id = :groupId ORDER BY s.id")
+    List<Settlement> findPlanForGroup(@Param("groupId") Long groupId);
+
+    @Query("SELECT new com.expensetracker.smartsplitter.dto.view.SettlementView("
+            + "s.id, s.amount, s.paid, f.id, f.username, f.email, f.mobile, "
+            + "t.id, t.username, t.email, t.mobile, g.id, g.groupName, g.settlementStaleSince) "
+            + "FROM Settlement s JOIN s.fromUser f JOIN s.toUser t JOIN s.group g "
+            + "WHERE f.id = :userId OR t.id = :userId ORDER BY g.id, s.id")
+    List<SettlementView> findViewsForUser(@Param("userId") Long userId);
 }
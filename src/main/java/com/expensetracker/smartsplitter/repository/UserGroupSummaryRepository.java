@@ -0,0 +1,19 @@
+package com.expensetracker.smartsplitter.repository;
+
+import com.expensetracker.smartsplitter.dto.view.GroupSummaryView;
+import com.expensetracker.smartsplitter.model.UserGroupSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface UserGroupSummaryRepository extends JpaRepository<UserGroupSummary, Long> {
+
+    List<UserGroupSummary> findByGroupId(Long groupId);
+
+    @Query("SELECT new com.expensetracker.smartsplitter.dto.view.GroupSummaryView("
+            + "g.id, g.groupName, s.net, s.expenseCount, s.expenseTotal, s.pendingSettlements) "
+            + "FROM UserGroupSummary s JOIN s.group g WHERE s.user.id = :userId ORDER BY g.id")
+    List<GroupSummaryView> findViewsByUserId(@Param("userId") Long userId);
+}
@@ -0,0 +1,10 @@
+package com.expensetracker.smartsplitter.repository;
+
+import com.expensetracker.smartsplitter.model.User;
+
+import java.util.Optional;
+
+// Email lookups by natural id, so repeat lookups are served from the natural-id and entity caches
+public interface UserNaturalIdRepository {
+    Optional<User> findByEmail(String email);
+}
@@ -1,5 +1,6 @@
 package com.expensetracker.smartsplitter.service;
 
+import com.expensetracker.smartsplitter.config.AuthenticatedUser;
 import com.expensetracker.smartsplitter.dto.AuthResponse;
 import com.expensetracker.smartsplitter.dto.LoginRequest;
 import com.expensetracker.smartsplitter.dto.RegisterRequest;
@@ -10,6 +11,8 @@ import org.springframework.stereotype.Service;
 public interface AuthService {
     AuthResponse register(RegisterRequest request);
     AuthResponse login(LoginRequest request);
-    UserDto getCurrentUser();
+    UserDto getCurrentUser(AuthenticatedUser principal);
+    // Revokes the caller's token, or every token issued to them so far when allSessions is set
+    void logout(AuthenticatedUser principal, boolean allSessions);
 
 }
@@ -0,0 +1,24 @@
+package com.expensetracker.smartsplitter.service;
+
+import com.expensetracker.smartsplitter.dto.LedgerDriftReport;
+import com.expensetracker.smartsplitter.model.Expense;
+import com.expensetracker.smartsplitter.model.Settlement;
+import com.expensetracker.smartsplitter.settlement.BalanceSheet;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public interface BalanceLedgerService {
+    void recordExpense(Expense expense);
+    void reverseExpense(Expense expense);
+    // Marks a settlement transfer as done: the debtor owes less and the creditor is owed less
+    void recordPayment(Settlement settlement);
+    void applyDeltas(Long groupId, Map<Long, BigDecimal> deltas);
+    Map<Long, BigDecimal> getBalances(Long groupId);
+    BalanceSheet getBalanceSheet(Long groupId);
+    List<Long> findGroupIdsToVerify();
+    LedgerDriftReport verifyGroup(Long groupId, boolean repair);
+}
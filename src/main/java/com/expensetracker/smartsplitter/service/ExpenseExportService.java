@@ -0,0 +1,17 @@
+package com.expensetracker.smartsplitter.service;
+
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+@Service
+public interface ExpenseExportService {
+
+    enum Format { CSV, NDJSON }
+
+    // Lets callers fail fast before a response starts streaming
+    boolean groupExists(Long groupId);
+
+    void exportExpenses(Long groupId, OutputStream out, Format format) throws IOException;
+}
@@ -0,0 +1,15 @@
+package com.expensetracker.smartsplitter.service;
+
+import com.expensetracker.smartsplitter.dto.ExpenseImportResult;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@Service
+public interface ExpenseImportService {
+
+    enum Format { CSV, NDJSON }
+
+    ExpenseImportResult importExpenses(Long groupId, InputStream body, Format format) throws IOException;
+}
@@ -1,5 +1,8 @@
 package com.expensetracker.smartsplitter.service;
 
+import com.expensetracker.smartsplitter.dto.ExpensePage;
+import com.expensetracker.smartsplitter.dto.ExpenseQuery;
+import com.expensetracker.smartsplitter.dto.view.ExpenseView;
 import com.expensetracker.smartsplitter.model.Expense;
 import org.springframework.stereotype.Service;
 
@@ -10,5 +13,8 @@ public interface ExpenseService {
     Expense addExpense(Long groupId, Long payerId, Expense expense, List<Long> participantIds);
     List<Expense> getExpensesForGroup(Long groupId);
     List<Expense> getExpensesByUser(Long userId);
+    List<ExpenseView> getExpenseViewsByUser(Long userId);
+    ExpensePage getExpensePageForGroup(Long groupId, ExpenseQuery query);
+    ExpensePage getExpensePageForUser(Long userId, ExpenseQuery query);
     void deleteExpense(Long expenseId);
 }
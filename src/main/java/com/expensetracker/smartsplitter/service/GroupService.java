@@ -1,5 +1,6 @@
 package com.expensetracker.smartsplitter.service;
 
+import com.expensetracker.smartsplitter.dto.view.GroupView;
 import com.expensetracker.smartsplitter.model.Group;
 import org.springframework.stereotype.Service;
 
@@ -9,6 +10,10 @@ import java.util.List;
 public interface GroupService {
     Group createGroup(Group group, Long creatorId);
     void addUserToGroup(Long groupId, Long userId, String currentUserEmail);
+    // For callers that already know the requesting user's id, e.g. from the JWT principal
+    void addUserToGroup(Long groupId, Long userId, Long currentUserId);
     List<Group> getGroupsByUser(Long userId);
     Group getGroupById(Long groupId);
+    List<GroupView> getGroupViewsByUser(Long userId);
+    GroupView getGroupViewById(Long groupId);
 }
@@ -0,0 +1,20 @@
+package com.expensetracker.smartsplitter.service;
+
+import com.expensetracker.smartsplitter.model.LedgerEventType;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public interface LedgerEventService {
+    void append(Long groupId, LedgerEventType type, Long subjectId, Map<Long, BigDecimal> deltas);
+    // Several events of one type in subject order, e.g. an import batch
+    void appendAll(Long groupId, LedgerEventType type, Map<Long, Map<Long, BigDecimal>> deltasBySubject);
+    boolean hasLog(Long groupId);
+    void startLog(Long groupId, Map<Long, BigDecimal> baseline);
+    Map<Long, BigDecimal> replay(Long groupId);
+    void snapshot(Long groupId);
+    List<Long> findGroupIds();
+}
@@ -0,0 +1,12 @@
+package com.expensetracker.smartsplitter.service;
+
+import com.expensetracker.smartsplitter.dto.view.NettedSettlementView;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+public interface SettlementNettingService {
+    // Transfers of the user in one plan across all of their groups, instead of one plan per group
+    List<NettedSettlementView> getNettedSettlementsForUser(Long userId);
+}
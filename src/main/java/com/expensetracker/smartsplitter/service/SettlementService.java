@@ -1,13 +1,20 @@
 package com.expensetracker.smartsplitter.service;
 
+import com.expensetracker.smartsplitter.dto.view.SettlementView;
 import com.expensetracker.smartsplitter.model.Settlement;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Service
 public interface SettlementService {
     List<Settlement> calculateSettlements(Long groupId);
+    boolean recalculateIfStale(Long groupId);
+    List<Settlement> getSettlementsForGroup(Long groupId);
+    LocalDateTime getPlanStaleSince(Long groupId);
+    List<Long> findGroupIdsWithStaleSettlements();
     List<Settlement> getSettlementsForUser(Long userId);
+    List<SettlementView> getSettlementViewsForUser(Long userId);
     void markSettlementAsPaid(Long settlementId);
 }
@@ -0,0 +1,11 @@
+package com.expensetracker.smartsplitter.service;
+
+import com.expensetracker.smartsplitter.dto.view.UserSummaryView;
+import org.springframework.stereotype.Service;
+
+@Service
+public interface UserSummaryService {
+    UserSummaryView getSummary(Long userId);
+    // Rebuilds the summary rows of every member of the group from the ledger, expenses and plan
+    void refreshGroup(Long groupId);
+}
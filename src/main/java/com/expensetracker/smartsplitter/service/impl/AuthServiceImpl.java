@@ -1,21 +1,22 @@
 package com.expensetracker.smartsplitter.service.impl;
 
+import com.expensetracker.smartsplitter.config.AuthenticatedUser;
 import com.expensetracker.smartsplitter.config.JwtService;
+import com.expensetracker.smartsplitter.config.PasswordHasher;
+import com.expensetracker.smartsplitter.config.TokenDenylist;
 import com.expensetracker.smartsplitter.dto.AuthResponse;
 import com.expensetracker.smartsplitter.dto.LoginRequest;
 import com.expensetracker.smartsplitter.dto.RegisterRequest;
 import com.expensetracker.smartsplitter.dto.UserDto;
 import com.expensetracker.smartsplitter.exception.UsernameNotFoundException;
+import com.expensetracker.smartsplitter.model.Role;
 import com.expensetracker.smartsplitter.model.User;
 import com.expensetracker.smartsplitter.repository.UserRepository;
 import com.expensetracker.smartsplitter.service.AuthService;
 import com.expensetracker.smartsplitter.service.UserService;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -28,30 +29,42 @@ public class AuthServiceImpl implements AuthService {
     private JwtService jwtService;
 
     @Autowired
-    private AuthenticationManager authenticationManager;
+    private PasswordHasher passwordHasher;
 
     @Autowired
     private UserRepository userRepository;
     @Autowired
     private ModelMapper modelMapper;
+    @Autowired
+    private TokenDenylist tokenDenylist;
 
     @Override
     public AuthResponse register(RegisterRequest request) {
         UserDto userDto = userService.register(request);
-        String token = jwtService.generateToken(userDto.getEmail());
+        // Self-registration always creates a USER
+        String token = jwtService.generateToken(userDto.getId(), userDto.getEmail(), Role.USER);
 
         return new AuthResponse(token, userDto);
     }
     @Override
     public AuthResponse login(LoginRequest request) {
-        authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
-        );
+        User user = userRepository.findByEmail(request.getEmail()).orElse(null);
+        if (user == null) {
+            passwordHasher.verifyAgainstDummy(request.getPassword());
+            throw new BadCredentialsException("Bad credentials");
+        }
 
-        User user = userRepository.findByEmail(request.getEmail())
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        PasswordHasher.Verification verification = passwordHasher.verify(request.getPassword(), user.getPassword());
+        if (!verification.matches()) {
+            throw new BadCredentialsException("Bad credentials");
+        }
+        // Stored hash was made with a different cost than the configured one
+        if (verification.upgradedHash() != null) {
+            user.setPassword(verification.upgradedHash());
+            userRepository.save(user);
+        }
 
-        String token = jwtService.generateToken(user.getEmail());
+        String token = jwtService.generateToken(user.getId(), user.getEmail(), user.getRole());
 
         UserDto userDto = modelMapper.map(user, UserDto.class);
 
@@ -59,12 +72,19 @@ public class AuthServiceImpl implements AuthService {
     }
 
     @Override
-    public UserDto getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
+    public UserDto getCurrentUser(AuthenticatedUser principal) {
+        User user = userRepository.findById(principal.id())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + principal.id()));
         return modelMapper.map(user, UserDto.class);
     }
+
+    @Override
+    public void logout(AuthenticatedUser principal, boolean allSessions) {
+        if (allSessions) {
+            tokenDenylist.revokeAllIssuedBefore(principal.id(), System.currentTimeMillis());
+        } else {
+            tokenDenylist.revoke(principal);
+        }
+    }
 }
 
@@ -0,0 +1,213 @@
+package com.expensetracker.smartsplitter.service.impl;
+
+import com.expensetracker.smartsplitter.config.GroupLocks;
+import com.expensetracker.smartsplitter.dto.BalanceDrift;
+import com.expensetracker.smartsplitter.dto.LedgerDriftReport;
+import com.expensetracker.smartsplitter.event.SettlementPlanStale;
+import com.expensetracker.smartsplitter.model.Expense;
+import com.expensetracker.smartsplitter.model.Group;
+import com.expensetracker.smartsplitter.model.GroupBalance;
+import com.expensetracker.smartsplitter.model.LedgerEventType;
+import com.expensetracker.smartsplitter.model.Settlement;
+import com.expensetracker.smartsplitter.repository.ExpenseParticipantRepository;
+import com.expensetracker.smartsplitter.repository.ExpenseRepository;
+import com.expensetracker.smartsplitter.repository.GroupBalanceRepository;
+import com.expensetracker.smartsplitter.repository.GroupRepository;
+import com.expensetracker.smartsplitter.repository.UserRepository;
+import com.expensetracker.smartsplitter.service.BalanceLedgerService;
+import com.expensetracker.smartsplitter.service.LedgerEventService;
+import com.expensetracker.smartsplitter.settlement.BalanceSheet;
+import com.expensetracker.smartsplitter.util.BalanceDeltas;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.*;
+
+@Service
+public class BalanceLedgerServiceImpl implements BalanceLedgerService {
+
+    private GroupBalanceRepository groupBalanceRepository;
+    private ExpenseRepository expenseRepository;
+    private ExpenseParticipantRepository expenseParticipantRepository;
+    private GroupRepository groupRepository;
+    private UserRepository userRepository;
+    private LedgerEventService ledgerEventService;
+    private GroupLocks groupLocks;
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    public BalanceLedgerServiceImpl(GroupBalanceRepository groupBalanceRepository, ExpenseRepository expenseRepository,
+                                    ExpenseParticipantRepository expenseParticipantRepository,
+                                    GroupRepository groupRepository, UserRepository userRepository,
+                                    LedgerEventService ledgerEventService, GroupLocks groupLocks,
+                                    ApplicationEventPublisher eventPublisher) {
+        this.groupBalanceRepository = groupBalanceRepository;
+        this.expenseRepository = expenseRepository;
+        this.expenseParticipantRepository = expenseParticipantRepository;
+        this.groupRepository = groupRepository;
+        this.userRepository = userRepository;
+        this.ledgerEventService = ledgerEventService;
+        this.groupLocks = groupLocks;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    @Transactional
+    public void recordExpense(Expense expense) {
+        record(expense.getGroup().getId(), LedgerEventType.EXPENSE_ADDED, expense.getId(),
+                BalanceDeltas.forExpense(expense, false));
+    }
+
+    @Override
+    @Transactional
+    public void reverseExpense(Expense expense) {
+        record(expense.getGroup().getId(), LedgerEventType.EXPENSE_DELETED, expense.getId(),
+                BalanceDeltas.forExpense(expense, true));
+    }
+
+    @Override
+    @Transactional
+    public void recordPayment(Settlement settlement) {
+        record(settlement.getGroup().getId(), LedgerEventType.PAYMENT_RECORDED, settlement.getId(),
+                BalanceDeltas.forPayment(settlement));
+    }
+
+    // Logged before the ledger rows move, so a log started by this event baselines on the old balances
+    private void record(Long groupId, LedgerEventType type, Long subjectId, Map<Long, BigDecimal> deltas) {
+        ledgerEventService.append(groupId, type, subjectId, deltas);
+        applyDeltas(groupId, deltas);
+    }
+
+    @Override
+    @Transactional
+    public void applyDeltas(Long groupId, Map<Long, BigDecimal> deltas) {
+        Map<Long, BigDecimal> pending = new HashMap<>();
+        deltas.forEach((userId, delta) -> {
+            if (delta.signum() != 0) {
+                pending.put(userId, delta);
+            }
+        });
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        // Balances are about to change, so the stored settlement plan becomes stale and is queued for recomputation
+        Group group = groupRepository.findById(groupId)
+                .orElseThrow(() -> new RuntimeException("Group not found"));
+        if (group.isSettlementPlanCurrent()) {
+            group.setSettlementStaleSince(LocalDateTime.now());
+        }
+        group.setLedgerVersion(group.getLedgerVersion() + 1);
+        eventPublisher.publishEvent(new SettlementPlanStale(groupId));
+
+        // Lock the existing rows, bump them in memory and let the flush write the updates
+        for (GroupBalance row : groupBalanceRepository.findForUpdate(groupId, pending.keySet())) {
+            row.setBalance(row.getBalance().add(pending.remove(row.getUser().getId())));
+        }
+
+        // Whatever is left has no ledger row yet
+        List<GroupBalance> created = new ArrayList<>();
+        pending.forEach((userId, delta) -> created.add(GroupBalance.builder()
+                .group(group)
+                .user(userRepository.getReferenceById(userId))
+                .balance(delta)
+                .build()));
+        if (!created.isEmpty()) {
+            groupBalanceRepository.saveAll(created);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, BigDecimal> getBalances(Long groupId) {
+        Map<Long, BigDecimal> balances = new HashMap<>();
+        for (GroupBalance row : groupBalanceRepository.findByGroupId(groupId)) {
+            if (row.getBalance().signum() != 0) {
+                balances.put(row.getUser().getId(), row.getBalance());
+            }
+        }
+        return balances;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BalanceSheet getBalanceSheet(Long groupId) {
+        List<Object[]> rows = groupBalanceRepository.findNonZeroBalances(groupId);
+        BalanceSheet sheet = new BalanceSheet(rows.size());
+        for (Object[] row : rows) {
+            sheet.add((Long) row[0], (BigDecimal) row[1]);
+        }
+        return sheet;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> findGroupIdsToVerify() {
+        Set<Long> groupIds = new TreeSet<>(expenseRepository.findGroupIdsWithExpenses());
+        groupIds.addAll(groupBalanceRepository.findGroupIds());
+        groupIds.addAll(ledgerEventService.findGroupIds());
+        return new ArrayList<>(groupIds);
+    }
+
+    @Override
+    @Transactional
+    public LedgerDriftReport verifyGroup(Long groupId, boolean repair) {
+        // Writers are held off so the log and the ledger rows are compared at the same point
+        groupLocks.lock(groupId);
+
+        // Expected balances come from the event log: latest snapshot plus the events after it
+        Map<Long, BigDecimal> expected;
+        if (ledgerEventService.hasLog(groupId)) {
+            expected = ledgerEventService.replay(groupId);
+        } else {
+            // Groups that predate the log are checked against the full expense history once, which becomes their baseline
+            expected = new HashMap<>();
+            for (Object[] row : expenseRepository.sumAmountsByPayer(groupId)) {
+                expected.merge((Long) row[0], (BigDecimal) row[1], BigDecimal::add);
+            }
+            for (Object[] row : expenseParticipantRepository.sumSharesByUser(groupId)) {
+                expected.merge((Long) row[0], ((BigDecimal) row[1]).negate(), BigDecimal::add);
+            }
+            ledgerEventService.startLog(groupId, expected);
+        }
+
+        Map<Long, GroupBalance> recorded = new HashMap<>();
+        for (GroupBalance row : groupBalanceRepository.findByGroupId(groupId)) {
+            recorded.put(row.getUser().getId(), row);
+        }
+
+        Set<Long> userIds = new TreeSet<>(expected.keySet());
+        userIds.addAll(recorded.keySet());
+
+        List<BalanceDrift> drifts = new ArrayList<>();
+        Map<Long, BigDecimal> corrections = new HashMap<>();
+        for (Long userId : userIds) {
+            BigDecimal expectedBalance = expected.getOrDefault(userId, BigDecimal.ZERO);
+            GroupBalance row = recorded.get(userId);
+            BigDecimal recordedBalance = row != null ? row.getBalance() : BigDecimal.ZERO;
+
+            if (expectedBalance.compareTo(recordedBalance) != 0) {
+                drifts.add(BalanceDrift.builder()
+                        .userId(userId)
+                        .recorded(recordedBalance)
+                        .expected(expectedBalance)
+                        .build());
+                corrections.put(userId, expectedBalance.subtract(recordedBalance));
+            }
+        }
+
+        if (repair && !corrections.isEmpty()) {
+            applyDeltas(groupId, corrections);
+        }
+
+        return LedgerDriftReport.builder()
+                .groupId(groupId)
+                .drifts(drifts)
+                .repaired(repair && !drifts.isEmpty())
+                .build();
+    }
+}
@@ -0,0 +1,168 @@
+package com.expensetracker.smartsplitter.service.impl;
+
+import com.expensetracker.smartsplitter.dto.ExpenseExportRow;
+import com.expensetracker.smartsplitter.repository.ExpenseRepository;
+import com.expensetracker.smartsplitter.repository.GroupRepository;
+import com.expensetracker.smartsplitter.service.ExpenseExportService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Writes a group's expense history straight from a forward-only database cursor.
+ * Only the expense currently being written is held in memory, so heap use does not
+ * grow with the size of the history.
+ *
+ * CSV output has one line per expense with participant ids and shares separated by ';',
+ * using the same column names as the import so an export can be imported again.
+ * NDJSON output has one object per expense with its participants as an array.
+ */
+@Service
+public class ExpenseExportServiceImpl implements ExpenseExportService {
+
+    static final String CSV_HEADER = "id,title,amount,payerId,participantIds,shareAmounts,createdAt";
+
+    private ExpenseRepository expenseRepository;
+    private GroupRepository groupRepository;
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    public ExpenseExportServiceImpl(ExpenseRepository expenseRepository, GroupRepository groupRepository,
+                                    ObjectMapper objectMapper) {
+        this.expenseRepository = expenseRepository;
+        this.groupRepository = groupRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    // Rows of one expense, collected until the cursor moves on to the next expense
+    private static final class PendingExpense {
+        private final ExpenseExportRow head;
+        private final List<Long> participantIds = new ArrayList<>();
+        private final List<BigDecimal> shareAmounts = new ArrayList<>();
+
+        private PendingExpense(ExpenseExportRow head) {
+            this.head = head;
+        }
+
+        private void add(ExpenseExportRow row) {
+            if (row.getParticipantId() != null) {
+                participantIds.add(row.getParticipantId());
+                shareAmounts.add(row.getShareAmount());
+            }
+        }
+    }
+
+    @Override
+    public boolean groupExists(Long groupId) {
+        return groupRepository.existsById(groupId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportExpenses(Long groupId, OutputStream out, Format format) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        JsonGenerator json = null;
+        if (format == Format.NDJSON) {
+            json = objectMapper.getFactory().createGenerator(writer);
+            // Objects are newline-terminated explicitly instead of space-separated
+            json.setRootValueSeparator(null);
+        } else {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        try (Stream<ExpenseExportRow> rows = expenseRepository.streamExportRows(groupId)) {
+            PendingExpense pending = null;
+            Iterator<ExpenseExportRow> cursor = rows.iterator();
+            while (cursor.hasNext()) {
+                ExpenseExportRow row = cursor.next();
+                if (pending == null || !pending.head.getExpenseId().equals(row.getExpenseId())) {
+                    if (pending != null) {
+                        write(pending, writer, json);
+                    }
+                    pending = new PendingExpense(row);
+                }
+                pending.add(row);
+            }
+            if (pending != null) {
+                write(pending, writer, json);
+            }
+        }
+
+        if (json != null) {
+            json.flush();
+        }
+        writer.flush();
+    }
+
+    private void write(PendingExpense expense, Writer writer, JsonGenerator json) throws IOException {
+        if (json != null) {
+            writeJson(expense, json);
+        } else {
+            writeCsv(expense, writer);
+        }
+    }
+
+    private static void writeJson(PendingExpense expense, JsonGenerator json) throws IOException {
+        ExpenseExportRow head = expense.head;
+        json.writeStartObject();
+        json.writeNumberField("id", head.getExpenseId());
+        json.writeStringField("title", head.getTitle());
+        json.writeNumberField("amount", head.getAmount());
+        json.writeNumberField("payerId", head.getPayerId());
+        json.writeStringField("createdAt", head.getCreatedAt() == null ? null : head.getCreatedAt().toString());
+        json.writeArrayFieldStart("participants");
+        for (int i = 0; i < expense.participantIds.size(); i++) {
+            json.writeStartObject();
+            json.writeNumberField("userId", expense.participantIds.get(i));
+            json.writeNumberField("shareAmount", expense.shareAmounts.get(i));
+            json.writeEndObject();
+        }
+        json.writeEndArray();
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    private static void writeCsv(PendingExpense expense, Writer writer) throws IOException {
+        ExpenseExportRow head = expense.head;
+        StringBuilder line = new StringBuilder();
+        line.append(head.getExpenseId()).append(',')
+                .append(csvField(head.getTitle())).append(',')
+                .append(head.getAmount().toPlainString()).append(',')
+                .append(head.getPayerId()).append(',');
+        for (int i = 0; i < expense.participantIds.size(); i++) {
+            line.append(i == 0 ? "" : ";").append(expense.participantIds.get(i));
+        }
+        line.append(',');
+        for (int i = 0; i < expense.shareAmounts.size(); i++) {
+            line.append(i == 0 ? "" : ";").append(expense.shareAmounts.get(i).toPlainString());
+        }
+        line.append(',').append(head.getCreatedAt() == null ? "" : head.getCreatedAt().toString()).append('\n');
+        writer.write(line.toString());
+    }
+
+    // Quotes a field when it contains a separator, a quote or a line break; embedded quotes are doubled
+    static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
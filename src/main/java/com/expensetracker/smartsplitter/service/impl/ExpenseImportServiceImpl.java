@@ -0,0 +1,295 @@
+package com.expensetracker.smartsplitter.service.impl;
+
+import com.expensetracker.smartsplitter.config.GroupLocks;
+import com.expensetracker.smartsplitter.dto.ExpenseImportError;
+import com.expensetracker.smartsplitter.dto.ExpenseImportResult;
+import com.expensetracker.smartsplitter.dto.ExpenseImportRow;
+import com.expensetracker.smartsplitter.model.Expense;
+import com.expensetracker.smartsplitter.model.ExpenseParticipant;
+import com.expensetracker.smartsplitter.model.Group;
+import com.expensetracker.smartsplitter.model.LedgerEventType;
+import com.expensetracker.smartsplitter.repository.ExpenseRepository;
+import com.expensetracker.smartsplitter.repository.GroupMemberRepository;
+import com.expensetracker.smartsplitter.repository.GroupRepository;
+import com.expensetracker.smartsplitter.repository.UserRepository;
+import com.expensetracker.smartsplitter.service.BalanceLedgerService;
+import com.expensetracker.smartsplitter.service.ExpenseImportService;
+import com.expensetracker.smartsplitter.service.LedgerEventService;
+import com.expensetracker.smartsplitter.util.BalanceDeltas;
+import com.expensetracker.smartsplitter.util.ShareCalculator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Streams an expense import line by line, so the payload is never held in memory.
+ * Valid rows are persisted in batches of {@code app.import.batch-size}, each batch in its own
+ * transaction with a single ledger update; invalid rows are reported with their line number.
+ *
+ * CSV input needs a header row naming the columns title, amount, payerId, participantIds
+ * and optionally createdAt; participant ids are separated by ';'. NDJSON input has one
+ * object per line with the same field names and participantIds as an array.
+ */
+@Service
+public class ExpenseImportServiceImpl implements ExpenseImportService {
+
+    private static final Set<String> REQUIRED_CSV_COLUMNS = Set.of("title", "amount", "payerId", "participantIds");
+
+    private ExpenseRepository expenseRepository;
+    private GroupRepository groupRepository;
+    private GroupMemberRepository groupMemberRepository;
+    private UserRepository userRepository;
+    private BalanceLedgerService balanceLedgerService;
+    private LedgerEventService ledgerEventService;
+    private ObjectMapper objectMapper;
+    private EntityManager entityManager;
+    private GroupLocks groupLocks;
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    @Autowired
+    public ExpenseImportServiceImpl(ExpenseRepository expenseRepository, GroupRepository groupRepository,
+                                    GroupMemberRepository groupMemberRepository, UserRepository userRepository,
+                                    BalanceLedgerService balanceLedgerService, LedgerEventService ledgerEventService,
+                                    ObjectMapper objectMapper, EntityManager entityManager,
+                                    PlatformTransactionManager transactionManager, GroupLocks groupLocks) {
+        this.expenseRepository = expenseRepository;
+        this.groupRepository = groupRepository;
+        this.groupMemberRepository = groupMemberRepository;
+        this.userRepository = userRepository;
+        this.balanceLedgerService = balanceLedgerService;
+        this.ledgerEventService = ledgerEventService;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.groupLocks = groupLocks;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    private record PendingRow(long line, ExpenseImportRow row) {
+    }
+
+    @Override
+    public ExpenseImportResult importExpenses(Long groupId, InputStream body, Format format) throws IOException {
+        if (!groupRepository.existsById(groupId)) {
+            throw new RuntimeException("Group not found");
+        }
+        // Membership is loaded once and every row is validated against it
+        Set<Long> memberIds = new HashSet<>(groupMemberRepository.findMemberIdsByGroupId(groupId));
+
+        ExpenseImportResult result = ExpenseImportResult.builder().errors(new ArrayList<>()).build();
+        List<PendingRow> batch = new ArrayList<>(batchSize);
+        Map<String, Integer> csvColumns = null;
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String line;
+        long lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (format == Format.CSV && csvColumns == null) {
+                csvColumns = parseCsvHeader(line);
+                continue;
+            }
+
+            try {
+                ExpenseImportRow row = format == Format.CSV
+                        ? parseCsvRow(line, csvColumns)
+                        : objectMapper.readValue(line, ExpenseImportRow.class);
+                validate(row, memberIds);
+                batch.add(new PendingRow(lineNumber, row));
+            } catch (Exception e) {
+                recordError(result, lineNumber, e.getMessage());
+            }
+
+            if (batch.size() >= batchSize) {
+                persistBatch(groupId, batch, result);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            persistBatch(groupId, batch, result);
+        }
+
+        // Each batch marks the settlement plan stale; the background queue folds them into one recomputation
+        return result;
+    }
+
+    private void persistBatch(Long groupId, List<PendingRow> batch, ExpenseImportResult result) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Group group = groupLocks.lock(groupId);
+                Map<Long, BigDecimal> deltas = new HashMap<>();
+                List<Expense> expenses = new ArrayList<>(batch.size());
+
+                for (PendingRow pending : batch) {
+                    ExpenseImportRow row = pending.row();
+                    List<Long> participantIds = row.getParticipantIds();
+                    List<BigDecimal> shares = ShareCalculator.equalShares(row.getAmount(), row.getPayerId(),
+                            participantIds);
+
+                    Expense expense = Expense.builder()
+                            .title(row.getTitle())
+                            .amount(row.getAmount())
+                            .createdAt(row.getCreatedAt())
+                            .group(group)
+                            .paidBy(userRepository.getReferenceById(row.getPayerId()))
+                            .build();
+                    List<ExpenseParticipant> participants = new ArrayList<>(participantIds.size());
+                    for (int i = 0; i < participantIds.size(); i++) {
+                        participants.add(ExpenseParticipant.builder()
+                                .expense(expense)
+                                .user(userRepository.getReferenceById(participantIds.get(i)))
+                                .shareAmount(shares.get(i))
+                                .build());
+                    }
+                    expense.setParticipants(participants);
+                    expenses.add(expense);
+
+                    deltas.merge(row.getPayerId(), row.getAmount(), BigDecimal::add);
+                    for (int i = 0; i < participantIds.size(); i++) {
+                        deltas.merge(participantIds.get(i), shares.get(i).negate(), BigDecimal::add);
+                    }
+                }
+
+                expenseRepository.saveAll(expenses);
+                // One log event per imported expense, then one ledger update for the whole batch
+                Map<Long, Map<Long, BigDecimal>> eventDeltas = new LinkedHashMap<>();
+                for (Expense expense : expenses) {
+                    eventDeltas.put(expense.getId(), BalanceDeltas.forExpense(expense, false));
+                }
+                ledgerEventService.appendAll(groupId, LedgerEventType.EXPENSE_ADDED, eventDeltas);
+                balanceLedgerService.applyDeltas(groupId, deltas);
+
+                // Keep the persistence context from growing across batches
+                entityManager.flush();
+                entityManager.clear();
+            });
+            result.setImported(result.getImported() + batch.size());
+            result.setBatches(result.getBatches() + 1);
+        } catch (RuntimeException e) {
+            for (PendingRow pending : batch) {
+                recordError(result, pending.line(), "Batch failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private void validate(ExpenseImportRow row, Set<Long> memberIds) {
+        if (row.getTitle() == null || row.getTitle().isBlank()) {
+            throw new IllegalArgumentException("Title is required");
+        }
+        if (row.getAmount() == null || row.getAmount().signum() <= 0) {
+            throw new IllegalArgumentException("Amount must be positive");
+        }
+        if (row.getAmount().stripTrailingZeros().scale() > 2) {
+            throw new IllegalArgumentException("Amount has more than two decimals: " + row.getAmount());
+        }
+        if (row.getPayerId() == null || !memberIds.contains(row.getPayerId())) {
+            throw new IllegalArgumentException("Payer is not a member of the group: " + row.getPayerId());
+        }
+        if (row.getParticipantIds() == null || row.getParticipantIds().isEmpty()) {
+            throw new IllegalArgumentException("At least one participant is required");
+        }
+        for (Long userId : row.getParticipantIds()) {
+            if (userId == null || !memberIds.contains(userId)) {
+                throw new IllegalArgumentException("Participant is not a member of the group: " + userId);
+            }
+        }
+    }
+
+    private void recordError(ExpenseImportResult result, long line, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < maxReportedErrors) {
+            result.getErrors().add(ExpenseImportError.builder().line(line).message(message).build());
+        }
+    }
+
+    private Map<String, Integer> parseCsvHeader(String line) {
+        List<String> names = splitCsvLine(line);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim(), i);
+        }
+        if (!columns.keySet().containsAll(REQUIRED_CSV_COLUMNS)) {
+            throw new IllegalArgumentException("CSV header must contain " + REQUIRED_CSV_COLUMNS + ", got " + names);
+        }
+        return columns;
+    }
+
+    private ExpenseImportRow parseCsvRow(String line, Map<String, Integer> columns) {
+        List<String> fields = splitCsvLine(line);
+        List<Long> participantIds = new ArrayList<>();
+        for (String id : column(fields, columns, "participantIds").split(";")) {
+            if (!id.isBlank()) {
+                participantIds.add(Long.valueOf(id.trim()));
+            }
+        }
+
+        String createdAt = column(fields, columns, "createdAt");
+        return ExpenseImportRow.builder()
+                .title(column(fields, columns, "title"))
+                .amount(new BigDecimal(column(fields, columns, "amount").trim()))
+                .payerId(Long.valueOf(column(fields, columns, "payerId").trim()))
+                .participantIds(participantIds)
+                .createdAt(createdAt.isBlank() ? null : parseDateTime(createdAt.trim()))
+                .build();
+    }
+
+    private static String column(List<String> fields, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        return index == null || index >= fields.size() ? "" : fields.get(index);
+    }
+
+    private static LocalDateTime parseDateTime(String value) {
+        return value.length() == 10 ? LocalDate.parse(value).atStartOfDay() : LocalDateTime.parse(value);
+    }
+
+    // RFC 4180 style fields on a single line: commas separate, double quotes wrap, "" escapes a quote
+    static List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
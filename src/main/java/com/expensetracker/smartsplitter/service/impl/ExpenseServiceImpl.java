@@ -1,22 +1,46 @@
 package com.expensetracker.smartsplitter.service.impl;
 
+import com.expensetracker.smartsplitter.config.GroupLocks;
+import com.expensetracker.smartsplitter.dto.ExpensePage;
+import com.expensetracker.smartsplitter.dto.ExpenseQuery;
+import com.expensetracker.smartsplitter.dto.view.ExpenseParticipantRow;
+import com.expensetracker.smartsplitter.dto.view.ExpenseView;
 import com.expensetracker.smartsplitter.model.Expense;
 import com.expensetracker.smartsplitter.model.ExpenseParticipant;
 import com.expensetracker.smartsplitter.model.Group;
 import com.expensetracker.smartsplitter.model.User;
 import com.expensetracker.smartsplitter.repository.ExpenseRepository;
+import com.expensetracker.smartsplitter.repository.ExpenseSpecifications;
+import com.expensetracker.smartsplitter.repository.GroupMemberRepository;
 import com.expensetracker.smartsplitter.repository.GroupRepository;
 import com.expensetracker.smartsplitter.repository.UserRepository;
+import com.expensetracker.smartsplitter.service.BalanceLedgerService;
 import com.expensetracker.smartsplitter.service.ExpenseService;
+import com.expensetracker.smartsplitter.util.ExpenseCursor;
+import com.expensetracker.smartsplitter.util.ShareCalculator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class ExpenseServiceImpl implements ExpenseService {
 
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 100;
+
+    // Keyset order; the (createdAt, id) pair is unique so pages never overlap or skip rows
+    private static final Sort KEYSET_ORDER = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+
     @Autowired
     private ExpenseRepository expenseRepository;
     @Autowired
@@ -25,35 +49,55 @@ public class ExpenseServiceImpl implements ExpenseService {
     @Autowired
     private GroupRepository groupRepository;
 
+    @Autowired
+    private GroupMemberRepository groupMemberRepository;
+
+    @Autowired
+    private BalanceLedgerService balanceLedgerService;
+
+    @Autowired
+    private GroupLocks groupLocks;
+
     @Override
+    @Transactional
     public Expense addExpense(Long groupId, Long payerId, Expense expense, List<Long> participantIds) {
-        // Fetch group and payer
-        Group group = groupRepository.findById(groupId)
-                .orElseThrow(() -> new RuntimeException("Group not found"));
-        User payer = userRepository.findById(payerId)
-                .orElseThrow(() -> new RuntimeException("Payer not found"));
+        // Lock the group, then fetch payer and participants together in one membership query
+        Group group = groupLocks.lock(groupId);
+        if (participantIds == null || participantIds.isEmpty()) {
+            throw new IllegalArgumentException("At least one participant is required");
+        }
+
+        Set<Long> userIds = new HashSet<>(participantIds);
+        userIds.add(payerId);
+        Map<Long, User> members = new HashMap<>();
+        for (User user : groupMemberRepository.findMemberUsers(groupId, userIds)) {
+            members.put(user.getId(), user);
+        }
+        userIds.removeAll(members.keySet());
+        if (!userIds.isEmpty()) {
+            throw new RuntimeException("Users not found in group " + groupId + ": " + userIds);
+        }
 
+        User payer = members.get(payerId);
         expense.setGroup(group);
         expense.setPaidBy(payer);
 
-        BigDecimal totalAmount = expense.getAmount();
-        int participantCount = participantIds.size();
-        BigDecimal share = totalAmount.divide(BigDecimal.valueOf(participantCount), 2, BigDecimal.ROUND_HALF_UP);
-
-        List<ExpenseParticipant> participants = participantIds.stream()
-                .map(userId -> {
-                    User user = userRepository.findById(userId)
-                            .orElseThrow(() -> new RuntimeException("User not found: " + userId));
-                    return ExpenseParticipant.builder()
-                            .expense(expense)
-                            .user(user)
-                            .shareAmount(share)
-                            .build();
-                })
-                .toList();
+        List<BigDecimal> shares = ShareCalculator.equalShares(expense.getAmount(), payerId, participantIds);
+        List<ExpenseParticipant> participants = new ArrayList<>(participantIds.size());
+        for (int i = 0; i < participantIds.size(); i++) {
+            participants.add(ExpenseParticipant.builder()
+                    .expense(expense)
+                    .user(members.get(participantIds.get(i)))
+                    .shareAmount(shares.get(i))
+                    .build());
+        }
 
         expense.setParticipants(participants);
-        return expenseRepository.save(expense);
+        Expense savedExpense = expenseRepository.save(expense);
+
+        // Marks the settlement plan stale; it is recomputed in the background once this commits
+        balanceLedgerService.recordExpense(savedExpense);
+        return savedExpense;
     }
     @Override
     public List<Expense> getExpensesForGroup(Long groupId) {
@@ -67,10 +111,70 @@ public class ExpenseServiceImpl implements ExpenseService {
     }
 
     @Override
+    public List<ExpenseView> getExpenseViewsByUser(Long userId) {
+        return ExpenseParticipantRow.toExpenseViews(expenseRepository.findParticipantRowsByUserInvolvement(userId));
+    }
+
+    @Override
+    public ExpensePage getExpensePageForGroup(Long groupId, ExpenseQuery query) {
+        return findPage(ExpenseSpecifications.inGroup(groupId), query);
+    }
+
+    @Override
+    public ExpensePage getExpensePageForUser(Long userId, ExpenseQuery query) {
+        return findPage(ExpenseSpecifications.involvingUser(userId), query);
+    }
+
+    // Seeks past the cursor instead of using OFFSET, so a deep page costs the same as the first
+    private ExpensePage findPage(Specification<Expense> scope, ExpenseQuery query) {
+        int limit = query.getLimit() == null ? DEFAULT_PAGE_SIZE : query.getLimit();
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        Specification<Expense> spec = scope;
+        if (query.getPayerId() != null) {
+            spec = spec.and(ExpenseSpecifications.paidBy(query.getPayerId()));
+        }
+        if (query.getFrom() != null) {
+            spec = spec.and(ExpenseSpecifications.createdFrom(query.getFrom().atStartOfDay()));
+        }
+        if (query.getTo() != null) {
+            spec = spec.and(ExpenseSpecifications.createdBefore(query.getTo().plusDays(1).atStartOfDay()));
+        }
+        if (query.getCursor() != null && !query.getCursor().isBlank()) {
+            spec = spec.and(ExpenseSpecifications.after(ExpenseCursor.decode(query.getCursor())));
+        }
+
+        // One extra row tells whether another page exists without a count query
+        List<Expense> window = expenseRepository.findBy(spec, q -> q.sortBy(KEYSET_ORDER).limit(limit + 1).all());
+        boolean hasMore = window.size() > limit;
+        List<Expense> page = hasMore ? window.subList(0, limit) : window;
+
+        String nextCursor = null;
+        if (hasMore) {
+            Expense last = page.get(page.size() - 1);
+            nextCursor = new ExpenseCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        List<ExpenseView> expenses = page.isEmpty()
+                ? List.of()
+                : ExpenseParticipantRow.toExpenseViews(
+                        expenseRepository.findParticipantRowsByExpenseIds(page.stream().map(Expense::getId).toList()));
+        return ExpensePage.builder().expenses(expenses).nextCursor(nextCursor).build();
+    }
+
+    @Override
+    @Transactional
     public void deleteExpense(Long expenseId) {
+        // The group is locked before the expense is read, so two deletes cannot both reverse it
+        Long groupId = expenseRepository.findGroupIdById(expenseId)
+                .orElseThrow(() -> new RuntimeException("Expense not found with id: " + expenseId));
+        groupLocks.lock(groupId);
         Expense expense = expenseRepository.findById(expenseId)
                 .orElseThrow(() -> new RuntimeException("Expense not found with id: " + expenseId));
 
+        balanceLedgerService.reverseExpense(expense);
+
         // Delete the expense (this will cascade delete participants due to @OneToMany cascade)
         expenseRepository.delete(expense);
     }
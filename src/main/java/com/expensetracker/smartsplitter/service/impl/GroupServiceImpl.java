@@ -1,20 +1,26 @@
 package com.expensetracker.smartsplitter.service.impl;
 
+import com.expensetracker.smartsplitter.config.GroupLocks;
 import com.expensetracker.smartsplitter.dto.GroupDTO;
 import com.expensetracker.smartsplitter.dto.GroupMemberDTO;
 import com.expensetracker.smartsplitter.dto.UserDto;
+import com.expensetracker.smartsplitter.dto.view.GroupMemberRow;
+import com.expensetracker.smartsplitter.dto.view.GroupView;
 import com.expensetracker.smartsplitter.model.Group;
 import com.expensetracker.smartsplitter.model.GroupMember;
+import com.expensetracker.smartsplitter.model.LedgerEventType;
 import com.expensetracker.smartsplitter.model.User;
 import com.expensetracker.smartsplitter.repository.GroupMemberRepository;
 import com.expensetracker.smartsplitter.repository.GroupRepository;
 import com.expensetracker.smartsplitter.repository.UserRepository;
 import com.expensetracker.smartsplitter.service.GroupService;
+import com.expensetracker.smartsplitter.service.LedgerEventService;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,6 +32,10 @@ public class GroupServiceImpl implements GroupService {
     private UserRepository userRepository;
     @Autowired
     private GroupMemberRepository groupMemberRepository;
+    @Autowired
+    private LedgerEventService ledgerEventService;
+    @Autowired
+    private GroupLocks groupLocks;
 
     @Override
     @Transactional
@@ -44,28 +54,34 @@ public class GroupServiceImpl implements GroupService {
                 .build();
 
         groupMemberRepository.save(creatorMember);
+        ledgerEventService.append(savedGroup.getId(), LedgerEventType.MEMBER_JOINED, creator.getId(), Map.of());
 
         return savedGroup;
     }
 
     @Override
+    @Transactional
     public void addUserToGroup(Long groupId, Long userId, String currentUserEmail) {
         // Find the current user making the request
         User currentUser = userRepository.findByEmail(currentUserEmail)
                 .orElseThrow(() -> new RuntimeException("Current user not found"));
+        addUserToGroup(groupId, userId, currentUser.getId());
+    }
 
+    @Override
+    @Transactional
+    public void addUserToGroup(Long groupId, Long userId, Long currentUserId) {
         // Find the user to be added
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        // Find the group
-        Group group = groupRepository.findById(groupId)
-                .orElseThrow(() -> new RuntimeException("Group not found"));
+        // Find the group, locked because the join is appended to its event log
+        Group group = groupLocks.lock(groupId);
 
         // Check if the current user has permission to add members to this group
         // Only group creator or existing members can add new members
-        boolean isCreator = group.getCreatedBy().getId().equals(currentUser.getId());
-        boolean isExistingMember = groupMemberRepository.existsByUserIdAndGroupId(currentUser.getId(), groupId);
+        boolean isCreator = group.getCreatedBy().getId().equals(currentUserId);
+        boolean isExistingMember = groupMemberRepository.existsByUserIdAndGroupId(currentUserId, groupId);
 
         if (!isCreator && !isExistingMember) {
             throw new SecurityException("You don't have permission to add members to this group");
@@ -83,45 +99,33 @@ public class GroupServiceImpl implements GroupService {
                 .group(group)
                 .build();
         groupMemberRepository.save(member);
+        ledgerEventService.append(groupId, LedgerEventType.MEMBER_JOINED, userId, Map.of());
     }
 
     @Override
     public List<Group> getGroupsByUser(Long userId) {
-        List<GroupMember> memberships = groupMemberRepository.findByUserId(userId);
-        return memberships.stream()
-                .map(membership -> {
-                    Group group = membership.getGroup();
-                    // Eagerly fetch members and their user data
-                    if (group.getMembers() != null) {
-                        group.getMembers().forEach(member -> {
-                            // Force loading of user data
-                            if (member.getUser() != null) {
-                                member.getUser().getEmail(); // This triggers lazy loading
-                            }
-                        });
-                    }
-                    return group;
-                })
-                .toList();
+        // Groups, creators, members and member users in one query via the entity graph
+        return groupRepository.findWithMembersByMemberUserId(userId);
     }
 
-
     @Override
     public Group getGroupById(Long groupId) {
-        Group group = groupRepository.findById(groupId)
+        return groupRepository.findWithMembersById(groupId)
                 .orElseThrow(() -> new RuntimeException("Group not found"));
+    }
 
-        // Eagerly fetch members and their user data to avoid lazy loading issues
-        if (group.getMembers() != null) {
-            group.getMembers().forEach(member -> {
-                // Force loading of user data
-                if (member.getUser() != null) {
-                    member.getUser().getEmail(); // This triggers lazy loading
-                }
-            });
-        }
+    @Override
+    public List<GroupView> getGroupViewsByUser(Long userId) {
+        return GroupMemberRow.toGroupViews(groupRepository.findGroupMemberRowsByUserId(userId));
+    }
 
-        return group;
+    @Override
+    public GroupView getGroupViewById(Long groupId) {
+        List<GroupView> groups = GroupMemberRow.toGroupViews(groupRepository.findGroupMemberRowsByGroupId(groupId));
+        if (groups.isEmpty()) {
+            throw new RuntimeException("Group not found");
+        }
+        return groups.get(0);
     }
 
 }
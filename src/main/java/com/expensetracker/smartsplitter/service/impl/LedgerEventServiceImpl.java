@@ -0,0 +1,204 @@
+package com.expensetracker.smartsplitter.service.impl;
+
+import com.expensetracker.smartsplitter.config.GroupLocks;
+import com.expensetracker.smartsplitter.event.LedgerEventAppended;
+import com.expensetracker.smartsplitter.model.BalanceSnapshot;
+import com.expensetracker.smartsplitter.model.Group;
+import com.expensetracker.smartsplitter.model.LedgerEvent;
+import com.expensetracker.smartsplitter.model.LedgerEventType;
+import com.expensetracker.smartsplitter.repository.BalanceSnapshotRepository;
+import com.expensetracker.smartsplitter.repository.GroupBalanceRepository;
+import com.expensetracker.smartsplitter.repository.GroupRepository;
+import com.expensetracker.smartsplitter.repository.LedgerEventRepository;
+import com.expensetracker.smartsplitter.service.LedgerEventService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Append-only log of everything that moves a group's balances, plus snapshots of those balances.
+ * Every {@code app.ledger.snapshot.every-events} events the current state is written as a new
+ * snapshot and, with {@code app.ledger.snapshot.compact}, the events it covers are dropped, so a
+ * replay is always one snapshot read and one aggregate over a short tail.
+ *
+ * Sequences come from a counter on the group row, so every write here takes the group lock first.
+ * Callers usually hold it already; for those the lock is a no-op, and direct callers such as the
+ * snapshot job still cannot hand out the same sequence twice.
+ */
+@Service
+public class LedgerEventServiceImpl implements LedgerEventService {
+
+    private LedgerEventRepository ledgerEventRepository;
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+    private GroupRepository groupRepository;
+    private GroupBalanceRepository groupBalanceRepository;
+    private GroupLocks groupLocks;
+    private ApplicationEventPublisher eventPublisher;
+    private int snapshotEvery;
+    private boolean compact;
+
+    @Autowired
+    public LedgerEventServiceImpl(LedgerEventRepository ledgerEventRepository,
+                                  BalanceSnapshotRepository balanceSnapshotRepository,
+                                  GroupRepository groupRepository, GroupBalanceRepository groupBalanceRepository,
+                                  GroupLocks groupLocks, ApplicationEventPublisher eventPublisher,
+                                  @Value("${app.ledger.snapshot.every-events:100}") int snapshotEvery,
+                                  @Value("${app.ledger.snapshot.compact:true}") boolean compact) {
+        this.ledgerEventRepository = ledgerEventRepository;
+        this.balanceSnapshotRepository = balanceSnapshotRepository;
+        this.groupRepository = groupRepository;
+        this.groupBalanceRepository = groupBalanceRepository;
+        this.groupLocks = groupLocks;
+        this.eventPublisher = eventPublisher;
+        this.snapshotEvery = snapshotEvery;
+        this.compact = compact;
+    }
+
+    @Override
+    @Transactional
+    public void append(Long groupId, LedgerEventType type, Long subjectId, Map<Long, BigDecimal> deltas) {
+        Group group = groupLocks.lock(groupId);
+        appendTo(group, type, subjectId, deltas);
+        snapshotIfDue(group);
+    }
+
+    @Override
+    @Transactional
+    public void appendAll(Long groupId, LedgerEventType type, Map<Long, Map<Long, BigDecimal>> deltasBySubject) {
+        Group group = groupLocks.lock(groupId);
+        deltasBySubject.forEach((subjectId, deltas) -> appendTo(group, type, subjectId, deltas));
+        snapshotIfDue(group);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean hasLog(Long groupId) {
+        return isStarted(findGroup(groupId));
+    }
+
+    @Override
+    @Transactional
+    public void startLog(Long groupId, Map<Long, BigDecimal> baseline) {
+        Group group = groupLocks.lock(groupId);
+        if (!isStarted(group)) {
+            saveSnapshot(group, 0L, baseline);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, BigDecimal> replay(Long groupId) {
+        return replay(findGroup(groupId));
+    }
+
+    @Override
+    @Transactional
+    public void snapshot(Long groupId) {
+        Group group = groupLocks.lock(groupId);
+        if (isStarted(group)) {
+            takeSnapshot(group);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> findGroupIds() {
+        // Every started log keeps at least its latest snapshot
+        return balanceSnapshotRepository.findGroupIds();
+    }
+
+    private void appendTo(Group group, LedgerEventType type, Long subjectId, Map<Long, BigDecimal> deltas) {
+        if (!isStarted(group)) {
+            // Groups that predate the log start from their current ledger balances
+            Map<Long, BigDecimal> baseline = new HashMap<>();
+            for (Object[] row : groupBalanceRepository.findNonZeroBalances(group.getId())) {
+                baseline.put((Long) row[0], (BigDecimal) row[1]);
+            }
+            saveSnapshot(group, 0L, baseline);
+        }
+
+        Map<Long, BigDecimal> nonZero = new HashMap<>();
+        deltas.forEach((userId, delta) -> {
+            if (delta.signum() != 0) {
+                nonZero.put(userId, delta);
+            }
+        });
+
+        long sequence = group.getEventSequence() + 1;
+        group.setEventSequence(sequence);
+        ledgerEventRepository.save(LedgerEvent.builder()
+                .group(group)
+                .sequence(sequence)
+                .type(type)
+                .subjectId(subjectId)
+                .deltas(nonZero)
+                .build());
+        eventPublisher.publishEvent(new LedgerEventAppended(group.getId(), sequence, type, subjectId, nonZero));
+    }
+
+    private void snapshotIfDue(Group group) {
+        if (snapshotEvery > 0 && group.getEventSequence() - group.getSnapshotSequence() >= snapshotEvery) {
+            takeSnapshot(group);
+        }
+    }
+
+    private void takeSnapshot(Group group) {
+        long sequence = group.getEventSequence();
+        if (sequence == group.getSnapshotSequence()) {
+            return;
+        }
+        saveSnapshot(group, sequence, replay(group));
+        if (compact) {
+            ledgerEventRepository.deleteUpTo(group.getId(), sequence);
+            balanceSnapshotRepository.deleteOlderThan(group.getId(), sequence);
+        }
+    }
+
+    // Sorted by user id and with zero balances removed, so the same log always gives the same map
+    private Map<Long, BigDecimal> replay(Group group) {
+        Map<Long, BigDecimal> balances = new TreeMap<>();
+        if (!isStarted(group)) {
+            return balances;
+        }
+        for (Object[] row : balanceSnapshotRepository.findBalances(group.getId(), group.getSnapshotSequence())) {
+            balances.put((Long) row[0], (BigDecimal) row[1]);
+        }
+        for (Object[] row : ledgerEventRepository.sumDeltasAfter(group.getId(), group.getSnapshotSequence())) {
+            balances.merge((Long) row[0], (BigDecimal) row[1], BigDecimal::add);
+        }
+        balances.values().removeIf(balance -> balance.signum() == 0);
+        return balances;
+    }
+
+    private void saveSnapshot(Group group, long sequence, Map<Long, BigDecimal> balances) {
+        Map<Long, BigDecimal> nonZero = new HashMap<>();
+        balances.forEach((userId, balance) -> {
+            if (balance.signum() != 0) {
+                nonZero.put(userId, balance);
+            }
+        });
+        balanceSnapshotRepository.save(BalanceSnapshot.builder()
+                .group(group)
+                .sequence(sequence)
+                .balances(nonZero)
+                .build());
+        group.setSnapshotSequence(sequence);
+    }
+
+    private boolean isStarted(Group group) {
+        return group.getSnapshotSequence() != null && group.getSnapshotSequence() >= 0;
+    }
+
+    private Group findGroup(Long groupId) {
+        return groupRepository.findById(groupId)
+                .orElseThrow(() -> new RuntimeException("Group not found"));
+    }
+}
@@ -0,0 +1,192 @@
+package com.expensetracker.smartsplitter.service.impl;
+
+import com.expensetracker.smartsplitter.dto.view.GroupRefView;
+import com.expensetracker.smartsplitter.dto.view.NettedSettlementView;
+import com.expensetracker.smartsplitter.dto.view.SettlementSourceView;
+import com.expensetracker.smartsplitter.dto.view.UserView;
+import com.expensetracker.smartsplitter.model.Group;
+import com.expensetracker.smartsplitter.model.User;
+import com.expensetracker.smartsplitter.repository.GroupBalanceRepository;
+import com.expensetracker.smartsplitter.repository.GroupRepository;
+import com.expensetracker.smartsplitter.repository.UserRepository;
+import com.expensetracker.smartsplitter.service.SettlementNettingService;
+import com.expensetracker.smartsplitter.settlement.BalanceSheet;
+import com.expensetracker.smartsplitter.settlement.CrossGroupNetting;
+import com.expensetracker.smartsplitter.settlement.GroupBalanceTable;
+import com.expensetracker.smartsplitter.settlement.NettedTransfer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serves the cross-group plan. Only the requesting user's component is solved: the users linked to
+ * them through balances in shared groups, found by following those balances outwards. The result
+ * is kept for every member of the component and solved again only after a balance in one of their
+ * groups has changed, which shows as a change in the sum of those groups' ledger versions, so
+ * expenses elsewhere never touch it. Re-solving a component drops the entries of users who are no
+ * longer in it, so the cache holds no more than the users of the components last solved. It is a
+ * proposal on top of the per-group plans: nothing is stored and payments are still recorded per group.
+ */
+@Service
+public class SettlementNettingServiceImpl implements SettlementNettingService {
+
+    private GroupBalanceRepository groupBalanceRepository;
+    private GroupRepository groupRepository;
+    private UserRepository userRepository;
+    private CrossGroupNetting crossGroupNetting;
+
+    private static final int LOCK_STRIPES = 64;
+
+    // Latest plan of each user's component, shared by all of its members
+    private final Map<Long, ComponentPlan> plans = new ConcurrentHashMap<>();
+    // ReentrantLock rather than synchronized so a virtual thread doing JDBC under it is not pinned
+    private final ReentrantLock[] refreshLocks = new ReentrantLock[LOCK_STRIPES];
+
+    @Autowired
+    public SettlementNettingServiceImpl(GroupBalanceRepository groupBalanceRepository, GroupRepository groupRepository,
+                                        UserRepository userRepository, CrossGroupNetting crossGroupNetting) {
+        this.groupBalanceRepository = groupBalanceRepository;
+        this.groupRepository = groupRepository;
+        this.userRepository = userRepository;
+        this.crossGroupNetting = crossGroupNetting;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            refreshLocks[i] = new ReentrantLock();
+        }
+    }
+
+    // anchor is the lowest user id, so readers of one component meet on the same lock stripe
+    private record ComponentPlan(Set<Long> userIds, long anchor, long ledgerVersions,
+                                 Map<Long, List<NettedTransfer>> transfersByUser) {
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<NettedSettlementView> getNettedSettlementsForUser(Long userId) {
+        List<NettedTransfer> transfers = currentPlan(userId).transfersByUser().getOrDefault(userId, List.of());
+        if (transfers.isEmpty()) {
+            return List.of();
+        }
+
+        // Names for the views; users come from the second-level cache when warm
+        Set<Long> userIds = new HashSet<>();
+        Set<Long> groupIds = new HashSet<>();
+        for (NettedTransfer transfer : transfers) {
+            userIds.add(transfer.fromUserId());
+            userIds.add(transfer.toUserId());
+            groupIds.addAll(transfer.amountByGroup().keySet());
+            groupIds.addAll(transfer.creditByGroup().keySet());
+        }
+        Map<Long, UserView> users = new HashMap<>();
+        for (User user : userRepository.findAllById(userIds)) {
+            users.put(user.getId(), new UserView(user.getId(), user.getUsername(), user.getEmail(), user.getMobile()));
+        }
+        Map<Long, GroupRefView> groups = new HashMap<>();
+        for (Group group : groupRepository.findAllById(groupIds)) {
+            groups.put(group.getId(), new GroupRefView(group.getId(), group.getGroupName()));
+        }
+
+        List<NettedSettlementView> views = new ArrayList<>(transfers.size());
+        for (NettedTransfer transfer : transfers) {
+            views.add(new NettedSettlementView(users.get(transfer.fromUserId()), users.get(transfer.toUserId()),
+                    BalanceSheet.fromCents(transfer.amount()), sources(transfer.amountByGroup(), groups),
+                    sources(transfer.creditByGroup(), groups)));
+        }
+        return views;
+    }
+
+    private static List<SettlementSourceView> sources(Map<Long, Long> centsByGroup, Map<Long, GroupRefView> groups) {
+        List<SettlementSourceView> sources = new ArrayList<>(centsByGroup.size());
+        centsByGroup.forEach((groupId, cents) ->
+                sources.add(new SettlementSourceView(groups.get(groupId), BalanceSheet.fromCents(cents))));
+        return sources;
+    }
+
+    private ComponentPlan currentPlan(Long userId) {
+        ComponentPlan cached = plans.get(userId);
+        if (isCurrent(cached)) {
+            return cached;
+        }
+
+        // One reader of a stale component solves it while the others wait for its result
+        ReentrantLock lock = refreshLocks[Math.floorMod(Long.hashCode(cached != null ? cached.anchor() : userId),
+                LOCK_STRIPES)];
+        lock.lock();
+        try {
+            ComponentPlan latest = plans.get(userId);
+            if (latest != cached && isCurrent(latest)) {
+                return latest;
+            }
+            ComponentPlan solved = solveComponentOf(userId);
+            Set<ComponentPlan> replaced = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (Long id : solved.userIds()) {
+                ComponentPlan previous = plans.put(id, solved);
+                if (previous != null && previous != solved) {
+                    replaced.add(previous);
+                }
+            }
+            // Users who dropped out (settled up, or the component split) lose the stale plan instead of keeping it
+            for (ComponentPlan previous : replaced) {
+                for (Long id : previous.userIds()) {
+                    if (!solved.userIds().contains(id)) {
+                        plans.remove(id, previous);
+                    }
+                }
+            }
+            return solved;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isCurrent(ComponentPlan plan) {
+        return plan != null && groupRepository.sumLedgerVersionsOfMembers(plan.userIds()) <= plan.ledgerVersions();
+    }
+
+    private ComponentPlan solveComponentOf(Long userId) {
+        Set<Long> userIds = new HashSet<>();
+        Set<Long> frontier = Set.of(userId);
+        while (true) {
+            // Follow balances outwards from the users found last, until nobody new turns up
+            while (!frontier.isEmpty()) {
+                userIds.addAll(frontier);
+                Set<Long> next = new HashSet<>();
+                for (Object[] row : groupBalanceRepository.findNonZeroBalancesOfGroupsWith(frontier)) {
+                    if (!userIds.contains((Long) row[1])) {
+                        next.add((Long) row[1]);
+                    }
+                }
+                frontier = next;
+            }
+
+            // Versions are read before the balances, so a change in between only causes one extra solve
+            long ledgerVersions = groupRepository.sumLedgerVersionsOfMembers(userIds);
+            List<Object[]> rows = groupBalanceRepository.findNonZeroBalancesOfGroupsWith(userIds);
+            GroupBalanceTable table = new GroupBalanceTable();
+            Set<Long> joined = new HashSet<>();
+            for (Object[] row : rows) {
+                table.add((Long) row[0], (Long) row[1], (BigDecimal) row[2]);
+                if (!userIds.contains((Long) row[1])) {
+                    joined.add((Long) row[1]);
+                }
+            }
+            if (!joined.isEmpty()) {
+                // A balance written since the walk linked more users in; follow them too
+                frontier = joined;
+                continue;
+            }
+
+            Map<Long, List<NettedTransfer>> transfersByUser = new HashMap<>();
+            for (NettedTransfer transfer : crossGroupNetting.solve(table)) {
+                transfersByUser.computeIfAbsent(transfer.fromUserId(), id -> new ArrayList<>()).add(transfer);
+                transfersByUser.computeIfAbsent(transfer.toUserId(), id -> new ArrayList<>()).add(transfer);
+            }
+            Set<Long> members = Set.copyOf(userIds);
+            return new ComponentPlan(members, Collections.min(members), ledgerVersions, transfersByUser);
+        }
+    }
+}
@@ -1,15 +1,29 @@
 package com.expensetracker.smartsplitter.service.impl;
 
+import com.expensetracker.smartsplitter.config.GroupLocks;
+import com.expensetracker.smartsplitter.dto.view.SettlementView;
+import com.expensetracker.smartsplitter.event.SettlementPlanStale;
+import com.expensetracker.smartsplitter.event.SettlementPlanUpdated;
 import com.expensetracker.smartsplitter.model.*;
 import com.expensetracker.smartsplitter.repository.ExpenseRepository;
 import com.expensetracker.smartsplitter.repository.GroupRepository;
 import com.expensetracker.smartsplitter.repository.SettlementRepository;
 import com.expensetracker.smartsplitter.repository.UserRepository;
 import com.expensetracker.smartsplitter.repository.GroupMemberRepository;
+import com.expensetracker.smartsplitter.service.BalanceLedgerService;
 import com.expensetracker.smartsplitter.service.SettlementService;
+import com.expensetracker.smartsplitter.settlement.BalanceSheet;
+import com.expensetracker.smartsplitter.settlement.SettlementPlan;
+import com.expensetracker.smartsplitter.settlement.SettlementSolver;
+import com.expensetracker.smartsplitter.settlement.SettlementSolverSelector;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.*;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -23,142 +37,187 @@ public class SettlementServiceImpl implements SettlementService {
     private UserRepository userRepository;
     private GroupMemberRepository groupMemberRepository;
     private ExpenseRepository expenseRepository;
+    private BalanceLedgerService balanceLedgerService;
+    private SettlementSolverSelector settlementSolverSelector;
+    private ApplicationEventPublisher eventPublisher;
+    private MeterRegistry meterRegistry;
+    private GroupLocks groupLocks;
 
     @Autowired
     public  SettlementServiceImpl(SettlementRepository settlementRepository, UserRepository userRepository,
                                  GroupRepository groupRepository, GroupMemberRepository groupMemberRepository,
-                                 ExpenseRepository expenseRepository) {
+                                 ExpenseRepository expenseRepository, BalanceLedgerService balanceLedgerService,
+                                 SettlementSolverSelector settlementSolverSelector,
+                                 ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry,
+                                 GroupLocks groupLocks) {
         this.settlementRepository = settlementRepository;
         this.groupRepository = groupRepository;
         this.userRepository = userRepository;
         this.groupMemberRepository = groupMemberRepository;
         this.expenseRepository = expenseRepository;
+        this.balanceLedgerService = balanceLedgerService;
+        this.settlementSolverSelector = settlementSolverSelector;
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
+        this.groupLocks = groupLocks;
     }
 
     @Override
+    @Transactional
     public List<Settlement> calculateSettlements(Long groupId) {
-        Group group = groupRepository.findById(groupId)
-                .orElseThrow(() -> new RuntimeException("Group not found"));
-
-        // Track net balances of each user in this group
-        Map<Long, BigDecimal> netBalances = new HashMap<>();
-
-        // Get all expenses in this group
-        List<Expense> expenses = group.getExpenses();
-
-        for (Expense expense : expenses) {
-            BigDecimal totalAmount = expense.getAmount();
-            Long payerId = expense.getPaidBy().getId();
-            List<ExpenseParticipant> participants = expense.getParticipants();
-
-            // Divide expense among participants
-            for (ExpenseParticipant participant : participants) {
-                Long participantId = participant.getUser().getId();
-                BigDecimal share = participant.getShareAmount();
-
-                // Participant owes money → negative balance
-                netBalances.put(participantId,
-                        netBalances.getOrDefault(participantId, BigDecimal.ZERO).subtract(share));
+        Timer.Sample sample = Timer.start(meterRegistry);
+        // Held until commit, so concurrent recalculations cannot interleave their diffs
+        Group group = groupLocks.lock(groupId);
+
+        // Net balances in cents of each user in this group, maintained incrementally by the ledger
+        BalanceSheet balances = balanceLedgerService.getBalanceSheet(groupId);
+        SettlementSolver solver = settlementSolverSelector.select(balances);
+        SettlementPlan plan = solver.solve(balances);
+
+        // Paid rows are history and stay; their transfers are already in the ledger balances solved above.
+        // Unpaid rows are reused per debtor/creditor pair so only changed transfers are written.
+        Map<Transfer, Deque<Settlement>> unpaid = new HashMap<>();
+        for (Settlement existing : settlementRepository.findByGroupId(groupId)) {
+            if (!existing.isPaid()) {
+                unpaid.computeIfAbsent(Transfer.of(existing), key -> new ArrayDeque<>()).add(existing);
             }
-            // Payer is owed the entire amount → positive balance
-            netBalances.put(payerId,
-                    netBalances.getOrDefault(payerId, BigDecimal.ZERO).add(totalAmount));
         }
 
-        // Build settlements from net balances
-        List<Settlement> settlements = new ArrayList<>();
-
-        // Convert Map to sortable lists
-        List<Map.Entry<Long, BigDecimal>> positive = new ArrayList<>(netBalances.entrySet().stream()
-                .filter(e -> e.getValue().compareTo(BigDecimal.ZERO) > 0)
-                .sorted((a, b) -> b.getValue().compareTo(a.getValue()))
-                .toList());
-
-        List<Map.Entry<Long, BigDecimal>> negative = new ArrayList<>(netBalances.entrySet().stream()
-                .filter(e -> e.getValue().compareTo(BigDecimal.ZERO) < 0)
-                .sorted(Map.Entry.comparingByValue())
-                .toList());
-
-        int i = 0, j = 0;
-        while (i < negative.size() && j < positive.size()) {
-            var debtor = negative.get(i);
-            var creditor = positive.get(j);
-
-            BigDecimal debit = debtor.getValue().abs();
-            BigDecimal credit = creditor.getValue();
-
-            BigDecimal settleAmount = debit.min(credit);
-
-            Settlement settlement = Settlement.builder()
-                    .fromUser(userRepository.findById(debtor.getKey()).get())
-                    .toUser(userRepository.findById(creditor.getKey()).get())
-                    .amount(settleAmount)
-                    .group(group)
-                    .build();
-
+        // Convert back to entities and BigDecimal amounts only at the edge
+        List<Settlement> settlements = new ArrayList<>(plan.size());
+        List<Settlement> inserts = new ArrayList<>();
+        for (int k = 0; k < plan.size(); k++) {
+            BigDecimal amount = BalanceSheet.fromCents(plan.amount(k));
+            Deque<Settlement> candidates = unpaid.get(new Transfer(plan.fromUserId(k), plan.toUserId(k)));
+            Settlement settlement = candidates == null ? null : candidates.poll();
+            if (settlement == null) {
+                settlement = Settlement.builder()
+                        .fromUser(userRepository.getReferenceById(plan.fromUserId(k)))
+                        .toUser(userRepository.getReferenceById(plan.toUserId(k)))
+                        .amount(amount)
+                        .group(group)
+                        .build();
+                inserts.add(settlement);
+            } else if (settlement.getAmount().compareTo(amount) != 0) {
+                // Managed entity, the flush writes the update in the same batch as the rest
+                settlement.setAmount(amount);
+            }
+            settlement.setPlanVersion(group.getLedgerVersion());
             settlements.add(settlement);
-
-            // Update balances
-            BigDecimal updatedDebtor = debit.subtract(settleAmount);
-            BigDecimal updatedCreditor = credit.subtract(settleAmount);
-
-            if (updatedDebtor.compareTo(BigDecimal.ZERO) == 0) i++;
-            else negative.set(i, Map.entry(debtor.getKey(), updatedDebtor.negate()));
-
-            if (updatedCreditor.compareTo(BigDecimal.ZERO) == 0) j++;
-            else positive.set(j, Map.entry(creditor.getKey(), updatedCreditor));
         }
 
-        // Clear existing settlements for this group to avoid duplicates
-        List<Settlement> existingSettlements = settlementRepository.findByGroupId(groupId);
-        settlementRepository.deleteAll(existingSettlements);
+        // Whatever was not reused is no longer part of the plan, removed with a single statement
+        List<Settlement> stale = new ArrayList<>();
+        unpaid.values().forEach(stale::addAll);
+        if (!stale.isEmpty()) {
+            settlementRepository.deleteAllInBatch(stale);
+        }
+        if (!inserts.isEmpty()) {
+            settlementRepository.saveAll(inserts);
+        }
+        group.setSettlementVersion(group.getLedgerVersion());
+        group.setSettlementStaleSince(null);
+        eventPublisher.publishEvent(new SettlementPlanUpdated(groupId));
+
+        sample.stop(Timer.builder("settlement.calculation")
+                .description("Settlement plan recalculation, including persisting the plan")
+                .tag("group.size", groupSizeBucket(balances.size()))
+                .tag("solver", solver.name())
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+        return settlements;
+    }
 
-        // Save new settlements to database
-        if (!settlements.isEmpty()) {
-            settlements = settlementRepository.saveAll(settlements);
+    private record Transfer(Long fromUserId, Long toUserId) {
+        static Transfer of(Settlement settlement) {
+            return new Transfer(settlement.getFromUser().getId(), settlement.getToUser().getId());
         }
+    }
 
-        return settlements;
+    // Bucketed so the tag stays low-cardinality however many groups there are
+    static String groupSizeBucket(int members) {
+        if (members <= 4) {
+            return "1-4";
+        } else if (members <= 12) {
+            return "5-12";
+        } else if (members <= 50) {
+            return "13-50";
+        } else if (members <= 200) {
+            return "51-200";
+        } else if (members <= 1000) {
+            return "201-1000";
+        }
+        return "1000+";
     }
 
+    @Override
+    @Transactional
+    public boolean recalculateIfStale(Long groupId) {
+        // Checked under the lock, so a run queued behind another one for the same group does nothing
+        Group group = groupLocks.lock(groupId);
+        if (group.isSettlementPlanCurrent()) {
+            return false;
+        }
+        calculateSettlements(groupId);
+        return true;
+    }
 
     @Override
-    public List<Settlement> getSettlementsForUser(Long userId) {
-        // Get all groups where the user is a member
-        List<GroupMember> userGroups = groupMemberRepository.findByUserId(userId);
-        List<Settlement> allSettlements = new ArrayList<>();
+    @Transactional(readOnly = true)
+    public List<Settlement> getSettlementsForGroup(Long groupId) {
+        long lag = groupRepository.findSettlementLag(groupId)
+                .orElseThrow(() -> new RuntimeException("Group not found"));
 
-        // Calculate settlements for each group the user is in
-        for (GroupMember groupMember : userGroups) {
-            Long groupId = groupMember.getGroup().getId();
+        // Readers get the last committed plan; a stale one is queued again in case its recomputation was lost
+        if (lag != 0) {
+            eventPublisher.publishEvent(new SettlementPlanStale(groupId));
+        }
+        return settlementRepository.findPlanForGroup(groupId);
+    }
 
-            // Get all expenses for this group
-            List<Expense> groupExpenses = expenseRepository.findByGroupId(groupId);
+    @Override
+    @Transactional(readOnly = true)
+    public LocalDateTime getPlanStaleSince(Long groupId) {
+        return groupRepository.findSettlementStaleSince(groupId).orElse(null);
+    }
 
-            if (!groupExpenses.isEmpty()) {
-                // Calculate settlements for this group
-                calculateSettlements(groupId);
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> findGroupIdsWithStaleSettlements() {
+        return groupRepository.findGroupIdsWithStaleSettlements();
+    }
 
-                // Get settlements for this user in this group
-                List<Settlement> groupSettlements = settlementRepository.findByFromUserIdOrToUserId(userId, userId)
-                    .stream()
-                    .filter(settlement -> settlement.getGroup().getId().equals(groupId))
-                    .collect(Collectors.toList());
 
-                allSettlements.addAll(groupSettlements);
-            }
-        }
+    @Override
+    @Transactional(readOnly = true)
+    public List<Settlement> getSettlementsForUser(Long userId) {
+        // Pure read of the stored plans; they are recomputed when a group's expenses change
+        return settlementRepository.findPlanForUser(userId);
+    }
 
-        return allSettlements;
+    @Override
+    public List<SettlementView> getSettlementViewsForUser(Long userId) {
+        return settlementRepository.findViewsForUser(userId);
     }
 
     @Override
+    @Transactional
     public void markSettlementAsPaid(Long settlementId) {
+        // Locked before the paid flag is read, so a settlement is never paid twice
+        Long groupId = settlementRepository.findGroupIdById(settlementId)
+                .orElseThrow(() -> new RuntimeException("Settlement not found"));
+        groupLocks.lock(groupId);
         Settlement settlement = settlementRepository.findById(settlementId)
                 .orElseThrow(() -> new RuntimeException("Settlement not found"));
+        if (settlement.isPaid()) {
+            return;
+        }
 
         settlement.setPaid(true);
         settlementRepository.save(settlement);
+        // The transfer settles part of the debt, so it is logged and moves the balances
+        balanceLedgerService.recordPayment(settlement);
+        eventPublisher.publishEvent(new SettlementPlanUpdated(groupId));
     }
 
 }
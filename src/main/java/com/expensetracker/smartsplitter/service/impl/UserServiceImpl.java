@@ -1,5 +1,6 @@
 package com.expensetracker.smartsplitter.service.impl;
 
+import com.expensetracker.smartsplitter.config.PasswordHasher;
 import com.expensetracker.smartsplitter.dto.RegisterRequest;
 import com.expensetracker.smartsplitter.dto.UserDto;
 import com.expensetracker.smartsplitter.model.Role;
@@ -9,7 +10,6 @@ import com.expensetracker.smartsplitter.service.UserService;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -21,18 +21,18 @@ public class UserServiceImpl implements UserService {
 
     private UserRepository userRepository;
     private ModelMapper modelMapper;
-    private BCryptPasswordEncoder bCryptPasswordEncoder;
+    private PasswordHasher passwordHasher;
 
     @Autowired
-    public  UserServiceImpl(UserRepository userRepository, ModelMapper modelMapper,BCryptPasswordEncoder bCryptPasswordEncoder) {
+    public  UserServiceImpl(UserRepository userRepository, ModelMapper modelMapper, PasswordHasher passwordHasher) {
         this.userRepository = userRepository;
         this.modelMapper = modelMapper;
-        this.bCryptPasswordEncoder = bCryptPasswordEncoder;
+        this.passwordHasher = passwordHasher;
     }
 
     @Override
     public UserDto register(RegisterRequest request) {
-        request.setPassword(bCryptPasswordEncoder.encode(request.getPassword()));
+        request.setPassword(passwordHasher.encode(request.getPassword()));
         User  user = modelMapper.map(request,User.class);
         if (user.getRole() == null) {
             user.setRole(Role.USER);
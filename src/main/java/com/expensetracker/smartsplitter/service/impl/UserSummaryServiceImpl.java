@@ -0,0 +1,199 @@
+package com.expensetracker.smartsplitter.service.impl;
+
+import com.expensetracker.smartsplitter.dto.view.GroupSummaryView;
+import com.expensetracker.smartsplitter.dto.view.UserSummaryView;
+import com.expensetracker.smartsplitter.event.LedgerEventAppended;
+import com.expensetracker.smartsplitter.event.SettlementPlanUpdated;
+import com.expensetracker.smartsplitter.model.UserGroupSummary;
+import com.expensetracker.smartsplitter.repository.ExpenseParticipantRepository;
+import com.expensetracker.smartsplitter.repository.ExpenseRepository;
+import com.expensetracker.smartsplitter.repository.GroupBalanceRepository;
+import com.expensetracker.smartsplitter.repository.GroupMemberRepository;
+import com.expensetracker.smartsplitter.repository.GroupRepository;
+import com.expensetracker.smartsplitter.repository.SettlementRepository;
+import com.expensetracker.smartsplitter.repository.UserGroupSummaryRepository;
+import com.expensetracker.smartsplitter.repository.UserRepository;
+import com.expensetracker.smartsplitter.service.UserSummaryService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Maintains the dashboard read model. Ledger and settlement changes schedule a rebuild of the
+ * affected group once their transaction commits; rebuilds run on the application task executor,
+ * a group that is already waiting is not queued twice, and one group is never rebuilt by two
+ * threads at once, so the last rebuild always sees the latest committed state.
+ *
+ * Rebuilds of one group are serialised by one of {@code app.summary.lock-stripes} locks picked by
+ * group id, so the locks stay fixed however many groups there are. A user whose groups predate
+ * the read model gets at most {@code app.summary.cold-read-groups} of them rebuilt during the read;
+ * the rest are queued like any other refresh and show up on a later read.
+ */
+@Service
+public class UserSummaryServiceImpl implements UserSummaryService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserSummaryServiceImpl.class);
+
+    private UserGroupSummaryRepository userGroupSummaryRepository;
+    private GroupRepository groupRepository;
+    private GroupMemberRepository groupMemberRepository;
+    private GroupBalanceRepository groupBalanceRepository;
+    private ExpenseRepository expenseRepository;
+    private ExpenseParticipantRepository expenseParticipantRepository;
+    private SettlementRepository settlementRepository;
+    private UserRepository userRepository;
+    private TransactionTemplate transactionTemplate;
+    private TransactionTemplate readOnlyTransaction;
+    private Executor executor;
+    private int coldReadGroups;
+
+    private final Set<Long> queuedGroups = ConcurrentHashMap.newKeySet();
+    // ReentrantLock rather than synchronized so a virtual thread doing JDBC under it is not pinned
+    private final ReentrantLock[] rebuildLocks;
+
+    @Autowired
+    public UserSummaryServiceImpl(UserGroupSummaryRepository userGroupSummaryRepository, GroupRepository groupRepository,
+                                  GroupMemberRepository groupMemberRepository,
+                                  GroupBalanceRepository groupBalanceRepository, ExpenseRepository expenseRepository,
+                                  ExpenseParticipantRepository expenseParticipantRepository,
+                                  SettlementRepository settlementRepository, UserRepository userRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  @Qualifier("applicationTaskExecutor") Executor executor,
+                                  @Value("${app.summary.lock-stripes:64}") int lockStripes,
+                                  @Value("${app.summary.cold-read-groups:8}") int coldReadGroups) {
+        this.userGroupSummaryRepository = userGroupSummaryRepository;
+        this.groupRepository = groupRepository;
+        this.groupMemberRepository = groupMemberRepository;
+        this.groupBalanceRepository = groupBalanceRepository;
+        this.expenseRepository = expenseRepository;
+        this.expenseParticipantRepository = expenseParticipantRepository;
+        this.settlementRepository = settlementRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.executor = executor;
+        this.coldReadGroups = coldReadGroups;
+        this.rebuildLocks = new ReentrantLock[lockStripes];
+        for (int i = 0; i < lockStripes; i++) {
+            this.rebuildLocks[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public UserSummaryView getSummary(Long userId) {
+        List<GroupSummaryView> groups = readOnlyTransaction.execute(
+                status -> userGroupSummaryRepository.findViewsByUserId(userId));
+        if (groups.isEmpty()) {
+            // Memberships from before the read model existed: a bounded number are built now, each in
+            // its own write transaction, and the rest in the background
+            List<Long> groupIds = readOnlyTransaction.execute(
+                    status -> groupMemberRepository.findGroupIdsByUserId(userId));
+            if (!groupIds.isEmpty()) {
+                groupIds.stream().skip(coldReadGroups).forEach(this::scheduleRefresh);
+                groupIds.stream().limit(coldReadGroups).forEach(this::refreshGroup);
+                groups = readOnlyTransaction.execute(status -> userGroupSummaryRepository.findViewsByUserId(userId));
+            }
+        }
+        return UserSummaryView.of(userId, groups);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLedgerEvent(LedgerEventAppended event) {
+        scheduleRefresh(event.groupId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSettlementPlanUpdated(SettlementPlanUpdated event) {
+        scheduleRefresh(event.groupId());
+    }
+
+    private void scheduleRefresh(Long groupId) {
+        if (!queuedGroups.add(groupId)) {
+            return;
+        }
+        executor.execute(() -> {
+            queuedGroups.remove(groupId);
+            try {
+                refreshGroup(groupId);
+            } catch (RuntimeException e) {
+                log.warn("Could not refresh dashboard summaries of group {}", groupId, e);
+            }
+        });
+    }
+
+    @Override
+    public void refreshGroup(Long groupId) {
+        ReentrantLock lock = rebuildLocks[Math.floorMod(Long.hashCode(groupId), rebuildLocks.length)];
+        lock.lock();
+        try {
+            transactionTemplate.executeWithoutResult(status -> rebuild(groupId));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void rebuild(Long groupId) {
+        Set<Long> userIds = new TreeSet<>(groupMemberRepository.findMemberIdsByGroupId(groupId));
+
+        Map<Long, BigDecimal> nets = new HashMap<>();
+        for (Object[] row : groupBalanceRepository.findNonZeroBalances(groupId)) {
+            nets.put((Long) row[0], (BigDecimal) row[1]);
+        }
+
+        Map<Long, Long> expenseCounts = new HashMap<>();
+        Map<Long, BigDecimal> expenseTotals = new HashMap<>();
+        List<Object[]> involvement = new ArrayList<>(expenseParticipantRepository.countExpensesByParticipant(groupId));
+        involvement.addAll(expenseRepository.countExpensesPaidWithoutTakingPart(groupId));
+        for (Object[] row : involvement) {
+            expenseCounts.merge((Long) row[0], (Long) row[1], Long::sum);
+            expenseTotals.merge((Long) row[0], (BigDecimal) row[2], BigDecimal::add);
+        }
+
+        Map<Long, Integer> pending = new HashMap<>();
+        for (Object[] row : settlementRepository.findUnpaidParties(groupId)) {
+            pending.merge((Long) row[0], 1, Integer::sum);
+            pending.merge((Long) row[1], 1, Integer::sum);
+        }
+
+        userIds.addAll(nets.keySet());
+        Map<Long, UserGroupSummary> rows = new HashMap<>();
+        for (UserGroupSummary row : userGroupSummaryRepository.findByGroupId(groupId)) {
+            rows.put(row.getUser().getId(), row);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<UserGroupSummary> created = new ArrayList<>();
+        for (Long userId : userIds) {
+            UserGroupSummary row = rows.remove(userId);
+            if (row == null) {
+                row = UserGroupSummary.builder()
+                        .user(userRepository.getReferenceById(userId))
+                        .group(groupRepository.getReferenceById(groupId))
+                        .build();
+                created.add(row);
+            }
+            row.setNet(nets.getOrDefault(userId, BigDecimal.ZERO));
+            row.setExpenseCount(expenseCounts.getOrDefault(userId, 0L));
+            row.setExpenseTotal(expenseTotals.getOrDefault(userId, BigDecimal.ZERO));
+            row.setPendingSettlements(pending.getOrDefault(userId, 0));
+            row.setUpdatedAt(now);
+        }
+        userGroupSummaryRepository.saveAll(created);
+        // Whatever is left belongs to users no longer in the group
+        userGroupSummaryRepository.deleteAll(rows.values());
+    }
+}
@@ -0,0 +1,147 @@
+package com.expensetracker.smartsplitter.settlement;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+
+/**
+ * Net balances of a group's members in minor units (cents), stored in dense arrays
+ * indexed by member ordinal. User ids are mapped to ordinals through an open-addressing
+ * table, so accumulating balances allocates nothing per row.
+ */
+public final class BalanceSheet {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private long[] userIds;
+    private long[] balances;
+    private int size;
+
+    // Open-addressing index from user id to ordinal
+    private long[] slotKeys;
+    private int[] slotOrdinals;
+
+    public BalanceSheet() {
+        this(16);
+    }
+
+    public BalanceSheet(int expectedMembers) {
+        int capacity = Math.max(4, expectedMembers);
+        userIds = new long[capacity];
+        balances = new long[capacity];
+        allocateSlots(tableSizeFor(capacity));
+    }
+
+    /** Adds {@code cents} to the user's balance and returns the user's ordinal. */
+    public int add(long userId, long cents) {
+        int ordinal = ordinalOrInsert(userId);
+        balances[ordinal] += cents;
+        return ordinal;
+    }
+
+    public int add(long userId, BigDecimal amount) {
+        return add(userId, toCents(amount));
+    }
+
+    /** Returns the ordinal of the user, or -1 when the user has no entry. */
+    public int ordinalOf(long userId) {
+        int mask = slotKeys.length - 1;
+        for (int slot = mix(userId) & mask; ; slot = (slot + 1) & mask) {
+            long key = slotKeys[slot];
+            if (key == userId) {
+                return slotOrdinals[slot];
+            }
+            if (key == EMPTY) {
+                return -1;
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long userId(int ordinal) {
+        return userIds[ordinal];
+    }
+
+    public long balance(int ordinal) {
+        return balances[ordinal];
+    }
+
+    /** Sum of all balances; zero unless share rounding left a remainder. */
+    public long total() {
+        long total = 0;
+        for (int i = 0; i < size; i++) {
+            total += balances[i];
+        }
+        return total;
+    }
+
+    public static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    private int ordinalOrInsert(long userId) {
+        int mask = slotKeys.length - 1;
+        int slot = mix(userId) & mask;
+        while (true) {
+            long key = slotKeys[slot];
+            if (key == userId) {
+                return slotOrdinals[slot];
+            }
+            if (key == EMPTY) {
+                break;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if (size == userIds.length) {
+            userIds = Arrays.copyOf(userIds, size * 2);
+            balances = Arrays.copyOf(balances, size * 2);
+        }
+        int ordinal = size++;
+        userIds[ordinal] = userId;
+
+        // Keep the load factor at or below one half
+        if (size * 2 > slotKeys.length) {
+            rehash(slotKeys.length * 2);
+        } else {
+            slotKeys[slot] = userId;
+            slotOrdinals[slot] = ordinal;
+        }
+        return ordinal;
+    }
+
+    private void rehash(int tableSize) {
+        allocateSlots(tableSize);
+        int mask = tableSize - 1;
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            int slot = mix(userIds[ordinal]) & mask;
+            while (slotKeys[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            slotKeys[slot] = userIds[ordinal];
+            slotOrdinals[slot] = ordinal;
+        }
+    }
+
+    private void allocateSlots(int tableSize) {
+        slotKeys = new long[tableSize];
+        slotOrdinals = new int[tableSize];
+        Arrays.fill(slotKeys, EMPTY);
+    }
+
+    private static int tableSizeFor(int members) {
+        return Integer.highestOneBit(Math.max(4, members) * 2 - 1) << 1;
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
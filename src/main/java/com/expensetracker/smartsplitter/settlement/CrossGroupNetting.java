@@ -0,0 +1,251 @@
+package com.expensetracker.smartsplitter.settlement;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+/**
+ * Settles many groups at once. Each user's balances are summed over all of their groups, so debts
+ * in one group cancel credits in another, and the combined balances are solved with the usual
+ * {@link SettlementSolverSelector}. Users are only ever netted with users they are linked to through
+ * shared groups: the users split into connected components, each solved on its own. The service loads
+ * one component per call, so they are solved in turn on the caller's thread.
+ *
+ * Every transfer is traced back to both ends: the payer's debts it settles and the payee's credits it
+ * pays. Groups where the payer owes and the payee is owed are matched first, for both sides at once.
+ * What is left is taken from the payer's other debts and, separately, the payee's other credits,
+ * lowest group id first, so neither side names a group the user has no stake in.
+ */
+@Component
+public class CrossGroupNetting {
+
+    private final SettlementSolverSelector solverSelector;
+
+    public CrossGroupNetting(SettlementSolverSelector solverSelector) {
+        this.solverSelector = solverSelector;
+    }
+
+    /** Transfers settling every balance in the table, grouped by component. */
+    public List<NettedTransfer> solve(GroupBalanceTable table) {
+        Network network = new Network(table);
+        List<NettedTransfer> transfers = new ArrayList<>();
+        for (int component = 0; component < network.componentCount(); component++) {
+            transfers.addAll(solveComponent(network, component));
+        }
+        return transfers;
+    }
+
+    private List<NettedTransfer> solveComponent(Network network, int component) {
+        int[] members = network.members(component);
+        BalanceSheet sheet = new BalanceSheet(members.length);
+        for (int ordinal : members) {
+            sheet.add(network.users.userId(ordinal), network.users.balance(ordinal));
+        }
+        SettlementPlan plan = solverSelector.solve(sheet);
+
+        int count = plan.size();
+        int[] payers = new int[count];
+        int[] payees = new int[count];
+        long[] unattributed = new long[count];
+        long[] uncredited = new long[count];
+        List<SortedMap<Long, Long>> parts = new ArrayList<>(count);
+        List<SortedMap<Long, Long>> credits = new ArrayList<>(count);
+        for (int k = 0; k < count; k++) {
+            payers[k] = network.users.ordinalOf(plan.fromUserId(k));
+            payees[k] = network.users.ordinalOf(plan.toUserId(k));
+            unattributed[k] = plan.amount(k);
+            uncredited[k] = plan.amount(k);
+            parts.add(new TreeMap<>());
+            credits.add(new TreeMap<>());
+        }
+
+        // Debts the payer has in groups where the payee is owed money, for every transfer first,
+        // so an earlier transfer does not use up a debt a later one could have matched
+        for (int k = 0; k < count; k++) {
+            for (int leg = network.legStart[payers[k]]; leg < network.legStart[payers[k] + 1]; leg++) {
+                int payeeLeg = network.findLeg(payees[k], network.legGroup[leg]);
+                if (network.legCents[leg] >= 0 || payeeLeg < 0 || network.legCents[payeeLeg] <= 0) {
+                    continue;
+                }
+                long amount = Math.min(unattributed[k],
+                        Math.min(network.remaining[leg], network.remaining[payeeLeg]));
+                network.remaining[leg] -= amount;
+                network.remaining[payeeLeg] -= amount;
+                unattributed[k] -= amount;
+                uncredited[k] -= amount;
+                attribute(parts.get(k), network.legGroup[leg], amount);
+                attribute(credits.get(k), network.legGroup[leg], amount);
+            }
+        }
+
+        // Then whatever the payer still owes and the payee is still owed elsewhere. Each side fits: a payer
+        // never pays more than its debts in total, nor is a payee paid more than its credits. A user is
+        // only ever payer or payee, so the two sides use up disjoint legs.
+        for (int k = 0; k < count; k++) {
+            for (int leg = network.legStart[payers[k]];
+                 leg < network.legStart[payers[k] + 1] && unattributed[k] > 0; leg++) {
+                if (network.legCents[leg] >= 0) {
+                    continue;
+                }
+                long amount = Math.min(unattributed[k], network.remaining[leg]);
+                network.remaining[leg] -= amount;
+                unattributed[k] -= amount;
+                attribute(parts.get(k), network.legGroup[leg], amount);
+            }
+            if (unattributed[k] != 0) {
+                throw new IllegalStateException("Transfer from user " + plan.fromUserId(k)
+                        + " exceeds the debts it could settle");
+            }
+            for (int leg = network.legStart[payees[k]];
+                 leg < network.legStart[payees[k] + 1] && uncredited[k] > 0; leg++) {
+                if (network.legCents[leg] <= 0) {
+                    continue;
+                }
+                long amount = Math.min(uncredited[k], network.remaining[leg]);
+                network.remaining[leg] -= amount;
+                uncredited[k] -= amount;
+                attribute(credits.get(k), network.legGroup[leg], amount);
+            }
+            if (uncredited[k] != 0) {
+                throw new IllegalStateException("Transfer to user " + plan.toUserId(k)
+                        + " exceeds the credits it could pay");
+            }
+        }
+
+        List<NettedTransfer> transfers = new ArrayList<>(count);
+        for (int k = 0; k < count; k++) {
+            transfers.add(new NettedTransfer(plan.fromUserId(k), plan.toUserId(k), plan.amount(k), parts.get(k),
+                    credits.get(k)));
+        }
+        return transfers;
+    }
+
+    private static void attribute(SortedMap<Long, Long> parts, long groupId, long amount) {
+        if (amount > 0) {
+            parts.merge(groupId, amount, Long::sum);
+        }
+    }
+
+    /**
+     * Users of the table with their combined balances, their per-group balances ("legs") in slices
+     * sorted by group id, and the connected components they form. Components touch disjoint slices
+     * of the {@code remaining} array.
+     */
+    private static final class Network {
+
+        private final BalanceSheet users;
+        private final int[] legStart;
+        private final long[] legGroup;
+        private final long[] legCents;
+        private final long[] remaining;
+        private final int[] componentStart;
+        private final int[] componentMembers;
+
+        private Network(GroupBalanceTable table) {
+            int rows = table.size();
+            users = new BalanceSheet(rows);
+            int[] rowUser = new int[rows];
+            for (int row = 0; row < rows; row++) {
+                rowUser[row] = users.add(table.userId(row), table.cents(row));
+            }
+            int userCount = users.size();
+
+            // Everyone with a balance in a group is linked to the first user seen in it
+            int[] parent = IntStream.range(0, userCount).toArray();
+            Map<Long, Integer> groupAnchors = new HashMap<>();
+            for (int row = 0; row < rows; row++) {
+                Integer anchor = groupAnchors.putIfAbsent(table.groupId(row), rowUser[row]);
+                if (anchor != null) {
+                    union(parent, anchor, rowUser[row]);
+                }
+            }
+
+            // Legs laid out per user; filling them in group order keeps each slice sorted
+            legStart = new int[userCount + 1];
+            for (int row = 0; row < rows; row++) {
+                legStart[rowUser[row] + 1]++;
+            }
+            for (int user = 0; user < userCount; user++) {
+                legStart[user + 1] += legStart[user];
+            }
+            legGroup = new long[rows];
+            legCents = new long[rows];
+            remaining = new long[rows];
+            int[] cursor = Arrays.copyOf(legStart, userCount);
+            int[] byGroup = IntStream.range(0, rows).boxed()
+                    .sorted(Comparator.comparingLong(table::groupId))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            for (int row : byGroup) {
+                int leg = cursor[rowUser[row]]++;
+                legGroup[leg] = table.groupId(row);
+                legCents[leg] = table.cents(row);
+                remaining[leg] = Math.abs(table.cents(row));
+            }
+
+            // Components numbered in order of their first user, members listed contiguously
+            int[] componentOf = new int[userCount];
+            int[] rootComponent = new int[userCount];
+            Arrays.fill(rootComponent, -1);
+            int components = 0;
+            for (int user = 0; user < userCount; user++) {
+                int root = find(parent, user);
+                if (rootComponent[root] < 0) {
+                    rootComponent[root] = components++;
+                }
+                componentOf[user] = rootComponent[root];
+            }
+            componentStart = new int[components + 1];
+            for (int user = 0; user < userCount; user++) {
+                componentStart[componentOf[user] + 1]++;
+            }
+            for (int component = 0; component < components; component++) {
+                componentStart[component + 1] += componentStart[component];
+            }
+            componentMembers = new int[userCount];
+            int[] next = Arrays.copyOf(componentStart, components);
+            for (int user = 0; user < userCount; user++) {
+                componentMembers[next[componentOf[user]]++] = user;
+            }
+        }
+
+        private int componentCount() {
+            return componentStart.length - 1;
+        }
+
+        private int[] members(int component) {
+            return Arrays.copyOfRange(componentMembers, componentStart[component], componentStart[component + 1]);
+        }
+
+        // Index of the user's leg in the group, or -1
+        private int findLeg(int user, long groupId) {
+            int found = Arrays.binarySearch(legGroup, legStart[user], legStart[user + 1], groupId);
+            return found >= 0 ? found : -1;
+        }
+
+        private static int find(int[] parent, int user) {
+            while (parent[user] != user) {
+                parent[user] = parent[parent[user]];
+                user = parent[user];
+            }
+            return user;
+        }
+
+        private static void union(int[] parent, int a, int b) {
+            int rootA = find(parent, a);
+            int rootB = find(parent, b);
+            if (rootA != rootB) {
+                // The lower ordinal stays the root, so components keep the order their users were added in
+                parent[Math.max(rootA, rootB)] = Math.min(rootA, rootB);
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.expensetracker.smartsplitter.settlement;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Minimum-transfer settlement for small groups. A set of k members whose balances sum
+ * to zero can always be settled with k - 1 transfers, so the minimum number of transfers
+ * is n minus the largest number of disjoint zero-sum subsets the members can be split into.
+ * That number is found with a dynamic program over member bitmasks, O(2^n * n) time and
+ * O(2^n) memory, then each subset is settled on its own.
+ */
+@Component
+public class ExactSettlementSolver implements SettlementSolver {
+
+    public static final String NAME = "exact";
+
+    /** Hard upper bound on non-zero members; 2^20 masks already take about 9 MB. */
+    public static final int MAX_MEMBERS = 20;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public SettlementPlan solve(BalanceSheet sheet) {
+        int[] members = new int[sheet.size()];
+        int n = 0;
+        for (int ordinal = 0; ordinal < sheet.size(); ordinal++) {
+            if (sheet.balance(ordinal) != 0) {
+                members[n++] = ordinal;
+            }
+        }
+        if (n > MAX_MEMBERS) {
+            throw new IllegalArgumentException("Exact settlement supports at most " + MAX_MEMBERS
+                    + " members with a non-zero balance, got " + n);
+        }
+
+        int full = (1 << n) - 1;
+        long[] sum = new long[full + 1];
+        byte[] subsets = new byte[full + 1];
+        for (int mask = 1; mask <= full; mask++) {
+            int low = Integer.numberOfTrailingZeros(mask);
+            sum[mask] = sum[mask & (mask - 1)] + sheet.balance(members[low]);
+
+            int best = 0;
+            for (int rest = mask; rest != 0; rest &= rest - 1) {
+                int bit = rest & -rest;
+                best = Math.max(best, subsets[mask ^ bit]);
+            }
+            subsets[mask] = (byte) (sum[mask] == 0 ? best + 1 : best);
+        }
+
+        // Walk back from the full set to an ordering in which every zero-sum subset is contiguous
+        int[] order = new int[n];
+        int pos = n;
+        for (int mask = full; mask != 0; ) {
+            int target = sum[mask] == 0 ? subsets[mask] - 1 : subsets[mask];
+            for (int rest = mask; rest != 0; rest &= rest - 1) {
+                int bit = rest & -rest;
+                if (subsets[mask ^ bit] == target) {
+                    order[--pos] = Integer.numberOfTrailingZeros(bit);
+                    mask ^= bit;
+                    break;
+                }
+            }
+        }
+
+        SettlementPlan plan = new SettlementPlan(sheet, n);
+        long[] remaining = new long[sheet.size()];
+        int[] subset = new int[n];
+        int subsetSize = 0;
+        int prefix = 0;
+        for (int k = 0; k < n; k++) {
+            prefix |= 1 << order[k];
+            subset[subsetSize++] = members[order[k]];
+            if (sum[prefix] == 0) {
+                GreedyHeapSettlementSolver.settle(plan, subset, subsetSize, remaining);
+                subsetSize = 0;
+            }
+        }
+        // Members left over only when share rounding keeps the total from reaching zero
+        if (subsetSize > 0) {
+            GreedyHeapSettlementSolver.settle(plan, subset, subsetSize, remaining);
+        }
+        return plan;
+    }
+}
@@ -0,0 +1,65 @@
+package com.expensetracker.smartsplitter.settlement;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Greedy settlement with two max-heaps: the largest debtor always pays the largest
+ * creditor, and whoever is left with a remainder goes back into its heap. Every
+ * transfer settles at least one member, so there are at most n - 1 transfers, in O(n log n).
+ */
+@Component
+public class GreedyHeapSettlementSolver implements SettlementSolver {
+
+    public static final String NAME = "greedy-heap";
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public SettlementPlan solve(BalanceSheet sheet) {
+        int n = sheet.size();
+        int[] members = new int[n];
+        for (int ordinal = 0; ordinal < n; ordinal++) {
+            members[ordinal] = ordinal;
+        }
+        SettlementPlan plan = new SettlementPlan(sheet, n);
+        settle(plan, members, n, new long[n]);
+        return plan;
+    }
+
+    /**
+     * Settles the given members among themselves and appends the transfers to {@code plan}.
+     * {@code remaining} is scratch space indexed by ordinal, at least {@code sheet.size()} long.
+     */
+    static void settle(SettlementPlan plan, int[] members, int count, long[] remaining) {
+        BalanceSheet sheet = plan.sheet();
+        OrdinalHeap debtors = new OrdinalHeap(count, remaining, sheet);
+        OrdinalHeap creditors = new OrdinalHeap(count, remaining, sheet);
+
+        for (int k = 0; k < count; k++) {
+            int ordinal = members[k];
+            long balance = sheet.balance(ordinal);
+            remaining[ordinal] = Math.abs(balance);
+            if (balance < 0) {
+                debtors.push(ordinal);
+            } else if (balance > 0) {
+                creditors.push(ordinal);
+            }
+        }
+
+        while (!debtors.isEmpty() && !creditors.isEmpty()) {
+            int debtor = debtors.pop();
+            int creditor = creditors.pop();
+            long amount = Math.min(remaining[debtor], remaining[creditor]);
+
+            plan.add(debtor, creditor, amount);
+
+            remaining[debtor] -= amount;
+            remaining[creditor] -= amount;
+            if (remaining[debtor] > 0) debtors.push(debtor);
+            if (remaining[creditor] > 0) creditors.push(creditor);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.expensetracker.smartsplitter.settlement;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * Per-group balances of many groups in minor units (cents), one row per group and user,
+ * stored as parallel primitive arrays. Input of {@link CrossGroupNetting}.
+ */
+public final class GroupBalanceTable {
+
+    private long[] groupIds;
+    private long[] userIds;
+    private long[] cents;
+    private int size;
+
+    public GroupBalanceTable() {
+        this(64);
+    }
+
+    public GroupBalanceTable(int expectedRows) {
+        int capacity = Math.max(4, expectedRows);
+        groupIds = new long[capacity];
+        userIds = new long[capacity];
+        cents = new long[capacity];
+    }
+
+    public void add(long groupId, long userId, long cents) {
+        if (size == groupIds.length) {
+            groupIds = Arrays.copyOf(groupIds, size * 2);
+            userIds = Arrays.copyOf(userIds, size * 2);
+            this.cents = Arrays.copyOf(this.cents, size * 2);
+        }
+        groupIds[size] = groupId;
+        userIds[size] = userId;
+        this.cents[size] = cents;
+        size++;
+    }
+
+    public void add(long groupId, long userId, BigDecimal amount) {
+        add(groupId, userId, BalanceSheet.toCents(amount));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long groupId(int row) {
+        return groupIds[row];
+    }
+
+    public long userId(int row) {
+        return userIds[row];
+    }
+
+    public long cents(int row) {
+        return cents[row];
+    }
+}
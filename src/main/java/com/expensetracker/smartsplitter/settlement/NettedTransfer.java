@@ -0,0 +1,13 @@
+package com.expensetracker.smartsplitter.settlement;
+
+import java.util.SortedMap;
+
+/**
+ * One transfer of a cross-group plan, in cents. {@code amountByGroup} splits the amount over the
+ * groups whose debts of the payer it settles, and {@code creditByGroup} over the groups where it
+ * pays what the payee is owed, both keyed by group id; each adds up to {@code amount}. The two
+ * differ when netting routes money through other members.
+ */
+public record NettedTransfer(long fromUserId, long toUserId, long amount, SortedMap<Long, Long> amountByGroup,
+                             SortedMap<Long, Long> creditByGroup) {
+}
@@ -0,0 +1,68 @@
+package com.expensetracker.smartsplitter.settlement;
+
+/**
+ * Binary max-heap of member ordinals keyed by a shared {@code remaining} array,
+ * largest amount first and ties broken by user id so results are deterministic.
+ */
+final class OrdinalHeap {
+
+    private final int[] heap;
+    private final long[] remaining;
+    private final BalanceSheet sheet;
+    private int size;
+
+    OrdinalHeap(int capacity, long[] remaining, BalanceSheet sheet) {
+        this.heap = new int[capacity];
+        this.remaining = remaining;
+        this.sheet = sheet;
+    }
+
+    void push(int ordinal) {
+        int i = size++;
+        heap[i] = ordinal;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!before(heap[i], heap[parent], remaining, sheet)) {
+                break;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    int pop() {
+        int top = heap[0];
+        heap[0] = heap[--size];
+        int i = 0;
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) {
+                break;
+            }
+            int child = left + 1 < size && before(heap[left + 1], heap[left], remaining, sheet) ? left + 1 : left;
+            if (!before(heap[child], heap[i], remaining, sheet)) {
+                break;
+            }
+            swap(i, child);
+            i = child;
+        }
+        return top;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    static boolean before(int x, int y, long[] remaining, BalanceSheet sheet) {
+        if (remaining[x] != remaining[y]) {
+            return remaining[x] > remaining[y];
+        }
+        return sheet.userId(x) < sheet.userId(y);
+    }
+
+    private void swap(int a, int b) {
+        int tmp = heap[a];
+        heap[a] = heap[b];
+        heap[b] = tmp;
+    }
+}
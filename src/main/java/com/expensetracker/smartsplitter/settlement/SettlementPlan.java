@@ -0,0 +1,56 @@
+package com.expensetracker.smartsplitter.settlement;
+
+import java.util.Arrays;
+
+/**
+ * Transfers produced by a settlement engine, stored as parallel primitive arrays.
+ * Payers and payees are member ordinals of the {@link BalanceSheet} the plan was solved from.
+ */
+public final class SettlementPlan {
+
+    private final BalanceSheet sheet;
+    private int[] from;
+    private int[] to;
+    private long[] amounts;
+    private int size;
+
+    public SettlementPlan(BalanceSheet sheet, int expectedTransfers) {
+        int capacity = Math.max(4, expectedTransfers);
+        this.sheet = sheet;
+        this.from = new int[capacity];
+        this.to = new int[capacity];
+        this.amounts = new long[capacity];
+    }
+
+    public void add(int fromOrdinal, int toOrdinal, long cents) {
+        if (size == from.length) {
+            from = Arrays.copyOf(from, size * 2);
+            to = Arrays.copyOf(to, size * 2);
+            amounts = Arrays.copyOf(amounts, size * 2);
+        }
+        from[size] = fromOrdinal;
+        to[size] = toOrdinal;
+        amounts[size] = cents;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long fromUserId(int index) {
+        return sheet.userId(from[index]);
+    }
+
+    public long toUserId(int index) {
+        return sheet.userId(to[index]);
+    }
+
+    public long amount(int index) {
+        return amounts[index];
+    }
+
+    public BalanceSheet sheet() {
+        return sheet;
+    }
+}
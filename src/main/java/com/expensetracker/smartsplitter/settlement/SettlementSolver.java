@@ -0,0 +1,12 @@
+package com.expensetracker.smartsplitter.settlement;
+
+/**
+ * Strategy that turns a group's net balances into a list of transfers settling them.
+ */
+public interface SettlementSolver {
+
+    /** Name used to select this solver in configuration. */
+    String name();
+
+    SettlementPlan solve(BalanceSheet sheet);
+}
@@ -0,0 +1,57 @@
+package com.expensetracker.smartsplitter.settlement;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Picks the solver for a group. In {@code auto} mode small groups get the exact
+ * minimum-transfer solver and everything else the heap-based greedy solver;
+ * any other value of {@code app.settlement.solver} forces the named solver.
+ */
+@Component
+public class SettlementSolverSelector {
+
+    public static final String AUTO = "auto";
+
+    private final Map<String, SettlementSolver> solvers = new HashMap<>();
+    private final String configuredSolver;
+    private final int exactMaxMembers;
+
+    public SettlementSolverSelector(List<SettlementSolver> solvers,
+                                    @Value("${app.settlement.solver:auto}") String configuredSolver,
+                                    @Value("${app.settlement.exact-max-members:12}") int exactMaxMembers) {
+        for (SettlementSolver solver : solvers) {
+            this.solvers.put(solver.name(), solver);
+        }
+        if (!AUTO.equals(configuredSolver) && !this.solvers.containsKey(configuredSolver)) {
+            throw new IllegalArgumentException("Unknown settlement solver: " + configuredSolver
+                    + " (available: " + this.solvers.keySet() + ")");
+        }
+        this.configuredSolver = configuredSolver;
+        this.exactMaxMembers = Math.min(exactMaxMembers, ExactSettlementSolver.MAX_MEMBERS);
+    }
+
+    public SettlementSolver select(BalanceSheet sheet) {
+        if (!AUTO.equals(configuredSolver) && !ExactSettlementSolver.NAME.equals(configuredSolver)) {
+            return solvers.get(configuredSolver);
+        }
+        int nonZeroMembers = 0;
+        for (int ordinal = 0; ordinal < sheet.size(); ordinal++) {
+            if (sheet.balance(ordinal) != 0) {
+                nonZeroMembers++;
+            }
+        }
+        // The exact solver is exponential, so even when forced it only runs on groups it can handle
+        return nonZeroMembers <= exactMaxMembers
+                ? solvers.get(ExactSettlementSolver.NAME)
+                : solvers.get(GreedyHeapSettlementSolver.NAME);
+    }
+
+    public SettlementPlan solve(BalanceSheet sheet) {
+        return select(sheet).solve(sheet);
+    }
+}
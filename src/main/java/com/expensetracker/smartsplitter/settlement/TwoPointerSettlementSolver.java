@@ -0,0 +1,83 @@
+package com.expensetracker.smartsplitter.settlement;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Greedy settlement on primitive balances: debtors and creditors are sorted by
+ * magnitude once and matched with two pointers, each step settling the smaller side in full.
+ * Remainders are not re-sorted, so this can use more transfers than {@link GreedyHeapSettlementSolver}.
+ */
+@Component
+public class TwoPointerSettlementSolver implements SettlementSolver {
+
+    public static final String NAME = "two-pointer";
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public SettlementPlan solve(BalanceSheet sheet) {
+        int n = sheet.size();
+        int[] debtors = new int[n];
+        int[] creditors = new int[n];
+        long[] remaining = new long[n];
+        int debtorCount = 0;
+        int creditorCount = 0;
+
+        for (int ordinal = 0; ordinal < n; ordinal++) {
+            long balance = sheet.balance(ordinal);
+            if (balance < 0) {
+                debtors[debtorCount++] = ordinal;
+                remaining[ordinal] = -balance;
+            } else if (balance > 0) {
+                creditors[creditorCount++] = ordinal;
+                remaining[ordinal] = balance;
+            }
+        }
+
+        sortByRemainingDescending(debtors, debtorCount, remaining, sheet);
+        sortByRemainingDescending(creditors, creditorCount, remaining, sheet);
+
+        SettlementPlan plan = new SettlementPlan(sheet, debtorCount + creditorCount);
+        int i = 0, j = 0;
+        while (i < debtorCount && j < creditorCount) {
+            int debtor = debtors[i];
+            int creditor = creditors[j];
+            long amount = Math.min(remaining[debtor], remaining[creditor]);
+
+            plan.add(debtor, creditor, amount);
+
+            remaining[debtor] -= amount;
+            remaining[creditor] -= amount;
+            if (remaining[debtor] == 0) i++;
+            if (remaining[creditor] == 0) j++;
+        }
+        return plan;
+    }
+
+    // Bottom-up merge sort of ordinals by remaining amount (largest first, ties by user id)
+    static void sortByRemainingDescending(int[] ordinals, int count, long[] remaining, BalanceSheet sheet) {
+        int[] src = ordinals;
+        int[] dst = new int[count];
+        for (int width = 1; width < count; width *= 2) {
+            for (int lo = 0; lo < count; lo += 2 * width) {
+                int mid = Math.min(lo + width, count);
+                int hi = Math.min(lo + 2 * width, count);
+                int a = lo, b = mid, k = lo;
+                while (a < mid && b < hi) {
+                    dst[k++] = OrdinalHeap.before(src[b], src[a], remaining, sheet) ? src[b++] : src[a++];
+                }
+                while (a < mid) dst[k++] = src[a++];
+                while (b < hi) dst[k++] = src[b++];
+            }
+            int[] swap = src;
+            src = dst;
+            dst = swap;
+        }
+        if (src != ordinals) {
+            System.arraycopy(src, 0, ordinals, 0, count);
+        }
+    }
+}
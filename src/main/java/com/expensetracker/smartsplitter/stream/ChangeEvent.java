@@ -0,0 +1,34 @@
+package com.expensetracker.smartsplitter.stream;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Compact change notification pushed to group and user streams. Deltas are balance changes by
+ * user id, so a client can patch the balances it already shows instead of refetching lists.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ChangeEvent(String type, Long groupId, Long sequence, Long subjectId, String cause,
+                          Map<Long, BigDecimal> deltas, Integer dropped) {
+
+    public static final String EXPENSE_ADDED = "expense-added";
+    public static final String EXPENSE_DELETED = "expense-deleted";
+    public static final String SETTLEMENT_PAID = "settlement-paid";
+    public static final String MEMBER_JOINED = "member-joined";
+    public static final String BALANCE_CHANGED = "balance-changed";
+    public static final String PLAN_UPDATED = "plan-updated";
+    // Older events were dropped for this subscriber; it should refetch what it displays
+    public static final String OVERFLOW = "overflow";
+    // Sent as an SSE comment to keep idle connections open and detect closed ones
+    public static final String HEARTBEAT = "heartbeat";
+
+    public static ChangeEvent overflow(int dropped) {
+        return new ChangeEvent(OVERFLOW, null, null, null, null, null, dropped);
+    }
+
+    public static ChangeEvent heartbeat() {
+        return new ChangeEvent(HEARTBEAT, null, null, null, null, null, null);
+    }
+}
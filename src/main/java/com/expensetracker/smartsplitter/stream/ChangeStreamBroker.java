@@ -0,0 +1,219 @@
+package com.expensetracker.smartsplitter.stream;
+
+import com.expensetracker.smartsplitter.event.LedgerEventAppended;
+import com.expensetracker.smartsplitter.event.SettlementPlanUpdated;
+import com.expensetracker.smartsplitter.model.LedgerEventType;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fans committed ledger and settlement changes out to Server-Sent Event subscribers.
+ * Group streams get every change in the group; user streams get a balance-changed event for
+ * each change that moves the user's balance, plus member-joined when they are added to a group.
+ *
+ * Each subscriber buffers at most {@code app.sse.buffer-size} events and drops the oldest
+ * when it cannot keep up, so a slow client never holds back the writers or other clients.
+ *
+ * Writes run on the broker's own pool of {@code app.sse.threads} threads with a queue of
+ * {@code app.sse.queue-capacity} drain tasks, so streams cannot starve the application task
+ * executor. A servlet write blocks while the client is not reading, so subscribers whose write has
+ * taken longer than {@code app.sse.send-timeout} are aborted: closed and their thread interrupted.
+ */
+@Component
+public class ChangeStreamBroker {
+
+    private final Map<Long, Set<ChangeSubscriber>> groupSubscribers = new ConcurrentHashMap<>();
+    private final Map<Long, Set<ChangeSubscriber>> userSubscribers = new ConcurrentHashMap<>();
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private final long sendTimeoutNanos;
+    private final Executor executor;
+    private final LongAdder stalled = new LongAdder();
+
+    @Autowired
+    public ChangeStreamBroker(@Value("${app.sse.buffer-size:64}") int bufferSize,
+                              @Value("${app.sse.timeout:30m}") Duration timeout,
+                              @Value("${app.sse.send-timeout:10s}") Duration sendTimeout,
+                              @Value("${app.sse.threads:8}") int threads,
+                              @Value("${app.sse.queue-capacity:1024}") int queueCapacity) {
+        this(bufferSize, timeout.toMillis(), sendTimeout.toMillis(), newExecutor(threads, queueCapacity));
+    }
+
+    ChangeStreamBroker(int bufferSize, long timeoutMillis, long sendTimeoutMillis, Executor executor) {
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeoutMillis;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis);
+        this.executor = executor;
+    }
+
+    // A subscriber has at most one drain task queued, so the queue only fills when streams far outnumber threads
+    private static ThreadPoolExecutor newExecutor(int threads, int queueCapacity) {
+        AtomicInteger threadIds = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                task -> {
+                    Thread thread = new Thread(task, "sse-send-" + threadIds.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public SseEmitter subscribeToGroup(Long groupId) {
+        return subscribe(groupSubscribers, groupId);
+    }
+
+    public SseEmitter subscribeToUser(Long userId) {
+        return subscribe(userSubscribers, userId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLedgerEvent(LedgerEventAppended event) {
+        String type = switch (event.type()) {
+            case EXPENSE_ADDED -> ChangeEvent.EXPENSE_ADDED;
+            case EXPENSE_DELETED -> ChangeEvent.EXPENSE_DELETED;
+            case PAYMENT_RECORDED -> ChangeEvent.SETTLEMENT_PAID;
+            case MEMBER_JOINED -> ChangeEvent.MEMBER_JOINED;
+        };
+        publish(groupSubscribers, event.groupId(), new ChangeEvent(type, event.groupId(), event.sequence(),
+                event.subjectId(), null, event.deltas(), null));
+
+        if (userSubscribers.isEmpty()) {
+            return;
+        }
+        for (Map.Entry<Long, BigDecimal> delta : event.deltas().entrySet()) {
+            publish(userSubscribers, delta.getKey(), new ChangeEvent(ChangeEvent.BALANCE_CHANGED, event.groupId(),
+                    event.sequence(), event.subjectId(), type, Map.of(delta.getKey(), delta.getValue()), null));
+        }
+        if (event.type() == LedgerEventType.MEMBER_JOINED) {
+            publish(userSubscribers, event.subjectId(), new ChangeEvent(ChangeEvent.MEMBER_JOINED, event.groupId(),
+                    event.sequence(), event.subjectId(), null, null, null));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSettlementPlanUpdated(SettlementPlanUpdated event) {
+        publish(groupSubscribers, event.groupId(),
+                new ChangeEvent(ChangeEvent.PLAN_UPDATED, event.groupId(), null, null, null, null, null));
+    }
+
+    // Also how closed connections are noticed: the write fails and the subscriber is removed
+    @Scheduled(fixedDelayString = "${app.sse.heartbeat-millis:25000}")
+    public void heartbeat() {
+        ChangeEvent heartbeat = ChangeEvent.heartbeat();
+        groupSubscribers.values().forEach(subscribers -> subscribers.forEach(s -> s.offer(heartbeat)));
+        userSubscribers.values().forEach(subscribers -> subscribers.forEach(s -> s.offer(heartbeat)));
+    }
+
+    @Scheduled(fixedDelayString = "${app.sse.stall-check-millis:1000}")
+    public void abortStalled() {
+        groupSubscribers.values().forEach(this::abortStalled);
+        userSubscribers.values().forEach(this::abortStalled);
+    }
+
+    private void abortStalled(Set<ChangeSubscriber> subscribers) {
+        for (ChangeSubscriber subscriber : subscribers) {
+            if (subscriber.isStalled(sendTimeoutNanos)) {
+                stalled.increment();
+                subscriber.abort();
+            }
+        }
+    }
+
+    public long stalledCount() {
+        return stalled.sum();
+    }
+
+    public int subscriberCount() {
+        int count = 0;
+        for (Set<ChangeSubscriber> subscribers : groupSubscribers.values()) {
+            count += subscribers.size();
+        }
+        for (Set<ChangeSubscriber> subscribers : userSubscribers.values()) {
+            count += subscribers.size();
+        }
+        return count;
+    }
+
+    ChangeSubscriber addGroupSubscriber(Long groupId, ChangeSubscriber.Sink sink) {
+        return register(groupSubscribers, groupId, sink);
+    }
+
+    ChangeSubscriber addUserSubscriber(Long userId, ChangeSubscriber.Sink sink) {
+        return register(userSubscribers, userId, sink);
+    }
+
+    private SseEmitter subscribe(Map<Long, Set<ChangeSubscriber>> registry, Long key) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        ChangeSubscriber subscriber = register(registry, key, new EmitterSink(emitter));
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        return emitter;
+    }
+
+    private ChangeSubscriber register(Map<Long, Set<ChangeSubscriber>> registry, Long key, ChangeSubscriber.Sink sink) {
+        ChangeSubscriber subscriber = new ChangeSubscriber(sink, bufferSize, executor,
+                closed -> unregister(registry, key, closed));
+        registry.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        return subscriber;
+    }
+
+    private void unregister(Map<Long, Set<ChangeSubscriber>> registry, Long key, ChangeSubscriber subscriber) {
+        registry.computeIfPresent(key, (k, subscribers) -> {
+            subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+
+    private void publish(Map<Long, Set<ChangeSubscriber>> registry, Long key, ChangeEvent event) {
+        Set<ChangeSubscriber> subscribers = registry.get(key);
+        if (subscribers != null) {
+            subscribers.forEach(subscriber -> subscriber.offer(event));
+        }
+    }
+
+    private record EmitterSink(SseEmitter emitter) implements ChangeSubscriber.Sink {
+
+        @Override
+        public void send(ChangeEvent event) throws IOException {
+            if (ChangeEvent.HEARTBEAT.equals(event.type())) {
+                emitter.send(SseEmitter.event().comment(ChangeEvent.HEARTBEAT));
+            } else {
+                emitter.send(SseEmitter.event().name(event.type()).data(event, MediaType.APPLICATION_JSON));
+            }
+        }
+
+        @Override
+        public void close() {
+            emitter.complete();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor instanceof ExecutorService service) {
+            service.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.expensetracker.smartsplitter.stream;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * One open stream. Publishers never block on it: events go into a buffer of at most
+ * {@code capacity} entries, dropping the oldest when a slow client falls behind, and a single
+ * drain task at a time writes them out on the executor. After a drop the client first receives
+ * an {@link ChangeEvent#OVERFLOW} event with the number of events it missed.
+ *
+ * A write can still block when the client stops reading. The subscriber records which thread is
+ * writing and since when, so the broker can {@link #abort} writes that take too long: the
+ * subscriber is closed and the writing thread interrupted. If the executor refuses the drain task,
+ * the subscriber is closed too.
+ */
+public class ChangeSubscriber {
+
+    // Where events are written; a failed send closes the subscriber
+    public interface Sink {
+        void send(ChangeEvent event) throws IOException;
+
+        void close();
+    }
+
+    private final Sink sink;
+    private final int capacity;
+    private final Executor executor;
+    private final Consumer<ChangeSubscriber> onClose;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ArrayDeque<ChangeEvent> buffer = new ArrayDeque<>();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private int dropped;
+
+    // The thread inside sink.send and when it started; guarded by its own lock so abort never
+    // interrupts a thread that has already moved on to other work
+    private final ReentrantLock sendLock = new ReentrantLock();
+    private Thread sendingThread;
+    private long sendStartedNanos;
+
+    public ChangeSubscriber(Sink sink, int capacity, Executor executor, Consumer<ChangeSubscriber> onClose) {
+        this.sink = sink;
+        this.capacity = Math.max(1, capacity);
+        this.executor = executor;
+        this.onClose = onClose;
+    }
+
+    public void offer(ChangeEvent event) {
+        if (closed.get()) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (buffer.size() == capacity) {
+                buffer.pollFirst();
+                dropped++;
+            }
+            buffer.addLast(event);
+        } finally {
+            lock.unlock();
+        }
+        if (draining.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                close();
+            }
+        }
+    }
+
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+    public int buffered() {
+        lock.lock();
+        try {
+            return buffer.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // True while a single write has been blocked for longer than the timeout
+    public boolean isStalled(long timeoutNanos) {
+        sendLock.lock();
+        try {
+            return sendingThread != null && System.nanoTime() - sendStartedNanos > timeoutNanos;
+        } finally {
+            sendLock.unlock();
+        }
+    }
+
+    // Closes the subscriber and interrupts a write in progress, freeing the thread if the sink honours it
+    public void abort() {
+        close();
+        sendLock.lock();
+        try {
+            if (sendingThread != null) {
+                sendingThread.interrupt();
+            }
+        } finally {
+            sendLock.unlock();
+        }
+    }
+
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            lock.lock();
+            try {
+                buffer.clear();
+            } finally {
+                lock.unlock();
+            }
+            onClose.accept(this);
+            sink.close();
+        }
+    }
+
+    private void drain() {
+        try {
+            while (!closed.get()) {
+                ChangeEvent next;
+                int missed;
+                lock.lock();
+                try {
+                    next = buffer.pollFirst();
+                    missed = dropped;
+                    dropped = 0;
+                    if (next == null) {
+                        // Cleared under the lock, so a concurrent offer either sees it and starts a new drain or is polled here
+                        draining.set(false);
+                        return;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                if (missed > 0) {
+                    send(ChangeEvent.overflow(missed));
+                }
+                send(next);
+            }
+        } catch (IOException | RuntimeException e) {
+            close();
+        }
+    }
+
+    private void send(ChangeEvent event) throws IOException {
+        sendLock.lock();
+        try {
+            sendingThread = Thread.currentThread();
+            sendStartedNanos = System.nanoTime();
+        } finally {
+            sendLock.unlock();
+        }
+        try {
+            sink.send(event);
+        } finally {
+            sendLock.lock();
+            try {
+                sendingThread = null;
+                // An abort that came in as the write finished must not interrupt the thread's next task
+                Thread.interrupted();
+            } finally {
+                sendLock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.expensetracker.smartsplitter.util;
+
+import com.expensetracker.smartsplitter.model.Expense;
+import com.expensetracker.smartsplitter.model.ExpenseParticipant;
+import com.expensetracker.smartsplitter.model.Settlement;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+// Balance change per user id caused by an expense or a payment; positive means the user is owed more
+public final class BalanceDeltas {
+
+    private BalanceDeltas() {
+    }
+
+    // Payer is owed the full amount, each participant owes their share
+    public static Map<Long, BigDecimal> forExpense(Expense expense, boolean reverse) {
+        Map<Long, BigDecimal> deltas = new HashMap<>();
+        deltas.merge(expense.getPaidBy().getId(), expense.getAmount(), BigDecimal::add);
+        if (expense.getParticipants() != null) {
+            for (ExpenseParticipant participant : expense.getParticipants()) {
+                deltas.merge(participant.getUser().getId(), participant.getShareAmount().negate(), BigDecimal::add);
+            }
+        }
+        if (reverse) {
+            deltas.replaceAll((userId, delta) -> delta.negate());
+        }
+        return deltas;
+    }
+
+    // The debtor's balance moves up by the amount paid and the creditor's moves down
+    public static Map<Long, BigDecimal> forPayment(Settlement settlement) {
+        Map<Long, BigDecimal> deltas = new HashMap<>();
+        deltas.merge(settlement.getFromUser().getId(), settlement.getAmount(), BigDecimal::add);
+        deltas.merge(settlement.getToUser().getId(), settlement.getAmount().negate(), BigDecimal::add);
+        return deltas;
+    }
+}
@@ -0,0 +1,35 @@
+package com.expensetracker.smartsplitter.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class ShareCalculator {
+
+    private ShareCalculator() {
+    }
+
+    // Equal split in whole cents, one share per participant in order, adding up to the amount exactly.
+    // Every share is the amount divided and rounded down; the leftover cents go to the payer's share,
+    // or one each to the first participants when the payer is not among them.
+    public static List<BigDecimal> equalShares(BigDecimal amount, Long payerId, List<Long> participantIds) {
+        int count = participantIds.size();
+        long cents = amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+        long base = Math.floorDiv(cents, count);
+        long leftover = cents - base * count;
+
+        int payerIndex = participantIds.indexOf(payerId);
+        List<BigDecimal> shares = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long share = base;
+            if (payerIndex >= 0) {
+                share += i == payerIndex ? leftover : 0;
+            } else if (i < leftover) {
+                share++;
+            }
+            shares.add(BigDecimal.valueOf(share, 2));
+        }
+        return shares;
+    }
+}
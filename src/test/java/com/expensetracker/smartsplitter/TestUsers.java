@@ -0,0 +1,27 @@
+package com.expensetracker.smartsplitter;
+
+import com.expensetracker.smartsplitter.model.Role;
+import com.expensetracker.smartsplitter.model.User;
+import com.expensetracker.smartsplitter.repository.UserRepository;
+import org.springframework.stereotype.Component;
+
+// Shared fixture for integration tests: saves a plain user whose username and email derive from the name
+@Component
+public class TestUsers {
+
+    private final UserRepository userRepository;
+
+    public TestUsers(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    public User create(String name) {
+        return userRepository.save(User.builder()
+                .email(name + "@example.com")
+                .username(name)
+                .mobile("0000000000")
+                .password("secret")
+                .role(Role.USER)
+                .build());
+    }
+}
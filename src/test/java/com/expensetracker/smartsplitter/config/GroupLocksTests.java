@@ -0,0 +1,256 @@
+package com.expensetracker.smartsplitter.config;
+
+import com.expensetracker.smartsplitter.TestUsers;
+import com.expensetracker.smartsplitter.model.Expense;
+import com.expensetracker.smartsplitter.model.Group;
+import com.expensetracker.smartsplitter.model.LedgerEvent;
+import com.expensetracker.smartsplitter.model.LedgerEventType;
+import com.expensetracker.smartsplitter.model.Settlement;
+import com.expensetracker.smartsplitter.model.User;
+import com.expensetracker.smartsplitter.repository.GroupRepository;
+import com.expensetracker.smartsplitter.repository.LedgerEventRepository;
+import com.expensetracker.smartsplitter.repository.SettlementRepository;
+import com.expensetracker.smartsplitter.service.BalanceLedgerService;
+import com.expensetracker.smartsplitter.service.ExpenseService;
+import com.expensetracker.smartsplitter.service.GroupService;
+import com.expensetracker.smartsplitter.service.LedgerEventService;
+import com.expensetracker.smartsplitter.service.SettlementService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.LongStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Transactions must really commit for the locks to matter, so it runs on its own database
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:group_locks;MODE=PostgreSQL;"
+        + "DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;NON_KEYWORDS=GROUPS,VALUE")
+class GroupLocksTests {
+
+    private static final int THREADS = 8;
+    private static final int OPERATIONS_PER_THREAD = 40;
+
+    @Autowired
+    private TestUsers users;
+
+    @Autowired
+    private GroupLocks groupLocks;
+
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private SettlementService settlementService;
+
+    @Autowired
+    private BalanceLedgerService balanceLedgerService;
+
+    @Autowired
+    private LedgerEventService ledgerEventService;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private LedgerEventRepository ledgerEventRepository;
+
+    @Autowired
+    private SettlementRepository settlementRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void concurrentWritersKeepEveryGroupConsistent() throws Exception {
+        List<Group> groups = List.of(createGroup("stress-a", 4), createGroup("stress-b", 4));
+        Map<Long, List<Long>> members = new HashMap<>();
+        for (Group group : groups) {
+            members.put(group.getId(), groupService.getGroupById(group.getId()).getMembers().stream()
+                    .map(member -> member.getUser().getId()).sorted().toList());
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            Random random = new Random(t);
+            workers.add(pool.submit(() -> {
+                start.await();
+                List<Expense> own = new ArrayList<>();
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    Long groupId = groups.get(random.nextInt(groups.size())).getId();
+                    List<Long> users = members.get(groupId);
+                    int operation = random.nextInt(10);
+                    if (operation < 6 || own.isEmpty()) {
+                        // Amounts split into whole cents, so no rounding remainder is left over
+                        Long payerId = users.get(random.nextInt(users.size()));
+                        own.add(expenseService.addExpense(groupId, payerId, Expense.builder()
+                                .title("Item " + i)
+                                .amount(BigDecimal.valueOf((100L + random.nextInt(10_000)) * users.size(), 2))
+                                .build(), users));
+                    } else if (operation < 8) {
+                        expenseService.deleteExpense(own.remove(random.nextInt(own.size())).getId());
+                    } else if (operation < 9) {
+                        settlementService.calculateSettlements(groupId);
+                    } else {
+                        payAnyUnpaidSettlement(groupId);
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(2, TimeUnit.MINUTES)).isTrue();
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+
+        for (Group group : groups) {
+            Long groupId = group.getId();
+            settlementService.calculateSettlements(groupId);
+            Map<Long, BigDecimal> balances = balanceLedgerService.getBalances(groupId);
+
+            // Money only moves between members, and the event log replays to the same balances
+            assertThat(balances.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add)).isEqualByComparingTo("0");
+            assertThat(balanceLedgerService.verifyGroup(groupId, false).hasDrift()).isFalse();
+            assertThat(groupRepository.findById(groupId).orElseThrow().isSettlementPlanCurrent()).isTrue();
+
+            // The unpaid plan settles exactly the current balances, with one row per debtor and creditor
+            Map<Long, BigDecimal> settled = new HashMap<>();
+            Set<List<Long>> pairs = new HashSet<>();
+            for (Settlement settlement : settlementRepository.findPlanForGroup(groupId)) {
+                if (settlement.isPaid()) {
+                    continue;
+                }
+                Long from = settlement.getFromUser().getId();
+                Long to = settlement.getToUser().getId();
+                assertThat(pairs.add(List.of(from, to))).isTrue();
+                settled.merge(to, settlement.getAmount(), BigDecimal::add);
+                settled.merge(from, settlement.getAmount().negate(), BigDecimal::add);
+            }
+            for (Long userId : members.get(groupId)) {
+                assertThat(settled.getOrDefault(userId, BigDecimal.ZERO))
+                        .isEqualByComparingTo(balances.getOrDefault(userId, BigDecimal.ZERO));
+            }
+        }
+    }
+
+    @Test
+    void unrelatedGroupsDoNotWaitForEachOther() throws Exception {
+        Group busy = createGroup("busy", 1);
+        Group other = createGroup("other", 1);
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> holder = pool.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                groupLocks.lock(busy.getId());
+                locked.countDown();
+                awaitQuietly(release);
+            }));
+            assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+
+            // A different group goes straight through while the busy one queues until the holder commits
+            settlementService.calculateSettlements(other.getId());
+            Future<?> waiter = pool.submit(() -> settlementService.calculateSettlements(busy.getId()));
+            Thread.sleep(200);
+            assertThat(waiter.isDone()).isFalse();
+
+            release.countDown();
+            holder.get(10, TimeUnit.SECONDS);
+            waiter.get(10, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void directAppendsGetDistinctSequences() throws Exception {
+        Group group = createGroup("appends", 2);
+        Long groupId = group.getId();
+        Long ownerId = group.getCreatedBy().getId();
+        long before = groupRepository.findById(groupId).orElseThrow().getEventSequence();
+
+        // No caller-side lock: the log has to guard its own sequence counter
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            workers.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < 10; i++) {
+                    ledgerEventService.append(groupId, LedgerEventType.MEMBER_JOINED, ownerId, Map.of());
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+
+        Group after = groupRepository.findById(groupId).orElseThrow();
+        assertThat(after.getEventSequence()).isEqualTo(before + THREADS * 10L);
+        // Events up to the latest snapshot are compacted away; the rest follow on without gaps
+        assertThat(ledgerEventRepository.findByGroupIdOrderBySequence(groupId))
+                .extracting(LedgerEvent::getSequence)
+                .containsExactlyElementsOf(LongStream.rangeClosed(after.getSnapshotSequence() + 1,
+                        after.getEventSequence()).boxed().toList());
+    }
+
+    private void payAnyUnpaidSettlement(Long groupId) {
+        List<Long> unpaid = settlementRepository.findByGroupId(groupId).stream()
+                .filter(settlement -> !settlement.isPaid())
+                .map(Settlement::getId)
+                .toList();
+        if (unpaid.isEmpty()) {
+            return;
+        }
+        try {
+            settlementService.markSettlementAsPaid(unpaid.get(0));
+        } catch (RuntimeException e) {
+            // Another writer replaced the plan in between
+            assertThat(e).hasMessage("Settlement not found");
+        }
+    }
+
+    private Group createGroup(String name, int memberCount) {
+        User owner = users.create(name + "-0");
+        Group group = groupService.createGroup(Group.builder().groupName(name).build(), owner.getId());
+        for (int i = 1; i < memberCount; i++) {
+            groupService.addUserToGroup(group.getId(), users.create(name + "-" + i).getId(), owner.getId());
+        }
+        return group;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
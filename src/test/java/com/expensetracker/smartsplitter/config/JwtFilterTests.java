@@ -0,0 +1,155 @@
+package com.expensetracker.smartsplitter.config;
+
+import com.expensetracker.smartsplitter.model.Role;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtFilterTests {
+
+    private static final String SECRET = "a_test_secret_that_is_long_enough_for_hs256_signing";
+
+    private final AtomicLong now = new AtomicLong(System.currentTimeMillis());
+
+    private JwtService jwtService;
+    private VerifiedTokenCache cache;
+    private TokenDenylist denylist;
+    private JwtFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService(SECRET);
+        cache = new VerifiedTokenCache(100, 60_000, now::get);
+        denylist = new TokenDenylist(true);
+        filter = new JwtFilter(jwtService, cache, denylist);
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void principalComesFromClaims() throws Exception {
+        Authentication authentication = authenticate(jwtService.generateToken(42L, "mia@example.com", Role.ADMIN));
+
+        AuthenticatedUser principal = (AuthenticatedUser) authentication.getPrincipal();
+        assertThat(principal.id()).isEqualTo(42L);
+        assertThat(authentication.getName()).isEqualTo("mia@example.com");
+        assertThat(authentication.getAuthorities()).extracting("authority").containsExactly("ROLE_ADMIN");
+    }
+
+    @Test
+    void repeatedTokenIsVerifiedOnce() throws Exception {
+        String token = jwtService.generateToken(42L, "mia@example.com", Role.USER);
+
+        Object first = authenticate(token).getPrincipal();
+        Object second = authenticate(token).getPrincipal();
+
+        // A re-verified token would yield a new, equal principal
+        assertThat(second).isSameAs(first);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void cachedTokenIsVerifiedAgainAfterTtl() throws Exception {
+        String token = jwtService.generateToken(42L, "mia@example.com", Role.USER);
+        Object first = authenticate(token).getPrincipal();
+
+        now.addAndGet(61_000);
+
+        Object second = authenticate(token).getPrincipal();
+        assertThat(second).isNotSameAs(first).isEqualTo(first);
+    }
+
+    @Test
+    void tamperedTokenLeavesRequestUnauthenticated() throws Exception {
+        String token = jwtService.generateToken(42L, "mia@example.com", Role.USER);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThat(authenticate(tampered)).isNull();
+        assertThat(authenticate("not.a.jwt")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void tokenSignedWithAnotherKeyIsRejected() throws Exception {
+        String foreign = new JwtService(SECRET + "-other").generateToken(42L, "mia@example.com", Role.USER);
+
+        assertThat(authenticate(foreign)).isNull();
+        assertThat(jwtService.isTokenValid(foreign, "mia@example.com")).isFalse();
+    }
+
+    @Test
+    void tokenWithoutUserIdClaimIsRejected() throws Exception {
+        String legacy = Jwts.builder()
+                .setSubject("mia@example.com")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()), SignatureAlgorithm.HS256)
+                .compact();
+
+        assertThat(authenticate(legacy)).isNull();
+    }
+
+    @Test
+    void revokedTokenIsRejectedEvenWhenCached() throws Exception {
+        String token = jwtService.generateToken(42L, "mia@example.com", Role.USER);
+        String other = jwtService.generateToken(42L, "mia@example.com", Role.USER);
+        AuthenticatedUser principal = (AuthenticatedUser) authenticate(token).getPrincipal();
+
+        denylist.revoke(principal);
+
+        assertThat(authenticate(token)).isNull();
+        assertThat(authenticate(other)).isNotNull();
+    }
+
+    @Test
+    void revokingAllSessionsRejectsEarlierTokens() throws Exception {
+        String token = jwtService.generateToken(42L, "mia@example.com", Role.USER);
+        String someoneElse = jwtService.generateToken(7L, "noa@example.com", Role.USER);
+
+        denylist.revokeAllIssuedBefore(42L, System.currentTimeMillis() + 1000);
+
+        assertThat(authenticate(token)).isNull();
+        assertThat(authenticate(someoneElse)).isNotNull();
+    }
+
+    @Test
+    void loginInTheSameSecondAsLogoutEverywhereIsAccepted() throws Exception {
+        // Start early in a second so the logout and the new login share it
+        while (System.currentTimeMillis() % 1000 > 500) {
+            Thread.sleep(10);
+        }
+        String before = jwtService.generateToken(42L, "mia@example.com", Role.USER);
+        long logoutAt = System.currentTimeMillis();
+        denylist.revokeAllIssuedBefore(42L, logoutAt);
+        Thread.sleep(5);
+        String after = jwtService.generateToken(42L, "mia@example.com", Role.USER);
+
+        AuthenticatedUser principal = (AuthenticatedUser) authenticate(after).getPrincipal();
+        assertThat(principal.issuedAtMillis() / 1000).isEqualTo(logoutAt / 1000);
+        assertThat(authenticate(before)).isNull();
+    }
+
+    private Authentication authenticate(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/groups/1");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
@@ -0,0 +1,116 @@
+package com.expensetracker.smartsplitter.config;
+
+import com.expensetracker.smartsplitter.TestUsers;
+import com.expensetracker.smartsplitter.model.Expense;
+import com.expensetracker.smartsplitter.model.Group;
+import com.expensetracker.smartsplitter.model.Role;
+import com.expensetracker.smartsplitter.model.User;
+import com.expensetracker.smartsplitter.service.ExpenseService;
+import com.expensetracker.smartsplitter.service.GroupService;
+import com.expensetracker.smartsplitter.service.SettlementService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@Transactional
+class MetricsTests {
+
+    @Autowired
+    private TestUsers users;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private SettlementService settlementService;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Test
+    void timesServiceCallsAndSettlementsByGroupSize() {
+        User ann = users.create("ann");
+        User ben = users.create("ben");
+        Group group = groupService.createGroup(Group.builder().groupName("Trip").build(), ann.getId());
+        groupService.addUserToGroup(group.getId(), ben.getId(), ann.getId());
+        expenseService.addExpense(group.getId(), ann.getId(),
+                Expense.builder().title("Taxi").amount(new BigDecimal("30.00")).build(),
+                List.of(ann.getId(), ben.getId()));
+        settlementService.calculateSettlements(group.getId());
+
+        Timer createGroup = meterRegistry.find("service.calls")
+                .tags("class", "GroupServiceImpl", "method", "createGroup", "outcome", "success")
+                .timer();
+        assertThat(createGroup).isNotNull();
+        assertThat(createGroup.count()).isGreaterThanOrEqualTo(1);
+
+        Timer settlement = meterRegistry.find("settlement.calculation").tag("group.size", "1-4").timer();
+        assertThat(settlement).isNotNull();
+        assertThat(settlement.count()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void failedCallsAreTaggedWithTheException() {
+        try {
+            settlementService.calculateSettlements(-1L);
+        } catch (RuntimeException expected) {
+            // Group not found
+        }
+
+        assertThat(meterRegistry.find("service.calls")
+                .tags("class", "SettlementServiceImpl", "method", "calculateSettlements",
+                        "outcome", "error", "exception", "RuntimeException")
+                .timer()).isNotNull();
+    }
+
+    @Test
+    void prometheusEndpointServesHibernatePoolAndAppMeters() throws Exception {
+        groupService.getGroupViewsByUser(1L);
+
+        mockMvc.perform(get("/actuator/prometheus")
+                        .header("Authorization", "Bearer " + jwtService.generateToken(1L, "ops@example.com", Role.ADMIN)))
+                .andExpect(status().isOk())
+                .andExpect(content().string(allOf(
+                        containsString("service_calls_seconds_bucket"),
+                        containsString("hibernate_statements_total"),
+                        containsString("hikaricp_connections_max"),
+                        containsString("password_hashing_rejected_total"))));
+    }
+
+    @Test
+    void prometheusEndpointNeedsAnAdminWhileHealthStaysOpen() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/prometheus")
+                        .header("Authorization", "Bearer " + jwtService.generateToken(2L, "ann@example.com", Role.USER)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,115 @@
+package com.expensetracker.smartsplitter.config;
+
+import com.expensetracker.smartsplitter.exception.PasswordHashingRejectedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordHasherTests {
+
+    private PasswordHasher hasher;
+
+    @AfterEach
+    void tearDown() {
+        if (hasher != null) {
+            hasher.shutdown();
+        }
+    }
+
+    @Test
+    void encodesAndVerifiesOnThePool() {
+        hasher = new PasswordHasher(new BCryptPasswordEncoder(4), 4, 2, 8, 5_000);
+
+        String hash = hasher.encode("secret");
+
+        assertThat(PasswordHasher.bcryptCost(hash)).isEqualTo(4);
+        assertThat(hasher.verify("secret", hash)).isEqualTo(new PasswordHasher.Verification(true, null));
+        assertThat(hasher.verify("wrong", hash).matches()).isFalse();
+        assertThat(hasher.stats().completed()).isEqualTo(3);
+    }
+
+    @Test
+    void rehashesWhenConfiguredCostChanges() {
+        String oldHash = new BCryptPasswordEncoder(5).encode("secret");
+        hasher = new PasswordHasher(new BCryptPasswordEncoder(4), 4, 1, 8, 5_000);
+
+        PasswordHasher.Verification verification = hasher.verify("secret", oldHash);
+
+        assertThat(verification.matches()).isTrue();
+        assertThat(PasswordHasher.bcryptCost(verification.upgradedHash())).isEqualTo(4);
+        assertThat(hasher.verify("wrong", oldHash).upgradedHash()).isNull();
+        assertThat(hasher.stats().rehashed()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsImmediatelyWhenPoolAndQueueAreFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        hasher = new PasswordHasher(blockingEncoder(started, release), 12, 1, 1, 5_000);
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> hasher.encode("a"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> hasher.encode("b"));
+        awaitQueueDepth(1);
+
+        assertThatThrownBy(() -> hasher.encode("c")).isInstanceOf(PasswordHashingRejectedException.class);
+        assertThat(hasher.stats().rejected()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("hash:a");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("hash:b");
+    }
+
+    @Test
+    void timesOutWaitingCallers() {
+        CountDownLatch release = new CountDownLatch(1);
+        hasher = new PasswordHasher(blockingEncoder(new CountDownLatch(1), release), 12, 1, 4, 50);
+
+        assertThatThrownBy(() -> hasher.encode("a")).isInstanceOf(PasswordHashingRejectedException.class);
+        release.countDown();
+    }
+
+    @Test
+    void readsCostFromBcryptHashes() {
+        assertThat(PasswordHasher.bcryptCost("$2a$12$abcdefghijklmnopqrstuv")).isEqualTo(12);
+        assertThat(PasswordHasher.bcryptCost("$2b$04$abcdefghijklmnopqrstuv")).isEqualTo(4);
+        assertThat(PasswordHasher.bcryptCost("plain")).isEqualTo(-1);
+        assertThat(PasswordHasher.bcryptCost(null)).isEqualTo(-1);
+    }
+
+    private void awaitQueueDepth(int depth) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (hasher.stats().queueDepth() < depth && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(hasher.stats().queueDepth()).isEqualTo(depth);
+    }
+
+    private static PasswordEncoder blockingEncoder(CountDownLatch started, CountDownLatch release) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hash:" + rawPassword;
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return encode(rawPassword).equals(encodedPassword);
+            }
+        };
+    }
+}
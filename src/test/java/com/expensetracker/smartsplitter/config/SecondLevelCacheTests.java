@@ -0,0 +1,106 @@
+package com.expensetracker.smartsplitter.config;
+
+import com.expensetracker.smartsplitter.TestUsers;
+import com.expensetracker.smartsplitter.model.Group;
+import com.expensetracker.smartsplitter.model.GroupMember;
+import com.expensetracker.smartsplitter.model.User;
+import com.expensetracker.smartsplitter.repository.GroupRepository;
+import com.expensetracker.smartsplitter.repository.UserRepository;
+import com.expensetracker.smartsplitter.service.GroupService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CollectionStatistics;
+import org.hibernate.stat.NaturalIdStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Commits for real so entries reach the cache, so it runs on its own database
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:second_level_cache;MODE=PostgreSQL;"
+        + "DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;NON_KEYWORDS=GROUPS,VALUE")
+class SecondLevelCacheTests {
+
+    @Autowired
+    private TestUsers users;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void repeatedEmailAndIdLookupsSkipTheDatabase() {
+        User saved = users.create("cached");
+        userRepository.findByEmail(saved.getEmail());
+
+        statistics.clear();
+        User byEmail = userRepository.findByEmail(saved.getEmail()).orElseThrow();
+
+        assertThat(byEmail.getId()).isEqualTo(saved.getId());
+        NaturalIdStatistics byEmailStatistics = statistics.getNaturalIdStatistics(User.class.getName());
+        assertThat(byEmailStatistics.getExecutionCount()).isZero();
+        assertThat(byEmailStatistics.getCacheHitCount()).isEqualTo(1);
+        assertThat(statistics.getEntityStatistics(User.class.getName()).getCacheHitCount()).isEqualTo(1);
+        assertThat(meterRegistry.find("hibernate.cache.hit.ratio").tag("region", CacheConfig.USERS_BY_EMAIL)
+                .gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void unknownEmailIsStillLookedUp() {
+        assertThat(userRepository.findByEmail("nobody@example.com")).isEmpty();
+    }
+
+    @Test
+    void addingAMemberEvictsTheCachedMemberList() {
+        User owner = users.create("owner");
+        User guest = users.create("guest");
+        Group group = groupService.createGroup(Group.builder().groupName("Cabin").build(), owner.getId());
+        assertThat(memberIds(group.getId())).containsExactly(owner.getId());
+
+        groupService.addUserToGroup(group.getId(), guest.getId(), owner.getId());
+
+        assertThat(memberIds(group.getId())).containsExactly(owner.getId(), guest.getId());
+
+        // Statement counts would include the summary refresh running in the background, so check the list itself
+        statistics.clear();
+        assertThat(memberIds(group.getId())).hasSize(2);
+        CollectionStatistics members = statistics.getCollectionStatistics(Group.class.getName() + ".members");
+        assertThat(members.getFetchCount()).isZero();
+        assertThat(members.getCacheHitCount()).isEqualTo(1);
+        // The group row itself changes on every write and is always read from the database
+        assertThat(entityManagerFactory.getCache().contains(Group.class, group.getId())).isFalse();
+    }
+
+    private List<Long> memberIds(Long groupId) {
+        return transactionTemplate.execute(status -> groupRepository.findById(groupId).orElseThrow()
+                .getMembers().stream().map(GroupMember::getUser).map(User::getId).sorted().toList());
+    }
+}
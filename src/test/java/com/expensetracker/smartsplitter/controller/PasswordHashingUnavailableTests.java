@@ -0,0 +1,72 @@
+package com.expensetracker.smartsplitter.controller;
+
+import com.expensetracker.smartsplitter.TestUsers;
+import com.expensetracker.smartsplitter.config.PasswordHasher;
+import com.expensetracker.smartsplitter.exception.PasswordHashingRejectedException;
+import com.expensetracker.smartsplitter.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Every endpoint that hashes a password sheds load with 503 + Retry-After when the hashing pool is saturated
+@SpringBootTest
+@AutoConfigureMockMvc
+class PasswordHashingUnavailableTests {
+
+    @Autowired
+    private TestUsers users;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private PasswordHasher passwordHasher;
+
+    @BeforeEach
+    void saturatePool() {
+        PasswordHashingRejectedException rejected = new PasswordHashingRejectedException("Password hashing is saturated");
+        when(passwordHasher.encode(any())).thenThrow(rejected);
+        when(passwordHasher.verify(any(), any())).thenThrow(rejected);
+        doThrow(rejected).when(passwordHasher).verifyAgainstDummy(any());
+    }
+
+    @Test
+    void registerAnswers503() throws Exception {
+        expectUnavailable("/api/register",
+                "{\"email\":\"busy-register@example.com\",\"password\":\"secret1\",\"username\":\"busy\"}");
+    }
+
+    @Test
+    void authRegisterAnswers503() throws Exception {
+        expectUnavailable("/api/auth/register",
+                "{\"email\":\"busy-auth@example.com\",\"password\":\"secret1\",\"username\":\"busy\"}");
+    }
+
+    @Test
+    void loginAnswers503ForKnownAndUnknownEmails() throws Exception {
+        User known = users.create("busy-login");
+        expectUnavailable("/api/auth/login",
+                "{\"email\":\"" + known.getEmail() + "\",\"password\":\"secret\"}");
+        expectUnavailable("/api/auth/login",
+                "{\"email\":\"nobody@example.com\",\"password\":\"secret\"}");
+    }
+
+    private void expectUnavailable(String path, String body) throws Exception {
+        mockMvc.perform(post(path).contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+    }
+}
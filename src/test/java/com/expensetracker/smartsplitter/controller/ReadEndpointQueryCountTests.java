@@ -0,0 +1,140 @@
+package com.expensetracker.smartsplitter.controller;
+
+import com.expensetracker.smartsplitter.TestUsers;
+import com.expensetracker.smartsplitter.dto.view.ExpenseView;
+import com.expensetracker.smartsplitter.dto.view.GroupView;
+import com.expensetracker.smartsplitter.dto.view.SettlementView;
+import com.expensetracker.smartsplitter.model.Expense;
+import com.expensetracker.smartsplitter.model.Group;
+import com.expensetracker.smartsplitter.model.User;
+import com.expensetracker.smartsplitter.service.ExpenseService;
+import com.expensetracker.smartsplitter.service.GroupService;
+import com.expensetracker.smartsplitter.service.SettlementService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Each read endpoint is served by one projection query, however many rows it returns
+@SpringBootTest
+@Transactional
+class ReadEndpointQueryCountTests {
+
+    @Autowired
+    private TestUsers users;
+
+    @Autowired
+    private GroupController groupController;
+
+    @Autowired
+    private ExpenseController expenseController;
+
+    @Autowired
+    private SettlementController settlementController;
+
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private SettlementService settlementService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User jon;
+    private User kim;
+    private User lea;
+    private Group home;
+
+    @BeforeEach
+    void setUp() {
+        jon = users.create("jon");
+        kim = users.create("kim");
+        lea = users.create("lea");
+        home = groupService.createGroup(Group.builder().groupName("Home").build(), jon.getId());
+        groupService.addUserToGroup(home.getId(), kim.getId(), jon.getEmail());
+        groupService.addUserToGroup(home.getId(), lea.getId(), jon.getEmail());
+        Group work = groupService.createGroup(Group.builder().groupName("Work").build(), kim.getId());
+        groupService.addUserToGroup(work.getId(), jon.getId(), kim.getEmail());
+
+        expenseService.addExpense(home.getId(), jon.getId(), expense("Rent", "90.00"),
+                List.of(jon.getId(), kim.getId(), lea.getId()));
+        expenseService.addExpense(work.getId(), kim.getId(), expense("Lunch", "20.00"),
+                List.of(jon.getId(), kim.getId()));
+        // Plans are recomputed in the background after commit, which this rolled-back test never reaches
+        settlementService.recalculateIfStale(home.getId());
+        settlementService.recalculateIfStale(work.getId());
+
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void groupsOfUserUseOneQuery() {
+        List<GroupView> groups = groupController.getAllGroups(jon.getId()).getBody();
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(groups).extracting(GroupView::groupName).containsExactly("Home", "Work");
+        assertThat(groups.get(0).members()).hasSize(3);
+        assertThat(groups.get(1).createdBy().username()).isEqualTo("kim");
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void groupByIdUsesOneQuery() {
+        GroupView group = groupController.getGroupById(home.getId()).getBody();
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(group.members()).extracting(member -> member.user().username())
+                .containsExactly("jon", "kim", "lea");
+    }
+
+    @Test
+    void expensesOfUserUseOneQuery() {
+        List<ExpenseView> expenses = expenseController.getExpensesByUser(jon.getId()).getBody();
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(expenses).extracting(ExpenseView::title).containsExactlyInAnyOrder("Rent", "Lunch");
+        assertThat(expenses).filteredOn(expense -> expense.title().equals("Rent"))
+                .singleElement()
+                .satisfies(rent -> {
+                    assertThat(rent.paidBy().username()).isEqualTo("jon");
+                    assertThat(rent.group().groupName()).isEqualTo("Home");
+                    assertThat(rent.participants()).hasSize(3);
+                });
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void settlementsOfUserUseOneQuery() {
+        List<SettlementView> settlements = settlementController.getSettlementsForUser(jon.getId()).getBody();
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(settlements).hasSize(3);
+        assertThat(settlements).allSatisfy(settlement -> assertThat(settlement.group()).isNotNull());
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    private Expense expense(String title, String amount) {
+        return Expense.builder().title(title).amount(new BigDecimal(amount)).build();
+    }
+}
@@ -0,0 +1,110 @@
+package com.expensetracker.smartsplitter.job;
+
+import com.expensetracker.smartsplitter.TestUsers;
+import com.expensetracker.smartsplitter.model.Expense;
+import com.expensetracker.smartsplitter.model.Group;
+import com.expensetracker.smartsplitter.model.Settlement;
+import com.expensetracker.smartsplitter.model.User;
+import com.expensetracker.smartsplitter.repository.GroupRepository;
+import com.expensetracker.smartsplitter.service.ExpenseService;
+import com.expensetracker.smartsplitter.service.GroupService;
+import com.expensetracker.smartsplitter.service.SettlementService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.env.Environment;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+// Marks are only delivered after a real commit, so it runs on its own database
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:settlement_recompute;MODE=PostgreSQL;"
+                + "DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;NON_KEYWORDS=GROUPS,VALUE",
+        "app.settlement.recompute.debounce=2s",
+        "app.settlement.recompute.max-delay=5m"
+})
+class SettlementRecomputeQueueTests {
+
+    private static final int BURST = 1000;
+
+    @Autowired
+    private TestUsers users;
+
+    @Autowired
+    private SettlementRecomputeQueue queue;
+
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @MockitoSpyBean
+    private SettlementService settlementService;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private Environment environment;
+
+    @Test
+    void burstOfExpensesIsRecomputedOnce() throws Exception {
+        User ann = users.create("ann");
+        User ben = users.create("ben");
+        Group group = groupService.createGroup(Group.builder().groupName("Burst").build(), ann.getId());
+        groupService.addUserToGroup(group.getId(), ben.getId(), ann.getId());
+        long recomputedBefore = queue.recomputedCount();
+        long markedBefore = queue.markedCount();
+        List<Thread> recomputeThreads = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            recomputeThreads.add(Thread.currentThread());
+            return invocation.callRealMethod();
+        }).when(settlementService).recalculateIfStale(any());
+
+        for (int i = 0; i < BURST; i++) {
+            expenseService.addExpense(group.getId(), ann.getId(),
+                    Expense.builder().title("Item " + i).amount(new BigDecimal("2.00")).build(),
+                    List.of(ann.getId(), ben.getId()));
+        }
+        assertThat(settlementService.getPlanStaleSince(group.getId())).isNotNull();
+
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (!groupRepository.findById(group.getId()).orElseThrow().isSettlementPlanCurrent()
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+
+        assertThat(queue.markedCount() - markedBefore).isGreaterThanOrEqualTo(BURST);
+        assertThat(queue.recomputedCount() - recomputedBefore).isEqualTo(1);
+        assertThat(queue.pendingGroups()).isZero();
+        assertThat(settlementService.getPlanStaleSince(group.getId())).isNull();
+        List<Settlement> plan = settlementService.getSettlementsForGroup(group.getId());
+        assertThat(plan).hasSize(1);
+        assertThat(plan.get(0).getFromUser().getId()).isEqualTo(ben.getId());
+        assertThat(plan.get(0).getAmount()).isEqualByComparingTo("1000.00");
+
+        // Runs leave the debounce timer and land on a virtual thread when virtual threads are on
+        assertThat(recomputeThreads).hasSize(1);
+        assertThat(recomputeThreads.get(0).getName()).startsWith("settlement-recompute-")
+                .isNotEqualTo("settlement-recompute-timer");
+        assertThat(isVirtual(recomputeThreads.get(0))).isEqualTo(Threading.VIRTUAL.isActive(environment));
+    }
+
+    // Thread.isVirtual only exists from Java 21; the build targets 17
+    private static boolean isVirtual(Thread thread) throws Exception {
+        try {
+            return (boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+}
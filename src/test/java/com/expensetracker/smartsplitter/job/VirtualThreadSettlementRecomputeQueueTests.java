@@ -0,0 +1,15 @@
+package com.expensetracker.smartsplitter.job;
+
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.test.context.TestPropertySource;
+
+// The recompute tests with virtual threads on: each run gets a virtual thread instead of a pooled platform one
+@EnabledForJreRange(min = JRE.JAVA_21, disabledReason = "Virtual threads need Java 21+")
+@TestPropertySource(properties = {
+        "spring.threads.virtual.enabled=true",
+        "spring.datasource.url=jdbc:h2:mem:settlement_recompute_virtual;MODE=PostgreSQL;"
+                + "DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;NON_KEYWORDS=GROUPS,VALUE"
+})
+class VirtualThreadSettlementRecomputeQueueTests extends SettlementRecomputeQueueTests {
+}
@@ -0,0 +1,280 @@
+package com.expensetracker.smartsplitter.loadtest;
+
+import com.expensetracker.smartsplitter.config.JwtService;
+import com.expensetracker.smartsplitter.model.Expense;
+import com.expensetracker.smartsplitter.model.Group;
+import com.expensetracker.smartsplitter.model.Role;
+import com.expensetracker.smartsplitter.model.User;
+import com.expensetracker.smartsplitter.repository.UserRepository;
+import com.expensetracker.smartsplitter.service.ExpenseService;
+import com.expensetracker.smartsplitter.service.GroupService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * End-to-end load test of the REST API over real HTTP. Starts the application on a random port
+ * against the test database (in-memory H2 unless {@code spring.datasource.url} points elsewhere),
+ * seeds users, groups and expense history through the services, then runs each workload for a fixed
+ * time with a closed loop of concurrent clients and reports p50/p99 latency, throughput and SQL
+ * statements per request for every endpoint.
+ *
+ * Not part of the normal build. Run with {@code ./mvnw test -Pload-test}, tuning with
+ * {@code -Dload.users=2000 -Dload.concurrency=64 -Dload.duration=60 -Dload.workloads=read-heavy} etc.
+ * Reports are also written to {@code target/load-test/}, named by workload and threading mode;
+ * {@link VirtualThreadApiLoadTest} repeats the run with request handling on virtual threads.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.expensetracker.smartsplitter.loadtest.SqlStatementCounter",
+        "spring.jpa.properties.hibernate.generate_statistics=false",
+        "app.ledger.verify.on-startup=false"
+})
+class ApiLoadTest {
+
+    static final String ADD_EXPENSE = "POST /api/expenses/add";
+    static final String USER_SETTLEMENTS = "GET /api/settlement/user/{userId}";
+    static final String USER_GROUPS = "GET /api/users/{userId}/groups";
+
+    // Percent of requests going to add-expense, user settlements and user groups
+    private static final Map<String, int[]> WORKLOADS = Map.of(
+            "read-only", new int[]{0, 50, 50},
+            "read-heavy", new int[]{10, 45, 45},
+            "mixed", new int[]{34, 33, 33},
+            "write-heavy", new int[]{70, 15, 15});
+
+    private final int users = setting("users", 500);
+    private final int groups = setting("groups", 100);
+    private final int maxGroupSize = setting("max-group-size", 12);
+    private final int expensesPerGroup = setting("expenses-per-group", 20);
+    private final int concurrency = setting("concurrency", 32);
+    private final int warmupSeconds = setting("warmup", 5);
+    private final int durationSeconds = setting("duration", 20);
+    private final int maxErrorPercent = setting("max-error-percent", 1);
+    private final String workloads = System.getProperty("load.workloads", "read-heavy,mixed,write-heavy");
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private Environment environment;
+
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    // Seeded population: who can act, their tokens, and each user's groups with their members
+    private final List<Long> activeUsers = new ArrayList<>();
+    private final Map<Long, String> tokens = new LinkedHashMap<>();
+    private final Map<Long, List<List<Long>>> groupsByUser = new LinkedHashMap<>();
+    private final Map<List<Long>, Long> groupIds = new LinkedHashMap<>();
+
+    @TestConfiguration
+    static class CountingConfig {
+        @Bean
+        FilterRegistrationBean<SqlStatementCounter.Filter> sqlStatementCounterFilter() {
+            FilterRegistrationBean<SqlStatementCounter.Filter> registration =
+                    new FilterRegistrationBean<>(new SqlStatementCounter.Filter());
+            registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+            return registration;
+        }
+    }
+
+    @Test
+    void reportsLatencyThroughputAndSqlPerEndpoint() throws Exception {
+        seed();
+        // Spring Boot ignores the virtual threads flag below Java 21, so report what is actually running
+        String threads = Threading.VIRTUAL.isActive(environment) ? "virtual" : "platform";
+
+        for (String workload : workloads.split(",")) {
+            int[] mix = WORKLOADS.get(workload.trim());
+            assertThat(mix).as("Unknown workload %s, expected one of %s", workload, WORKLOADS.keySet()).isNotNull();
+
+            run(mix, warmupSeconds);
+            SqlStatementCounter.reset();
+            long start = System.nanoTime();
+            List<LoadReport.Recorder> recorders = run(mix, durationSeconds);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            Map<String, Object> settings = new LinkedHashMap<>();
+            settings.put("workload", workload.trim());
+            settings.put("threads", threads);
+            settings.put("users", users);
+            settings.put("groups", groups);
+            settings.put("expensesPerGroup", expensesPerGroup);
+            settings.put("concurrency", concurrency);
+            settings.put("durationSeconds", durationSeconds);
+            LoadReport report = new LoadReport(recorders, List.of(ADD_EXPENSE, USER_SETTLEMENTS, USER_GROUPS),
+                    seconds, settings);
+            report.print();
+            report.write(Path.of("target", "load-test", workload.trim() + "-" + threads + "-"
+                    + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json"));
+
+            for (LoadReport.EndpointResult result : report.results()) {
+                if (result.requests() > 0) {
+                    assertThat(result.errors() * 100).as("errors on %s", result.endpoint())
+                            .isLessThanOrEqualTo(result.requests() * maxErrorPercent);
+                }
+            }
+        }
+    }
+
+    private void seed() {
+        SplittableRandom random = new SplittableRandom(42);
+        List<User> created = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            created.add(User.builder()
+                    .email("load" + i + "@example.com")
+                    .username("load" + i)
+                    .mobile("0000000000")
+                    .password("not-used")
+                    .role(Role.USER)
+                    .build());
+        }
+        List<Long> userIds = userRepository.saveAll(created).stream().map(User::getId).toList();
+
+        for (int g = 0; g < groups; g++) {
+            int size = 3 + random.nextInt(Math.max(1, maxGroupSize - 2));
+            List<Long> members = random.ints(0, userIds.size()).distinct().limit(Math.min(size, userIds.size()))
+                    .mapToObj(userIds::get).toList();
+            Long creator = members.get(0);
+            Group group = groupService.createGroup(Group.builder().groupName("Load group " + g).build(), creator);
+            for (Long member : members.subList(1, members.size())) {
+                groupService.addUserToGroup(group.getId(), member, creator);
+            }
+            for (int e = 0; e < expensesPerGroup; e++) {
+                expenseService.addExpense(group.getId(), members.get(random.nextInt(members.size())),
+                        expense(random, "Seed " + e), participants(random, members));
+            }
+            groupIds.put(members, group.getId());
+            for (Long member : members) {
+                groupsByUser.computeIfAbsent(member, id -> new ArrayList<>()).add(members);
+            }
+        }
+
+        for (User user : created) {
+            if (groupsByUser.containsKey(user.getId())) {
+                activeUsers.add(user.getId());
+                tokens.put(user.getId(), jwtService.generateToken(user.getId(), user.getEmail(), Role.USER));
+            }
+        }
+    }
+
+    private List<LoadReport.Recorder> run(int[] mix, int seconds) throws Exception {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<LoadReport.Recorder>> futures = new ArrayList<>();
+            for (int w = 0; w < concurrency; w++) {
+                SplittableRandom random = new SplittableRandom(1000L + w);
+                futures.add(workers.submit(() -> work(mix, deadline, random)));
+            }
+            List<LoadReport.Recorder> recorders = new ArrayList<>();
+            for (Future<LoadReport.Recorder> future : futures) {
+                recorders.add(future.get());
+            }
+            return recorders;
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private LoadReport.Recorder work(int[] mix, long deadline, SplittableRandom random) {
+        LoadReport.Recorder recorder = new LoadReport.Recorder();
+        while (System.nanoTime() < deadline) {
+            Long userId = activeUsers.get(random.nextInt(activeUsers.size()));
+            int pick = random.nextInt(mix[0] + mix[1] + mix[2]);
+            String endpoint;
+            HttpRequest.Builder request;
+            if (pick < mix[0]) {
+                endpoint = ADD_EXPENSE;
+                List<List<Long>> memberships = groupsByUser.get(userId);
+                List<Long> members = memberships.get(random.nextInt(memberships.size()));
+                String body = "{\"expense\":{\"title\":\"Load\",\"amount\":" + expense(random, "Load").getAmount()
+                        + "},\"participantIds\":" + participants(random, members) + "}";
+                request = request("/api/expenses/add?groupId=" + groupIds.get(members) + "&payerId=" + userId, userId)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body));
+            } else if (pick < mix[0] + mix[1]) {
+                endpoint = USER_SETTLEMENTS;
+                request = request("/api/settlement/user/" + userId, userId).GET();
+            } else {
+                endpoint = USER_GROUPS;
+                request = request("/api/users/" + userId + "/groups", userId).GET();
+            }
+
+            long start = System.nanoTime();
+            boolean ok;
+            try {
+                HttpResponse<Void> response = http.send(request.build(), HttpResponse.BodyHandlers.discarding());
+                ok = response.statusCode() < 400;
+            } catch (Exception e) {
+                ok = false;
+            }
+            recorder.record(endpoint, System.nanoTime() - start, ok);
+        }
+        return recorder;
+    }
+
+    private HttpRequest.Builder request(String path, Long userId) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + tokens.get(userId));
+    }
+
+    private static Expense expense(SplittableRandom random, String title) {
+        return Expense.builder().title(title).amount(BigDecimal.valueOf(100 + random.nextInt(20_000), 2)).build();
+    }
+
+    // A random subset of at least two members, in group order
+    private static List<Long> participants(SplittableRandom random, List<Long> members) {
+        List<Long> chosen = members.stream().filter(member -> random.nextInt(3) > 0).collect(Collectors.toList());
+        if (chosen.size() < 2) {
+            return members.subList(0, 2);
+        }
+        return chosen;
+    }
+
+    private static int setting(String name, int defaultValue) {
+        return Integer.getInteger("load." + name, defaultValue);
+    }
+}
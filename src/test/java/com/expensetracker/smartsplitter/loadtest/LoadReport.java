@@ -0,0 +1,107 @@
+package com.expensetracker.smartsplitter.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Latency samples per endpoint from every load worker, turned into the summary table. Each
+ * worker records into its own {@link Recorder} so the hot loop never contends on shared state.
+ */
+class LoadReport {
+
+    record EndpointResult(String endpoint, long requests, long errors, double throughputPerSecond,
+                          double p50Millis, double p99Millis, double maxMillis, double sqlPerRequest) {
+    }
+
+    static class Recorder {
+        private final Map<String, long[]> latencies = new LinkedHashMap<>();
+        private final Map<String, Integer> counts = new LinkedHashMap<>();
+        private final Map<String, Long> errors = new LinkedHashMap<>();
+
+        void record(String endpoint, long nanos, boolean ok) {
+            int count = counts.getOrDefault(endpoint, 0);
+            long[] samples = latencies.computeIfAbsent(endpoint, e -> new long[1024]);
+            if (count == samples.length) {
+                samples = Arrays.copyOf(samples, count * 2);
+                latencies.put(endpoint, samples);
+            }
+            samples[count] = nanos;
+            counts.put(endpoint, count + 1);
+            if (!ok) {
+                errors.merge(endpoint, 1L, Long::sum);
+            }
+        }
+    }
+
+    private final List<EndpointResult> results = new ArrayList<>();
+    private final Map<String, Object> settings;
+
+    LoadReport(List<Recorder> recorders, List<String> endpoints, double seconds, Map<String, Object> settings) {
+        this.settings = settings;
+        for (String endpoint : endpoints) {
+            int total = 0;
+            long failed = 0;
+            for (Recorder recorder : recorders) {
+                total += recorder.counts.getOrDefault(endpoint, 0);
+                failed += recorder.errors.getOrDefault(endpoint, 0L);
+            }
+            long[] all = new long[total];
+            int offset = 0;
+            for (Recorder recorder : recorders) {
+                int count = recorder.counts.getOrDefault(endpoint, 0);
+                if (count > 0) {
+                    System.arraycopy(recorder.latencies.get(endpoint), 0, all, offset, count);
+                    offset += count;
+                }
+            }
+            Arrays.sort(all);
+            results.add(new EndpointResult(endpoint, total, failed, total / seconds,
+                    percentile(all, 0.50), percentile(all, 0.99), total == 0 ? 0 : all[total - 1] / 1e6,
+                    SqlStatementCounter.perRequest(endpoint)));
+        }
+    }
+
+    List<EndpointResult> results() {
+        return results;
+    }
+
+    void print() {
+        System.out.println();
+        System.out.println("Load test " + settings);
+        System.out.printf("%-36s %9s %7s %10s %9s %9s %9s %9s%n",
+                "Endpoint", "Requests", "Errors", "Req/s", "p50 ms", "p99 ms", "max ms", "SQL/req");
+        for (EndpointResult result : results) {
+            System.out.printf("%-36s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.1f%n", result.endpoint(), result.requests(),
+                    result.errors(), result.throughputPerSecond(), result.p50Millis(), result.p99Millis(),
+                    result.maxMillis(), result.sqlPerRequest());
+        }
+        System.out.println();
+    }
+
+    void write(Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("settings", settings);
+        json.put("endpoints", results);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), json);
+        System.out.println("Load test report written to " + file.toAbsolutePath());
+    }
+
+    // Nearest-rank percentile in milliseconds
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, rank)] / 1e6;
+    }
+}
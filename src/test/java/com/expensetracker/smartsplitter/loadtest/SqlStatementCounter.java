@@ -0,0 +1,75 @@
+package com.expensetracker.smartsplitter.loadtest;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the SQL statements each request prepares. Hibernate calls {@link #inspect} on the thread
+ * running the statement, and a blocking endpoint runs entirely on its request thread, so a
+ * thread-local counter reset around the filter chain gives the statements for that one request.
+ * Work handed to other threads (after-commit listeners, async refreshes) is not counted.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> CURRENT = new ThreadLocal<>();
+    private static final Map<String, LongAdder[]> BY_ENDPOINT = new ConcurrentHashMap<>();
+
+    // Instantiated by Hibernate from hibernate.session_factory.statement_inspector
+    public SqlStatementCounter() {
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = CURRENT.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+
+    public static void reset() {
+        BY_ENDPOINT.clear();
+    }
+
+    // Average statements per request for an endpoint pattern such as "POST /api/expenses/add"
+    public static double perRequest(String endpoint) {
+        LongAdder[] totals = BY_ENDPOINT.get(endpoint);
+        if (totals == null || totals[1].sum() == 0) {
+            return Double.NaN;
+        }
+        return (double) totals[0].sum() / totals[1].sum();
+    }
+
+    // Wraps every request; the endpoint is the matched mapping pattern so path variables do not split it
+    public static class Filter extends OncePerRequestFilter {
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                throws ServletException, IOException {
+            int[] count = new int[1];
+            CURRENT.set(count);
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                CURRENT.remove();
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                if (pattern != null) {
+                    LongAdder[] totals = BY_ENDPOINT.computeIfAbsent(request.getMethod() + " " + pattern,
+                            endpoint -> new LongAdder[]{new LongAdder(), new LongAdder()});
+                    totals[0].add(count[0]);
+                    totals[1].increment();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.expensetracker.smartsplitter.loadtest;
+
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.test.context.TestPropertySource;
+
+// The ApiLoadTest workloads with Tomcat, @Async and scheduled work on virtual threads; compare the two reports
+@EnabledForJreRange(min = JRE.JAVA_21, disabledReason = "Virtual threads need Java 21+")
+@TestPropertySource(properties = "spring.threads.virtual.enabled=true")
+class VirtualThreadApiLoadTest extends ApiLoadTest {
+}
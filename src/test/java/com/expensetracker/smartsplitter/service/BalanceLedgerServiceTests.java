@@ -0,0 +1,100 @@
+package com.expensetracker.smartsplitter.service;
+
+import com.expensetracker.smartsplitter.TestUsers;
+import com.expensetracker.smartsplitter.dto.LedgerDriftReport;
+import com.expensetracker.smartsplitter.model.Expense;
+import com.expensetracker.smartsplitter.model.Group;
+import com.expensetracker.smartsplitter.model.GroupBalance;
+import com.expensetracker.smartsplitter.model.User;
+import com.expensetracker.smartsplitter.repository.GroupBalanceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class BalanceLedgerServiceTests {
+
+    @Autowired
+    private TestUsers users;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private BalanceLedgerService balanceLedgerService;
+
+    @Autowired
+    private GroupBalanceRepository groupBalanceRepository;
+
+    private User alice;
+    private User bob;
+    private User carol;
+    private Group group;
+
+    @BeforeEach
+    void setUp() {
+        alice = users.create("alice");
+        bob = users.create("bob");
+        carol = users.create("carol");
+        group = groupService.createGroup(Group.builder().groupName("Trip").build(), alice.getId());
+        groupService.addUserToGroup(group.getId(), bob.getId(), alice.getEmail());
+        groupService.addUserToGroup(group.getId(), carol.getId(), alice.getEmail());
+    }
+
+    @Test
+    void addAndDeleteExpenseUpdateBalancesByDelta() {
+        expenseService.addExpense(group.getId(), alice.getId(), expense("Dinner", "90.00"),
+                List.of(alice.getId(), bob.getId(), carol.getId()));
+        Expense taxi = expenseService.addExpense(group.getId(), bob.getId(), expense("Taxi", "30.00"),
+                List.of(alice.getId(), bob.getId()));
+
+        Map<Long, BigDecimal> balances = balanceLedgerService.getBalances(group.getId());
+        assertThat(balances.get(alice.getId())).isEqualByComparingTo("45.00");
+        assertThat(balances.get(bob.getId())).isEqualByComparingTo("-15.00");
+        assertThat(balances.get(carol.getId())).isEqualByComparingTo("-30.00");
+
+        expenseService.deleteExpense(taxi.getId());
+
+        balances = balanceLedgerService.getBalances(group.getId());
+        assertThat(balances.get(alice.getId())).isEqualByComparingTo("60.00");
+        assertThat(balances.get(bob.getId())).isEqualByComparingTo("-30.00");
+        assertThat(balanceLedgerService.verifyGroup(group.getId(), false).hasDrift()).isFalse();
+    }
+
+    @Test
+    void verifyReportsAndRepairsDrift() {
+        expenseService.addExpense(group.getId(), alice.getId(), expense("Hotel", "100.00"),
+                List.of(alice.getId(), bob.getId()));
+
+        GroupBalance bobRow = groupBalanceRepository.findByGroupId(group.getId()).stream()
+                .filter(row -> row.getUser().getId().equals(bob.getId()))
+                .findFirst()
+                .orElseThrow();
+        bobRow.setBalance(new BigDecimal("-10.00"));
+
+        LedgerDriftReport report = balanceLedgerService.verifyGroup(group.getId(), true);
+        assertThat(report.getDrifts()).hasSize(1);
+        assertThat(report.getDrifts().get(0).getUserId()).isEqualTo(bob.getId());
+        assertThat(report.getDrifts().get(0).getExpected()).isEqualByComparingTo("-50.00");
+        assertThat(report.isRepaired()).isTrue();
+
+        assertThat(balanceLedgerService.getBalances(group.getId()).get(bob.getId())).isEqualByComparingTo("-50.00");
+        assertThat(balanceLedgerService.verifyGroup(group.getId(), false).hasDrift()).isFalse();
+    }
+
+    private Expense expense(String title, String amount) {
+        return Expense.builder().title(title).amount(new BigDecimal(amount)).build();
+    }
+}
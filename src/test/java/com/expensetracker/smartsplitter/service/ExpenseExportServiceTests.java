@@ -0,0 +1,114 @@
+package com.expensetracker.smartsplitter.service;
+
+import com.expensetracker.smartsplitter.TestUsers;
+import com.expensetracker.smartsplitter.model.Expense;
+import com.expensetracker.smartsplitter.model.Group;
+import com.expensetracker.smartsplitter.model.User;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class ExpenseExportServiceTests {
+
+    @Autowired
+    private TestUsers users;
+
+    @Autowired
+    private ExpenseExportService expenseExportService;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private User fay;
+    private User gus;
+    private Group group;
+    private Expense dinner;
+    private Expense taxi;
+
+    @BeforeEach
+    void setUp() {
+        fay = users.create("fay");
+        gus = users.create("gus");
+        group = groupService.createGroup(Group.builder().groupName("Trip").build(), fay.getId());
+        groupService.addUserToGroup(group.getId(), gus.getId(), fay.getEmail());
+
+        dinner = expenseService.addExpense(group.getId(), fay.getId(), Expense.builder()
+                .title("Dinner, \"late\"")
+                .amount(new BigDecimal("30.00"))
+                .createdAt(LocalDateTime.of(2024, 5, 1, 20, 0))
+                .build(), List.of(fay.getId(), gus.getId()));
+        taxi = expenseService.addExpense(group.getId(), gus.getId(), Expense.builder()
+                .title("Taxi")
+                .amount(new BigDecimal("12.00"))
+                .createdAt(LocalDateTime.of(2024, 5, 2, 9, 30))
+                .build(), List.of(fay.getId()));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void exportsOneCsvLinePerExpense() throws IOException {
+        String[] lines = export(ExpenseExportService.Format.CSV).split("\n");
+
+        assertThat(lines).containsExactly(
+                "id,title,amount,payerId,participantIds,shareAmounts,createdAt",
+                dinner.getId() + ",\"Dinner, \"\"late\"\"\",30.00," + fay.getId() + ","
+                        + fay.getId() + ";" + gus.getId() + ",15.00;15.00,2024-05-01T20:00",
+                taxi.getId() + ",Taxi,12.00," + gus.getId() + "," + fay.getId() + ",12.00,2024-05-02T09:30");
+    }
+
+    @Test
+    void exportsOneJsonObjectPerLine() throws IOException {
+        String[] lines = export(ExpenseExportService.Format.NDJSON).split("\n");
+
+        assertThat(lines).hasSize(2);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertThat(first.get("id").asLong()).isEqualTo(dinner.getId());
+        assertThat(first.get("title").asText()).isEqualTo("Dinner, \"late\"");
+        assertThat(first.get("payerId").asLong()).isEqualTo(fay.getId());
+        assertThat(first.get("participants")).hasSize(2);
+        assertThat(first.get("participants").get(1).get("shareAmount").decimalValue()).isEqualByComparingTo("15.00");
+        assertThat(objectMapper.readTree(lines[1]).get("title").asText()).isEqualTo("Taxi");
+    }
+
+    @Test
+    void exportsNothingForEmptyGroup() throws IOException {
+        Group empty = groupService.createGroup(Group.builder().groupName("Empty").build(), fay.getId());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        expenseExportService.exportExpenses(empty.getId(), out, ExpenseExportService.Format.NDJSON);
+
+        assertThat(out.size()).isZero();
+    }
+
+    private String export(ExpenseExportService.Format format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        expenseExportService.exportExpenses(group.getId(), out, format);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
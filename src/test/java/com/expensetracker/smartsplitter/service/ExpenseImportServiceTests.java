@@ -0,0 +1,133 @@
+package com.expensetracker.smartsplitter.service;
+
+import com.expensetracker.smartsplitter.TestUsers;
+import com.expensetracker.smartsplitter.controller.ExpenseController;
+import com.expensetracker.smartsplitter.dto.ExpenseImportResult;
+import com.expensetracker.smartsplitter.model.Group;
+import com.expensetracker.smartsplitter.model.User;
+import com.expensetracker.smartsplitter.repository.ExpenseRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Each batch commits in its own transaction, so this test cannot roll back and uses its own users
+@SpringBootTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ExpenseImportServiceTests {
+
+    @Autowired
+    private TestUsers users;
+
+    @Autowired
+    private ExpenseImportService expenseImportService;
+
+    @Autowired
+    private ExpenseController expenseController;
+
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private BalanceLedgerService balanceLedgerService;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    private User dana;
+    private User eli;
+    private Group group;
+
+    @BeforeEach
+    void setUp() {
+        dana = users.create("dana-import" + System.nanoTime());
+        eli = users.create("eli-import" + System.nanoTime());
+        group = groupService.createGroup(Group.builder().groupName("Shop").build(), dana.getId());
+        groupService.addUserToGroup(group.getId(), eli.getId(), dana.getEmail());
+        setBatchSize(2);
+    }
+
+    @AfterEach
+    void resetBatchSize() {
+        setBatchSize(500);
+    }
+
+    private void setBatchSize(int batchSize) {
+        Object target = AopTestUtils.getTargetObject(expenseImportService);
+        ReflectionTestUtils.setField(target, "batchSize", batchSize);
+    }
+
+    @Test
+    void importsCsvInBatchesAndReportsBadRows() throws IOException {
+        String csv = "title,amount,payerId,participantIds,createdAt\n"
+                + "\"Paint, white\",30.00," + dana.getId() + "," + dana.getId() + ";" + eli.getId() + ",2024-03-01\n"
+                + "Brushes,12.50," + eli.getId() + "," + dana.getId() + ",\n"
+                + "Ladder,-5," + dana.getId() + "," + eli.getId() + ",\n"
+                + "Tape,4.00,999999," + eli.getId() + ",\n"
+                + "Rollers,8.00," + dana.getId() + "," + eli.getId() + ",2024-03-02T10:15:00\n";
+
+        ExpenseImportResult result = expenseImportService.importExpenses(group.getId(), stream(csv),
+                ExpenseImportService.Format.CSV);
+
+        assertThat(result.getImported()).isEqualTo(3);
+        assertThat(result.getFailed()).isEqualTo(2);
+        assertThat(result.getBatches()).isEqualTo(2);
+        assertThat(result.getErrors()).extracting("line").containsExactly(4L, 5L);
+        assertThat(expenseRepository.findByGroupId(group.getId()))
+                .extracting("title")
+                .containsExactlyInAnyOrder("Paint, white", "Brushes", "Rollers");
+
+        Map<Long, BigDecimal> balances = balanceLedgerService.getBalances(group.getId());
+        assertThat(balances.get(dana.getId())).isEqualByComparingTo("10.50");
+        assertThat(balances.get(eli.getId())).isEqualByComparingTo("-10.50");
+        assertThat(balanceLedgerService.verifyGroup(group.getId(), false).hasDrift()).isFalse();
+    }
+
+    @Test
+    void importsNdjson() throws IOException {
+        String ndjson = "{\"title\":\"Rent\",\"amount\":100.00,\"payerId\":" + eli.getId()
+                + ",\"participantIds\":[" + dana.getId() + "," + eli.getId() + "]}\n"
+                + "not json\n";
+
+        ExpenseImportResult result = expenseImportService.importExpenses(group.getId(), stream(ndjson),
+                ExpenseImportService.Format.NDJSON);
+
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getFailed()).isEqualTo(1);
+        assertThat(balanceLedgerService.getBalances(group.getId()).get(dana.getId())).isEqualByComparingTo("-50.00");
+    }
+
+    @Test
+    void badCsvHeaderIsRejectedWithBadRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/expenses/import");
+        request.setContentType("text/csv");
+        request.setContent("name,price\nRent,10.00\n".getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> expenseController.importExpenses(group.getId(), null, request))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+        assertThat(expenseRepository.findByGroupId(group.getId())).isEmpty();
+    }
+
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,133 @@
+package com.expensetracker.smartsplitter.service;
+
+import com.expensetracker.smartsplitter.TestUsers;
+import com.expensetracker.smartsplitter.dto.ExpensePage;
+import com.expensetracker.smartsplitter.dto.ExpenseQuery;
+import com.expensetracker.smartsplitter.dto.view.ExpenseView;
+import com.expensetracker.smartsplitter.model.Expense;
+import com.expensetracker.smartsplitter.model.Group;
+import com.expensetracker.smartsplitter.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@Transactional
+class ExpensePageTests {
+
+    private static final int EXPENSES = 25;
+
+    @Autowired
+    private TestUsers users;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User hana;
+    private User ivan;
+    private Group group;
+    private List<Long> newestFirst;
+
+    @BeforeEach
+    void setUp() {
+        hana = users.create("hana");
+        ivan = users.create("ivan");
+        group = groupService.createGroup(Group.builder().groupName("Flat").build(), hana.getId());
+        groupService.addUserToGroup(group.getId(), ivan.getId(), hana.getEmail());
+
+        // Pairs of expenses share a timestamp so the id tie-breaker is exercised
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < EXPENSES; i++) {
+            User payer = i % 2 == 0 ? hana : ivan;
+            Expense expense = expenseService.addExpense(group.getId(), payer.getId(), Expense.builder()
+                    .title("Expense " + i)
+                    .amount(new BigDecimal("10.00"))
+                    .createdAt(LocalDateTime.of(2024, 1, 1, 12, 0).plusDays(i / 2))
+                    .build(), List.of(hana.getId(), ivan.getId()));
+            ids.add(expense.getId());
+        }
+        newestFirst = new ArrayList<>();
+        for (int i = EXPENSES - 1; i >= 0; i--) {
+            newestFirst.add(ids.get(i));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void walksAllPagesWithoutGapsOrOverlap() {
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            ExpensePage page = expenseService.getExpensePageForGroup(group.getId(),
+                    ExpenseQuery.builder().cursor(cursor).limit(10).build());
+            page.getExpenses().forEach(expense -> seen.add(expense.id()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(seen).containsExactlyElementsOf(newestFirst);
+    }
+
+    @Test
+    void deepPagesUseTheSameQueriesAsTheFirst() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        ExpensePage first = expenseService.getExpensePageForGroup(group.getId(), ExpenseQuery.builder().limit(5).build());
+        entityManager.clear();
+
+        statistics.clear();
+        ExpensePage second = expenseService.getExpensePageForGroup(group.getId(),
+                ExpenseQuery.builder().cursor(first.getNextCursor()).limit(5).build());
+
+        // One keyset query for the page and one projection for payers, groups and participants
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(second.getExpenses().get(0).participants()).hasSize(2);
+        assertThat(second.getExpenses()).extracting(ExpenseView::id).containsExactlyElementsOf(newestFirst.subList(5, 10));
+    }
+
+    @Test
+    void filtersUserListingByPayerAndDateRange() {
+        ExpensePage page = expenseService.getExpensePageForUser(hana.getId(), ExpenseQuery.builder()
+                .payerId(ivan.getId())
+                .from(LocalDate.of(2024, 1, 2))
+                .to(LocalDate.of(2024, 1, 3))
+                .build());
+
+        // Days 2 and 3 hold expenses 2..5, of which ivan paid 3 and 5
+        assertThat(page.getExpenses()).extracting(ExpenseView::title).containsExactly("Expense 5", "Expense 3");
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void rejectsTamperedCursor() {
+        assertThatThrownBy(() -> expenseService.getExpensePageForGroup(group.getId(),
+                ExpenseQuery.builder().cursor("not-a-cursor").build()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
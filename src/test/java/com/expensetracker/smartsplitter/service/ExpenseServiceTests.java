@@ -0,0 +1,130 @@
+package com.expensetracker.smartsplitter.service;
+
+import com.expensetracker.smartsplitter.model.Expense;
+import com.expensetracker.smartsplitter.model.ExpenseParticipant;
+import com.expensetracker.smartsplitter.model.Group;
+import com.expensetracker.smartsplitter.model.GroupMember;
+import com.expensetracker.smartsplitter.model.Role;
+import com.expensetracker.smartsplitter.model.User;
+import com.expensetracker.smartsplitter.repository.GroupMemberRepository;
+import com.expensetracker.smartsplitter.repository.UserRepository;
+import com.expensetracker.smartsplitter.util.BalanceDeltas;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@Transactional
+class ExpenseServiceTests {
+
+    private static final int PARTICIPANTS = 200;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private GroupMemberRepository groupMemberRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private List<User> users;
+    private Group group;
+
+    @BeforeEach
+    void setUp() {
+        users = new ArrayList<>();
+        for (int i = 0; i < PARTICIPANTS; i++) {
+            users.add(userRepository.save(User.builder()
+                    .email("member" + i + "@example.com")
+                    .username("member" + i)
+                    .mobile("0000000000")
+                    .password("secret")
+                    .role(Role.USER)
+                    .build()));
+        }
+        group = groupService.createGroup(Group.builder().groupName("Festival").build(), users.get(0).getId());
+        for (User user : users.subList(1, users.size())) {
+            groupMemberRepository.save(GroupMember.builder().user(user).group(group).build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void unevenSplitLeavesNoRemainderInTheDeltas() {
+        List<Long> three = users.subList(0, 3).stream().map(User::getId).toList();
+
+        // The payer takes the leftover cent of 10.00 / 3
+        Expense shared = expenseService.addExpense(group.getId(), three.get(1), expense("Taxi", "10.00"), three);
+        assertThat(shared.getParticipants()).extracting(ExpenseParticipant::getShareAmount)
+                .containsExactly(new BigDecimal("3.33"), new BigDecimal("3.34"), new BigDecimal("3.33"));
+        assertThat(sum(BalanceDeltas.forExpense(shared, false).values())).isEqualByComparingTo("0");
+
+        // A payer outside the split leaves the leftover cents to the first participants
+        Expense gift = expenseService.addExpense(group.getId(), users.get(3).getId(), expense("Gift", "10.00"), three);
+        assertThat(gift.getParticipants()).extracting(ExpenseParticipant::getShareAmount)
+                .containsExactly(new BigDecimal("3.34"), new BigDecimal("3.33"), new BigDecimal("3.33"));
+        assertThat(sum(BalanceDeltas.forExpense(gift, false).values())).isEqualByComparingTo("0");
+    }
+
+    @Test
+    void largeExpenseUsesABoundedNumberOfStatements() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        expenseService.addExpense(group.getId(), users.get(0).getId(), expense("Tickets", "2000.00"),
+                users.stream().map(User::getId).toList());
+        entityManager.flush();
+
+        // Without batching this was one SELECT and one INSERT per participant plus the ledger and settlement rows
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(40);
+        assertThat(statistics.getEntityInsertCount()).isGreaterThanOrEqualTo(1 + PARTICIPANTS);
+    }
+
+    @Test
+    void rejectsParticipantsOutsideTheGroup() {
+        User outsider = userRepository.save(User.builder()
+                .email("outsider@example.com")
+                .username("outsider")
+                .mobile("0000000000")
+                .password("secret")
+                .role(Role.USER)
+                .build());
+
+        assertThatThrownBy(() -> expenseService.addExpense(group.getId(), users.get(0).getId(),
+                expense("Snacks", "10.00"), List.of(users.get(1).getId(), outsider.getId())))
+                .hasMessageContaining(String.valueOf(outsider.getId()));
+    }
+
+    private static BigDecimal sum(Collection<BigDecimal> values) {
+        return values.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private Expense expense(String title, String amount) {
+        return Expense.builder().title(title).amount(new BigDecimal(amount)).build();
+    }
+}
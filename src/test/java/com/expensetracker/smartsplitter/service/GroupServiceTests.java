@@ -0,0 +1,91 @@
+package com.expensetracker.smartsplitter.service;
+
+import com.expensetracker.smartsplitter.TestUsers;
+import com.expensetracker.smartsplitter.model.Group;
+import com.expensetracker.smartsplitter.model.GroupMember;
+import com.expensetracker.smartsplitter.model.User;
+import com.expensetracker.smartsplitter.repository.GroupMemberRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@Transactional
+class GroupServiceTests {
+
+    private static final int GROUPS = 50;
+
+    @Autowired
+    private TestUsers users;
+
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private GroupMemberRepository groupMemberRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        owner = users.create("owner");
+        for (int i = 0; i < GROUPS; i++) {
+            Group group = groupService.createGroup(Group.builder().groupName("Group " + i).build(), owner.getId());
+            for (int j = 0; j < 3; j++) {
+                groupMemberRepository.save(GroupMember.builder().user(users.create("member" + i + "-" + j)).group(group).build());
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void groupsOfUserLoadWithMembersInOneQuery() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<Group> groups = groupService.getGroupsByUser(owner.getId());
+        long emails = groups.stream()
+                .flatMap(group -> group.getMembers().stream())
+                .map(member -> member.getUser().getEmail())
+                .count();
+        groups.forEach(group -> group.getCreatedBy().getUsername());
+
+        // Previously one query per group, per members collection and per member user
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(groups).hasSize(GROUPS);
+        assertThat(emails).isEqualTo(GROUPS * 4L);
+    }
+
+    @Test
+    void groupByIdLoadsMembersInOneQuery() {
+        Long groupId = groupService.getGroupsByUser(owner.getId()).get(0).getId();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Group group = groupService.getGroupById(groupId);
+        group.getMembers().forEach(member -> member.getUser().getEmail());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(group.getMembers()).hasSize(4);
+        assertThatThrownBy(() -> groupService.getGroupById(-1L)).hasMessage("Group not found");
+    }
+}
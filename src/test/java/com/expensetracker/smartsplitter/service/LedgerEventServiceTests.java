@@ -0,0 +1,172 @@
+package com.expensetracker.smartsplitter.service;
+
+import com.expensetracker.smartsplitter.TestUsers;
+import com.expensetracker.smartsplitter.model.Expense;
+import com.expensetracker.smartsplitter.model.Group;
+import com.expensetracker.smartsplitter.model.LedgerEvent;
+import com.expensetracker.smartsplitter.model.LedgerEventType;
+import com.expensetracker.smartsplitter.model.Settlement;
+import com.expensetracker.smartsplitter.model.User;
+import com.expensetracker.smartsplitter.repository.LedgerEventRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class LedgerEventServiceTests {
+
+    @Autowired
+    private TestUsers users;
+
+    @Autowired
+    private LedgerEventService ledgerEventService;
+
+    @Autowired
+    private BalanceLedgerService balanceLedgerService;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private SettlementService settlementService;
+
+    @Autowired
+    private LedgerEventRepository ledgerEventRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User alice;
+    private User bob;
+    private User carol;
+    private Group group;
+
+    @BeforeEach
+    void setUp() {
+        alice = users.create("alice");
+        bob = users.create("bob");
+        carol = users.create("carol");
+        group = groupService.createGroup(Group.builder().groupName("Flat").build(), alice.getId());
+        groupService.addUserToGroup(group.getId(), bob.getId(), alice.getEmail());
+        groupService.addUserToGroup(group.getId(), carol.getId(), alice.getEmail());
+    }
+
+    @AfterEach
+    void resetSnapshotInterval() {
+        setSnapshotEvery(100);
+    }
+
+    private void setSnapshotEvery(int events) {
+        Object target = AopTestUtils.getTargetObject(ledgerEventService);
+        ReflectionTestUtils.setField(target, "snapshotEvery", events);
+    }
+
+    @Test
+    void logsEveryChangeInOrderAndReplaysToTheLedger() {
+        expenseService.addExpense(group.getId(), alice.getId(), expense("Rent", "90.00"),
+                List.of(alice.getId(), bob.getId(), carol.getId()));
+        Expense groceries = expenseService.addExpense(group.getId(), bob.getId(), expense("Groceries", "40.00"),
+                List.of(alice.getId(), bob.getId()));
+        expenseService.deleteExpense(groceries.getId());
+        settlementService.recalculateIfStale(group.getId());
+        Settlement payment = settlementService.getSettlementsForGroup(group.getId()).stream()
+                .filter(settlement -> settlement.getFromUser().getId().equals(bob.getId()))
+                .findFirst()
+                .orElseThrow();
+        settlementService.markSettlementAsPaid(payment.getId());
+
+        List<LedgerEvent> events = ledgerEventRepository.findByGroupIdOrderBySequence(group.getId());
+        assertThat(events).extracting(LedgerEvent::getType).containsExactly(
+                LedgerEventType.MEMBER_JOINED, LedgerEventType.MEMBER_JOINED, LedgerEventType.MEMBER_JOINED,
+                LedgerEventType.EXPENSE_ADDED, LedgerEventType.EXPENSE_ADDED, LedgerEventType.EXPENSE_DELETED,
+                LedgerEventType.PAYMENT_RECORDED);
+        assertThat(events).extracting(LedgerEvent::getSequence).containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L);
+
+        // Bob paid his 30.00 share, so only Carol still owes Alice
+        Map<Long, BigDecimal> replayed = ledgerEventService.replay(group.getId());
+        assertThat(replayed).containsOnlyKeys(alice.getId(), carol.getId());
+        assertThat(replayed.get(alice.getId())).isEqualByComparingTo("30.00");
+        assertThat(replayed.get(carol.getId())).isEqualByComparingTo("-30.00");
+        assertThat(replayed).isEqualTo(ledgerEventService.replay(group.getId()));
+        assertThat(balanceLedgerService.verifyGroup(group.getId(), false).hasDrift()).isFalse();
+    }
+
+    @Test
+    void snapshotCompactsTheLogAndReplayStaysTheSame() {
+        expenseService.addExpense(group.getId(), alice.getId(), expense("Internet", "60.00"),
+                List.of(alice.getId(), bob.getId(), carol.getId()));
+        Map<Long, BigDecimal> before = ledgerEventService.replay(group.getId());
+
+        ledgerEventService.snapshot(group.getId());
+        entityManager.flush();
+
+        assertThat(ledgerEventRepository.countByGroupId(group.getId())).isZero();
+        assertThat(ledgerEventService.replay(group.getId())).isEqualTo(before);
+
+        // Events after the snapshot form the tail that replay adds on top of it
+        expenseService.addExpense(group.getId(), carol.getId(), expense("Cleaning", "30.00"),
+                List.of(bob.getId(), carol.getId()));
+        assertThat(ledgerEventRepository.countByGroupId(group.getId())).isEqualTo(1);
+        assertThat(ledgerEventService.replay(group.getId())).isEqualTo(balanceLedgerService.getBalances(group.getId()));
+        assertThat(balanceLedgerService.verifyGroup(group.getId(), false).hasDrift()).isFalse();
+    }
+
+    @Test
+    void snapshotsAutomaticallyEveryConfiguredNumberOfEvents() {
+        setSnapshotEvery(4);
+        for (int i = 0; i < 5; i++) {
+            expenseService.addExpense(group.getId(), bob.getId(), expense("Coffee " + i, "9.00"),
+                    List.of(alice.getId(), bob.getId(), carol.getId()));
+        }
+        entityManager.flush();
+
+        // 3 joins + 5 expenses: a snapshot at event 4 and another at event 8 leave nothing to replay
+        assertThat(ledgerEventRepository.countByGroupId(group.getId())).isZero();
+        assertThat(ledgerEventService.replay(group.getId()).get(bob.getId())).isEqualByComparingTo("30.00");
+    }
+
+    @Test
+    void replayIsOneSnapshotReadAndOneTailAggregate() {
+        for (int i = 0; i < 20; i++) {
+            expenseService.addExpense(group.getId(), alice.getId(), expense("Bill " + i, "3.00"),
+                    List.of(alice.getId(), bob.getId(), carol.getId()));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Map<Long, BigDecimal> balances = ledgerEventService.replay(group.getId());
+
+        // Group row, snapshot entries and the summed tail, however long the tail is
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(balances.get(alice.getId())).isEqualByComparingTo("40.00");
+    }
+
+    private Expense expense(String title, String amount) {
+        return Expense.builder().title(title).amount(new BigDecimal(amount)).build();
+    }
+}
@@ -0,0 +1,168 @@
+package com.expensetracker.smartsplitter.service;
+
+import com.expensetracker.smartsplitter.TestUsers;
+import com.expensetracker.smartsplitter.dto.view.NettedSettlementView;
+import com.expensetracker.smartsplitter.dto.view.SettlementSourceView;
+import com.expensetracker.smartsplitter.model.Expense;
+import com.expensetracker.smartsplitter.model.Group;
+import com.expensetracker.smartsplitter.model.User;
+import com.expensetracker.smartsplitter.settlement.CrossGroupNetting;
+import com.expensetracker.smartsplitter.settlement.GroupBalanceTable;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.mockito.ArgumentCaptor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+// The netted plan is kept between calls, so rolled-back test data must not leak into it; own database
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:settlement_netting;MODE=PostgreSQL;"
+        + "DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;NON_KEYWORDS=GROUPS,VALUE")
+class SettlementNettingServiceTests {
+
+    @Autowired
+    private TestUsers users;
+
+    @Autowired
+    private SettlementNettingService settlementNettingService;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private GroupService groupService;
+
+    @MockitoSpyBean
+    private CrossGroupNetting crossGroupNetting;
+
+    @Test
+    void balancesAreNettedAcrossGroupsAndTracedBackToThem() {
+        User ann = users.create("ann");
+        User ben = users.create("ben");
+        User cat = users.create("cat");
+        Group trip = groupService.createGroup(Group.builder().groupName("Trip").build(), ann.getId());
+        groupService.addUserToGroup(trip.getId(), ben.getId(), ann.getId());
+        Group flat = groupService.createGroup(Group.builder().groupName("Flat").build(), ann.getId());
+        groupService.addUserToGroup(flat.getId(), ben.getId(), ann.getId());
+        groupService.addUserToGroup(flat.getId(), cat.getId(), ann.getId());
+
+        // Per group: ben pays ann 30.00 for the trip, ann and cat pay ben 10.00 each for the flat
+        expenseService.addExpense(trip.getId(), ann.getId(), expense("Fuel", "60.00"),
+                List.of(ann.getId(), ben.getId()));
+        expenseService.addExpense(flat.getId(), ben.getId(), expense("Internet", "30.00"),
+                List.of(ann.getId(), ben.getId(), cat.getId()));
+
+        List<NettedSettlementView> plan = settlementNettingService.getNettedSettlementsForUser(ann.getId());
+
+        assertThat(plan).hasSize(2);
+        assertThat(plan).allSatisfy(transfer -> {
+            assertThat(transfer.toUser().id()).isEqualTo(ann.getId());
+            assertThat(transfer.amount()).isEqualByComparingTo("10.00");
+        });
+        NettedSettlementView fromBen = transferFrom(plan, ben);
+        assertThat(fromBen.sources()).extracting(source -> source.group().groupName()).containsExactly("Trip");
+        NettedSettlementView fromCat = transferFrom(plan, cat);
+        assertThat(fromCat.sources()).extracting(source -> source.group().groupName()).containsExactly("Flat");
+        assertThat(fromCat.sources()).extracting(SettlementSourceView::amount)
+                .allSatisfy(amount -> assertThat(amount).isEqualByComparingTo("10.00"));
+        // Ann is owed nothing in the flat, so Cat's payment is credited to what she is owed for the trip
+        assertThat(fromCat.credits()).extracting(source -> source.group().groupName()).containsExactly("Trip");
+        assertThat(settlementNettingService.getNettedSettlementsForUser(cat.getId())).containsExactly(fromCat);
+
+        // A new expense changes the balances, so the next read solves again
+        expenseService.addExpense(flat.getId(), cat.getId(), expense("Cleaning", "30.00"),
+                List.of(ann.getId(), ben.getId(), cat.getId()));
+
+        List<NettedSettlementView> updated = settlementNettingService.getNettedSettlementsForUser(ann.getId());
+        assertThat(updated).hasSize(1);
+        assertThat(updated.get(0).fromUser().id()).isEqualTo(ben.getId());
+        assertThat(updated.get(0).amount()).isEqualByComparingTo("10.00");
+        List<NettedSettlementView> forCat = settlementNettingService.getNettedSettlementsForUser(cat.getId());
+        assertThat(forCat).hasSize(1);
+        assertThat(forCat.get(0).fromUser().id()).isEqualTo(ben.getId());
+        assertThat(forCat.get(0).sources()).extracting(source -> source.group().groupName()).containsExactly("Trip");
+    }
+
+    @Test
+    void onlyTheRequestingUsersComponentIsSolvedAndKeptUntilItChanges() {
+        User dan = users.create("dan");
+        User eve = users.create("eve");
+        User fay = users.create("fay");
+        User gus = users.create("gus");
+        Group boat = groupService.createGroup(Group.builder().groupName("Boat").build(), dan.getId());
+        groupService.addUserToGroup(boat.getId(), eve.getId(), dan.getId());
+        Group shed = groupService.createGroup(Group.builder().groupName("Shed").build(), fay.getId());
+        groupService.addUserToGroup(shed.getId(), gus.getId(), fay.getId());
+        expenseService.addExpense(boat.getId(), dan.getId(), expense("Fuel", "40.00"), List.of(dan.getId(), eve.getId()));
+        expenseService.addExpense(shed.getId(), fay.getId(), expense("Paint", "20.00"), List.of(fay.getId(), gus.getId()));
+        assertThat(settlementNettingService.getNettedSettlementsForUser(dan.getId())).hasSize(1);
+        assertThat(settlementNettingService.getNettedSettlementsForUser(gus.getId())).hasSize(1);
+
+        // A change in the shed leaves the boat's plan alone, and re-solving the shed reads nothing else
+        clearInvocations(crossGroupNetting);
+        expenseService.addExpense(shed.getId(), fay.getId(), expense("Nails", "10.00"), List.of(fay.getId(), gus.getId()));
+
+        assertThat(settlementNettingService.getNettedSettlementsForUser(eve.getId())).singleElement()
+                .satisfies(transfer -> assertThat(transfer.amount()).isEqualByComparingTo("20.00"));
+        verify(crossGroupNetting, never()).solve(any());
+
+        assertThat(settlementNettingService.getNettedSettlementsForUser(gus.getId())).singleElement()
+                .satisfies(transfer -> assertThat(transfer.amount()).isEqualByComparingTo("15.00"));
+        ArgumentCaptor<GroupBalanceTable> table = ArgumentCaptor.forClass(GroupBalanceTable.class);
+        verify(crossGroupNetting).solve(table.capture());
+        Set<Long> solvedFor = new HashSet<>();
+        for (int row = 0; row < table.getValue().size(); row++) {
+            solvedFor.add(table.getValue().userId(row));
+        }
+        assertThat(solvedFor).containsExactlyInAnyOrder(fay.getId(), gus.getId());
+    }
+
+    @Test
+    void usersWhoLeaveAComponentAreDroppedWhenItIsSolvedAgain() {
+        User hal = users.create("hal");
+        User ivy = users.create("ivy");
+        User jon = users.create("jon");
+        Group yard = groupService.createGroup(Group.builder().groupName("Yard").build(), hal.getId());
+        groupService.addUserToGroup(yard.getId(), ivy.getId(), hal.getId());
+        groupService.addUserToGroup(yard.getId(), jon.getId(), hal.getId());
+        expenseService.addExpense(yard.getId(), hal.getId(), expense("Mower", "30.00"),
+                List.of(hal.getId(), ivy.getId(), jon.getId()));
+        assertThat(settlementNettingService.getNettedSettlementsForUser(hal.getId())).hasSize(2);
+        assertThat(cachedUserIds()).contains(hal.getId(), ivy.getId(), jon.getId());
+
+        // Jon squares up with Hal, so the component shrinks to Hal and Ivy
+        expenseService.addExpense(yard.getId(), jon.getId(), expense("Hedge", "20.00"),
+                List.of(hal.getId(), jon.getId()));
+        assertThat(settlementNettingService.getNettedSettlementsForUser(hal.getId())).singleElement()
+                .satisfies(transfer -> assertThat(transfer.fromUser().id()).isEqualTo(ivy.getId()));
+
+        assertThat(cachedUserIds()).contains(hal.getId(), ivy.getId()).doesNotContain(jon.getId());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<Long> cachedUserIds() {
+        Object service = AopTestUtils.getTargetObject(settlementNettingService);
+        return ((Map<Long, ?>) ReflectionTestUtils.getField(service, "plans")).keySet();
+    }
+
+    private static NettedSettlementView transferFrom(List<NettedSettlementView> plan, User payer) {
+        return plan.stream().filter(transfer -> transfer.fromUser().id().equals(payer.getId())).findFirst().orElseThrow();
+    }
+
+    private static Expense expense(String title, String amount) {
+        return Expense.builder().title(title).amount(new BigDecimal(amount)).build();
+    }
+}
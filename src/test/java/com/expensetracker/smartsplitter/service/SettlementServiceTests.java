@@ -0,0 +1,144 @@
+package com.expensetracker.smartsplitter.service;
+
+import com.expensetracker.smartsplitter.TestUsers;
+import com.expensetracker.smartsplitter.model.Expense;
+import com.expensetracker.smartsplitter.model.Group;
+import com.expensetracker.smartsplitter.model.Settlement;
+import com.expensetracker.smartsplitter.model.User;
+import com.expensetracker.smartsplitter.repository.GroupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class SettlementServiceTests {
+
+    @Autowired
+    private TestUsers users;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private SettlementService settlementService;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    private User alice;
+    private User bob;
+    private Group group;
+
+    @BeforeEach
+    void setUp() {
+        alice = users.create("alice");
+        bob = users.create("bob");
+        group = groupService.createGroup(Group.builder().groupName("Flat").build(), alice.getId());
+        groupService.addUserToGroup(group.getId(), bob.getId(), alice.getEmail());
+    }
+
+    @Test
+    void expenseChangesMarkThePlanStaleUntilItIsRecomputed() {
+        Expense rent = expenseService.addExpense(group.getId(), alice.getId(), expense("Rent", "100.00"),
+                List.of(alice.getId(), bob.getId()));
+
+        // Readers keep the last plan, marked stale, until the background queue catches up
+        assertThat(groupRepository.findById(group.getId()).orElseThrow().isSettlementPlanCurrent()).isFalse();
+        assertThat(settlementService.getPlanStaleSince(group.getId())).isNotNull();
+        assertThat(settlementService.getSettlementsForGroup(group.getId())).isEmpty();
+
+        assertThat(settlementService.recalculateIfStale(group.getId())).isTrue();
+        assertThat(settlementService.recalculateIfStale(group.getId())).isFalse();
+        assertThat(settlementService.getPlanStaleSince(group.getId())).isNull();
+        List<Settlement> plan = settlementService.getSettlementsForUser(bob.getId());
+        assertThat(plan).hasSize(1);
+        assertThat(plan.get(0).getFromUser().getId()).isEqualTo(bob.getId());
+        assertThat(plan.get(0).getToUser().getId()).isEqualTo(alice.getId());
+        assertThat(plan.get(0).getAmount()).isEqualByComparingTo("50.00");
+        assertThat(plan.get(0).getPlanVersion()).isEqualTo(group.getLedgerVersion());
+
+        expenseService.deleteExpense(rent.getId());
+        settlementService.recalculateIfStale(group.getId());
+
+        assertThat(settlementService.getSettlementsForUser(bob.getId())).isEmpty();
+    }
+
+    @Test
+    void readingTheUserPlanDoesNotRecompute() {
+        expenseService.addExpense(group.getId(), alice.getId(), expense("Groceries", "40.00"),
+                List.of(alice.getId(), bob.getId()));
+        settlementService.recalculateIfStale(group.getId());
+        Long settlementId = settlementService.getSettlementsForUser(alice.getId()).get(0).getId();
+
+        assertThat(settlementService.getSettlementsForUser(alice.getId()))
+                .extracting(Settlement::getId)
+                .containsExactly(settlementId);
+        assertThat(settlementService.getSettlementsForGroup(group.getId()))
+                .extracting(Settlement::getId)
+                .containsExactly(settlementId);
+    }
+
+    @Test
+    void recalculationUpdatesTheExistingRowInPlace() {
+        expenseService.addExpense(group.getId(), alice.getId(), expense("Rent", "100.00"),
+                List.of(alice.getId(), bob.getId()));
+        settlementService.recalculateIfStale(group.getId());
+        Long settlementId = settlementService.getSettlementsForGroup(group.getId()).get(0).getId();
+
+        expenseService.addExpense(group.getId(), alice.getId(), expense("Power", "20.00"),
+                List.of(alice.getId(), bob.getId()));
+        settlementService.recalculateIfStale(group.getId());
+
+        List<Settlement> plan = settlementService.getSettlementsForGroup(group.getId());
+        assertThat(plan).extracting(Settlement::getId).containsExactly(settlementId);
+        assertThat(plan.get(0).getAmount()).isEqualByComparingTo("60.00");
+
+        // The debt flips direction, so the old row goes and a new one takes its place
+        expenseService.addExpense(group.getId(), bob.getId(), expense("Boiler", "200.00"),
+                List.of(alice.getId(), bob.getId()));
+        settlementService.recalculateIfStale(group.getId());
+
+        plan = settlementService.getSettlementsForGroup(group.getId());
+        assertThat(plan).hasSize(1);
+        assertThat(plan.get(0).getId()).isNotEqualTo(settlementId);
+        assertThat(plan.get(0).getFromUser().getId()).isEqualTo(alice.getId());
+        assertThat(plan.get(0).getAmount()).isEqualByComparingTo("40.00");
+    }
+
+    @Test
+    void paidSettlementsSurviveRecalculation() {
+        expenseService.addExpense(group.getId(), alice.getId(), expense("Rent", "100.00"),
+                List.of(alice.getId(), bob.getId()));
+        settlementService.recalculateIfStale(group.getId());
+        Long paidId = settlementService.getSettlementsForGroup(group.getId()).get(0).getId();
+        settlementService.markSettlementAsPaid(paidId);
+
+        expenseService.addExpense(group.getId(), alice.getId(), expense("Groceries", "40.00"),
+                List.of(alice.getId(), bob.getId()));
+        settlementService.recalculateIfStale(group.getId());
+
+        // The payment already moved the balances, so only the new expense is left to settle
+        List<Settlement> plan = settlementService.getSettlementsForGroup(group.getId());
+        assertThat(plan).hasSize(2);
+        assertThat(plan.get(0).getId()).isEqualTo(paidId);
+        assertThat(plan.get(0).isPaid()).isTrue();
+        assertThat(plan.get(0).getAmount()).isEqualByComparingTo("50.00");
+        assertThat(plan.get(1).isPaid()).isFalse();
+        assertThat(plan.get(1).getAmount()).isEqualByComparingTo("20.00");
+    }
+
+    private Expense expense(String title, String amount) {
+        return Expense.builder().title(title).amount(new BigDecimal(amount)).build();
+    }
+}
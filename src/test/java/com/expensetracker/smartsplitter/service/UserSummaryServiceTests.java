@@ -0,0 +1,154 @@
+package com.expensetracker.smartsplitter.service;
+
+import com.expensetracker.smartsplitter.TestUsers;
+import com.expensetracker.smartsplitter.dto.view.GroupSummaryView;
+import com.expensetracker.smartsplitter.dto.view.UserSummaryView;
+import com.expensetracker.smartsplitter.model.Expense;
+import com.expensetracker.smartsplitter.model.Group;
+import com.expensetracker.smartsplitter.model.Settlement;
+import com.expensetracker.smartsplitter.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class UserSummaryServiceTests {
+
+    @Autowired
+    private TestUsers users;
+
+    @Autowired
+    private UserSummaryService userSummaryService;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private SettlementService settlementService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User alice;
+    private User bob;
+    private User carol;
+    private Group trip;
+    private Group flat;
+
+    @BeforeEach
+    void setUp() {
+        alice = users.create("alice");
+        bob = users.create("bob");
+        carol = users.create("carol");
+        trip = groupService.createGroup(Group.builder().groupName("Trip").build(), alice.getId());
+        groupService.addUserToGroup(trip.getId(), bob.getId(), alice.getEmail());
+        flat = groupService.createGroup(Group.builder().groupName("Flat").build(), carol.getId());
+        groupService.addUserToGroup(flat.getId(), alice.getId(), carol.getEmail());
+    }
+
+    @Test
+    void summarisesBalancesCountsAndPendingSettlementsAcrossGroups() {
+        expenseService.addExpense(trip.getId(), alice.getId(), expense("Hotel", "100.00"),
+                List.of(alice.getId(), bob.getId()));
+        expenseService.addExpense(flat.getId(), carol.getId(), expense("Rent", "80.00"),
+                List.of(alice.getId(), carol.getId()));
+        // Paid for but not shared: still counts towards the payer's expenses
+        expenseService.addExpense(flat.getId(), alice.getId(), expense("Gift", "20.00"), List.of(carol.getId()));
+        settlementService.recalculateIfStale(trip.getId());
+        settlementService.recalculateIfStale(flat.getId());
+        userSummaryService.refreshGroup(trip.getId());
+        userSummaryService.refreshGroup(flat.getId());
+
+        UserSummaryView summary = userSummaryService.getSummary(alice.getId());
+
+        assertThat(summary.groupCount()).isEqualTo(2);
+        assertThat(summary.expenseCount()).isEqualTo(3);
+        assertThat(summary.expenseTotal()).isEqualByComparingTo("200.00");
+        assertThat(summary.totalOwed()).isEqualByComparingTo("50.00");
+        assertThat(summary.totalOwing()).isEqualByComparingTo("20.00");
+        assertThat(summary.pendingSettlements()).isEqualTo(2);
+        assertThat(summary.groups()).extracting(GroupSummaryView::groupName).containsExactly("Trip", "Flat");
+    }
+
+    @Test
+    void paymentsMoveTheNetAndClearThePendingSettlement() {
+        expenseService.addExpense(trip.getId(), alice.getId(), expense("Hotel", "100.00"),
+                List.of(alice.getId(), bob.getId()));
+        settlementService.recalculateIfStale(trip.getId());
+        Settlement settlement = settlementService.getSettlementsForGroup(trip.getId()).get(0);
+        settlementService.markSettlementAsPaid(settlement.getId());
+        userSummaryService.refreshGroup(trip.getId());
+
+        UserSummaryView summary = userSummaryService.getSummary(bob.getId());
+
+        assertThat(summary.totalOwing()).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(summary.pendingSettlements()).isZero();
+        assertThat(summary.expenseCount()).isEqualTo(1);
+    }
+
+    @Test
+    void readIsASingleQueryOnceBuilt() {
+        expenseService.addExpense(trip.getId(), alice.getId(), expense("Hotel", "100.00"),
+                List.of(alice.getId(), bob.getId()));
+        userSummaryService.refreshGroup(trip.getId());
+        userSummaryService.refreshGroup(flat.getId());
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        userSummaryService.getSummary(alice.getId());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void buildsMissingSummariesOnFirstRead() {
+        expenseService.addExpense(flat.getId(), carol.getId(), expense("Rent", "80.00"),
+                List.of(alice.getId(), carol.getId()));
+
+        UserSummaryView summary = userSummaryService.getSummary(carol.getId());
+
+        assertThat(summary.groupCount()).isEqualTo(1);
+        assertThat(summary.totalOwed()).isEqualByComparingTo("40.00");
+    }
+
+    @Test
+    void firstReadBuildsOnlyABoundedNumberOfGroupsInline() {
+        Object target = AopTestUtils.getTargetObject(userSummaryService);
+        ReflectionTestUtils.setField(target, "coldReadGroups", 1);
+        try {
+            // Alice is in both groups; the second is left to the background refresh
+            UserSummaryView summary = userSummaryService.getSummary(alice.getId());
+
+            assertThat(summary.groups()).extracting(GroupSummaryView::groupName).containsExactly("Trip");
+        } finally {
+            ReflectionTestUtils.setField(target, "coldReadGroups", 8);
+        }
+    }
+
+    private Expense expense(String title, String amount) {
+        return Expense.builder().title(title).amount(new BigDecimal(amount)).build();
+    }
+}
@@ -0,0 +1,117 @@
+package com.expensetracker.smartsplitter.settlement;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CrossGroupNettingTests {
+
+    private final SettlementSolverSelector selector = new SettlementSolverSelector(
+            List.of(new TwoPointerSettlementSolver(), new GreedyHeapSettlementSolver(), new ExactSettlementSolver()),
+            SettlementSolverSelector.AUTO, 12);
+    private final CrossGroupNetting netting = new CrossGroupNetting(selector);
+
+    @Test
+    void debtsInOneGroupCancelCreditsInAnother() {
+        // Bob owes Ann 30.00 on the trip, Ann owes Bob 10.00 for the flat
+        GroupBalanceTable table = new GroupBalanceTable();
+        table.add(1L, 1L, 3000L);
+        table.add(1L, 2L, -3000L);
+        table.add(2L, 1L, -1000L);
+        table.add(2L, 2L, 1000L);
+
+        List<NettedTransfer> transfers = netting.solve(table);
+
+        assertThat(transfers).hasSize(1);
+        assertThat(transfers.get(0).fromUserId()).isEqualTo(2L);
+        assertThat(transfers.get(0).toUserId()).isEqualTo(1L);
+        assertThat(transfers.get(0).amount()).isEqualTo(2000L);
+        assertThat(transfers.get(0).amountByGroup()).containsExactly(Map.entry(1L, 2000L));
+        assertThat(transfers.get(0).creditByGroup()).containsExactly(Map.entry(1L, 2000L));
+    }
+
+    @Test
+    void chainThroughASharedMemberIsShortened() {
+        // Ann owes Bob in one group and Bob owes Cat the same in another: Ann pays Cat directly
+        GroupBalanceTable table = new GroupBalanceTable();
+        table.add(1L, 1L, -1000L);
+        table.add(1L, 2L, 1000L);
+        table.add(2L, 2L, -1000L);
+        table.add(2L, 3L, 1000L);
+
+        List<NettedTransfer> transfers = netting.solve(table);
+
+        assertThat(transfers).hasSize(1);
+        assertThat(transfers.get(0).fromUserId()).isEqualTo(1L);
+        assertThat(transfers.get(0).toUserId()).isEqualTo(3L);
+        // Ann's debt is in the first group, while Cat is only owed in the second
+        assertThat(transfers.get(0).amountByGroup()).containsExactly(Map.entry(1L, 1000L));
+        assertThat(transfers.get(0).creditByGroup()).containsExactly(Map.entry(2L, 1000L));
+    }
+
+    @Test
+    void settlesManyComponentsEachWithinItself() {
+        // 300 networks of 20 users with 6 groups each; user and group ids encode their network
+        GroupBalanceTable table = new GroupBalanceTable();
+        Random random = new Random(11);
+        for (int network = 0; network < 300; network++) {
+            for (int group = 0; group < 6; group++) {
+                long groupId = network * 100L + group;
+                long total = 0;
+                int first = random.nextInt(20);
+                for (int member = 0; member < 5; member++) {
+                    long cents = random.nextInt(20_000) - 10_000;
+                    table.add(groupId, network * 100L + (first + member * 4) % 20, cents);
+                    total += cents;
+                }
+                table.add(groupId, network * 100L + 20 + group, -total);
+            }
+        }
+
+        List<NettedTransfer> transfers = netting.solve(table);
+
+        // Every combined balance is settled, and only within its own network
+        Map<Long, Long> combined = new HashMap<>();
+        Map<List<Long>, Long> debts = new HashMap<>();
+        Map<List<Long>, Long> credits = new HashMap<>();
+        for (int row = 0; row < table.size(); row++) {
+            combined.merge(table.userId(row), table.cents(row), Long::sum);
+            if (table.cents(row) < 0) {
+                debts.merge(List.of(table.userId(row), table.groupId(row)), -table.cents(row), Long::sum);
+            } else {
+                credits.merge(List.of(table.userId(row), table.groupId(row)), table.cents(row), Long::sum);
+            }
+        }
+        for (NettedTransfer transfer : transfers) {
+            assertThat(transfer.fromUserId() / 100).isEqualTo(transfer.toUserId() / 100);
+            combined.merge(transfer.fromUserId(), transfer.amount(), Long::sum);
+            combined.merge(transfer.toUserId(), -transfer.amount(), Long::sum);
+
+            // The parts add up to the transfer and settle no more than the payer owes in each group
+            assertThat(transfer.amountByGroup().values().stream().mapToLong(Long::longValue).sum())
+                    .isEqualTo(transfer.amount());
+            transfer.amountByGroup().forEach((groupId, cents) -> {
+                assertThat(groupId / 100).isEqualTo(transfer.fromUserId() / 100);
+                assertThat(debts.merge(List.of(transfer.fromUserId(), groupId), -cents, Long::sum))
+                        .isGreaterThanOrEqualTo(0L);
+            });
+            // Likewise the payee is only paid in groups where it is owed, and never more than it is owed there
+            assertThat(transfer.creditByGroup().values().stream().mapToLong(Long::longValue).sum())
+                    .isEqualTo(transfer.amount());
+            transfer.creditByGroup().forEach((groupId, cents) ->
+                    assertThat(credits.merge(List.of(transfer.toUserId(), groupId), -cents, Long::sum))
+                            .isGreaterThanOrEqualTo(0L));
+        }
+        assertThat(combined.values()).allMatch(balance -> balance == 0);
+    }
+
+    @Test
+    void emptyTableHasNoTransfers() {
+        assertThat(netting.solve(new GroupBalanceTable())).isEmpty();
+    }
+}
@@ -0,0 +1,126 @@
+package com.expensetracker.smartsplitter.settlement;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SettlementSolverTests {
+
+    private final TwoPointerSettlementSolver twoPointer = new TwoPointerSettlementSolver();
+    private final GreedyHeapSettlementSolver greedyHeap = new GreedyHeapSettlementSolver();
+    private final ExactSettlementSolver exact = new ExactSettlementSolver();
+
+    @Test
+    void matchesLargestDebtorWithLargestCreditor() {
+        BalanceSheet sheet = new BalanceSheet();
+        sheet.add(1L, new BigDecimal("60.00"));
+        sheet.add(2L, new BigDecimal("-45.50"));
+        sheet.add(3L, new BigDecimal("-14.50"));
+
+        for (SettlementSolver solver : List.of(twoPointer, greedyHeap, exact)) {
+            SettlementPlan plan = solver.solve(sheet);
+
+            assertThat(plan.size()).isEqualTo(2);
+            assertThat(plan.fromUserId(0)).isEqualTo(2L);
+            assertThat(plan.toUserId(0)).isEqualTo(1L);
+            assertThat(plan.amount(0)).isEqualTo(4550L);
+            assertThat(plan.fromUserId(1)).isEqualTo(3L);
+            assertThat(plan.amount(1)).isEqualTo(1450L);
+        }
+    }
+
+    @Test
+    void settlesLargeGroupsCompletely() {
+        BalanceSheet sheet = randomSheet(10_000, 42);
+
+        for (SettlementSolver solver : List.of(twoPointer, greedyHeap)) {
+            SettlementPlan plan = solver.solve(sheet);
+            assertSettled(sheet, plan);
+            assertThat(plan.size()).isLessThan(sheet.size());
+        }
+    }
+
+    @Test
+    void exactSolverFindsFewerTransfersThanGreedy() {
+        // {9, -5, -4} and {6, -3, -3} settle with two transfers each; greedy needs five in total
+        BalanceSheet sheet = new BalanceSheet();
+        long[] cents = {900, 600, -500, -400, -300, -300};
+        for (int i = 0; i < cents.length; i++) {
+            sheet.add(i + 1, cents[i]);
+        }
+
+        SettlementPlan greedyPlan = greedyHeap.solve(sheet);
+        SettlementPlan exactPlan = exact.solve(sheet);
+
+        assertSettled(sheet, greedyPlan);
+        assertSettled(sheet, exactPlan);
+        assertThat(greedyPlan.size()).isEqualTo(5);
+        assertThat(exactPlan.size()).isEqualTo(4);
+    }
+
+    @Test
+    void exactSolverNeverLosesToGreedy() {
+        for (int seed = 0; seed < 50; seed++) {
+            BalanceSheet sheet = randomSheet(10, seed);
+            SettlementPlan exactPlan = exact.solve(sheet);
+
+            assertSettled(sheet, exactPlan);
+            assertThat(exactPlan.size()).isLessThanOrEqualTo(greedyHeap.solve(sheet).size());
+        }
+    }
+
+    @Test
+    void exactSolverRejectsLargeGroups() {
+        BalanceSheet sheet = randomSheet(ExactSettlementSolver.MAX_MEMBERS + 5, 7);
+
+        assertThatThrownBy(() -> exact.solve(sheet)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void selectorPicksSolverByGroupSize() {
+        SettlementSolverSelector selector = new SettlementSolverSelector(
+                List.of(twoPointer, greedyHeap, exact), SettlementSolverSelector.AUTO, 12);
+
+        assertThat(selector.select(randomSheet(12, 1))).isSameAs(exact);
+        assertThat(selector.select(randomSheet(13, 1))).isSameAs(greedyHeap);
+    }
+
+    @Test
+    void convertsBetweenCentsAndBigDecimal() {
+        assertThat(BalanceSheet.toCents(new BigDecimal("12.345"))).isEqualTo(1235L);
+        assertThat(BalanceSheet.toCents(new BigDecimal("-0.5"))).isEqualTo(-50L);
+        assertThat(BalanceSheet.fromCents(-1999L)).isEqualByComparingTo("-19.99");
+        assertThat(new BalanceSheet().ordinalOf(7L)).isEqualTo(-1);
+    }
+
+    // Random non-zero balances where the last member absorbs the difference so the sheet sums to zero
+    private static BalanceSheet randomSheet(int members, long seed) {
+        BalanceSheet sheet = new BalanceSheet(4);
+        for (long userId = 1; userId < members; userId++) {
+            seed = seed * 6364136223846793005L + 1442695040888963407L;
+            long cents = (seed >>> 40) % 50_000 + 1;
+            if ((seed & 1) == 0) {
+                cents = -cents;
+            }
+            sheet.add(userId, cents);
+            sheet.add(members, -cents);
+        }
+        return sheet;
+    }
+
+    private static void assertSettled(BalanceSheet sheet, SettlementPlan plan) {
+        long[] settled = new long[sheet.size()];
+        for (int k = 0; k < plan.size(); k++) {
+            assertThat(plan.amount(k)).isPositive();
+            settled[sheet.ordinalOf(plan.fromUserId(k))] += plan.amount(k);
+            settled[sheet.ordinalOf(plan.toUserId(k))] -= plan.amount(k);
+        }
+        for (int ordinal = 0; ordinal < sheet.size(); ordinal++) {
+            assertThat(sheet.balance(ordinal) + settled[ordinal]).isZero();
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.expensetracker.smartsplitter.stream;
+
+import com.expensetracker.smartsplitter.event.LedgerEventAppended;
+import com.expensetracker.smartsplitter.event.SettlementPlanUpdated;
+import com.expensetracker.smartsplitter.model.LedgerEventType;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChangeStreamBrokerTests {
+
+    // Holds drain tasks until the test runs them, standing in for a client that is not reading
+    private final ArrayDeque<Runnable> pending = new ArrayDeque<>();
+    private final Executor manualExecutor = pending::add;
+
+    private final ChangeStreamBroker broker = new ChangeStreamBroker(3, 60_000, 60_000, manualExecutor);
+
+    @Test
+    void routesGroupChangesAndPerUserBalanceChanges() {
+        RecordingSink group = new RecordingSink();
+        RecordingSink alice = new RecordingSink();
+        RecordingSink carol = new RecordingSink();
+        broker.addGroupSubscriber(1L, group);
+        broker.addUserSubscriber(10L, alice);
+        broker.addUserSubscriber(30L, carol);
+
+        broker.onLedgerEvent(new LedgerEventAppended(1L, 5, LedgerEventType.EXPENSE_ADDED, 99L,
+                Map.of(10L, new BigDecimal("20.00"), 20L, new BigDecimal("-20.00"))));
+        broker.onSettlementPlanUpdated(new SettlementPlanUpdated(1L));
+        runPending();
+
+        assertThat(group.events).extracting(ChangeEvent::type)
+                .containsExactly(ChangeEvent.EXPENSE_ADDED, ChangeEvent.PLAN_UPDATED);
+        assertThat(group.events.get(0).deltas()).containsOnlyKeys(10L, 20L);
+        assertThat(alice.events).singleElement().satisfies(event -> {
+            assertThat(event.type()).isEqualTo(ChangeEvent.BALANCE_CHANGED);
+            assertThat(event.cause()).isEqualTo(ChangeEvent.EXPENSE_ADDED);
+            assertThat(event.sequence()).isEqualTo(5L);
+            assertThat(event.deltas()).containsOnlyKeys(10L);
+        });
+        assertThat(carol.events).isEmpty();
+    }
+
+    @Test
+    void tellsTheJoiningUserTheyWereAdded() {
+        RecordingSink bob = new RecordingSink();
+        broker.addUserSubscriber(20L, bob);
+
+        broker.onLedgerEvent(new LedgerEventAppended(1L, 2, LedgerEventType.MEMBER_JOINED, 20L, Map.of()));
+        runPending();
+
+        assertThat(bob.events).singleElement().satisfies(event -> {
+            assertThat(event.type()).isEqualTo(ChangeEvent.MEMBER_JOINED);
+            assertThat(event.groupId()).isEqualTo(1L);
+        });
+    }
+
+    @Test
+    void slowSubscriberDropsTheOldestAndIsToldHowManyItMissed() {
+        RecordingSink slow = new RecordingSink();
+        ChangeSubscriber subscriber = broker.addGroupSubscriber(1L, slow);
+
+        for (long sequence = 1; sequence <= 5; sequence++) {
+            broker.onLedgerEvent(new LedgerEventAppended(1L, sequence, LedgerEventType.EXPENSE_ADDED, sequence, Map.of()));
+        }
+
+        // One drain task however many events were offered, and the buffer never grows past its capacity
+        assertThat(pending).hasSize(1);
+        assertThat(subscriber.buffered()).isEqualTo(3);
+        runPending();
+
+        assertThat(slow.events.get(0)).isEqualTo(ChangeEvent.overflow(2));
+        assertThat(slow.events.subList(1, 4)).extracting(ChangeEvent::sequence).containsExactly(3L, 4L, 5L);
+    }
+
+    @Test
+    void failedWriteClosesAndUnregistersTheSubscriber() {
+        RecordingSink broken = new RecordingSink();
+        broken.failing = true;
+        RecordingSink healthy = new RecordingSink();
+        ChangeSubscriber subscriber = broker.addGroupSubscriber(1L, broken);
+        broker.addGroupSubscriber(1L, healthy);
+
+        broker.heartbeat();
+        runPending();
+
+        assertThat(subscriber.isClosed()).isTrue();
+        assertThat(broken.closed).isTrue();
+        assertThat(broker.subscriberCount()).isEqualTo(1);
+        assertThat(healthy.events).extracting(ChangeEvent::type).containsExactly(ChangeEvent.HEARTBEAT);
+    }
+
+    @Test
+    void blockedWriteIsAbortedSoOtherStreamsKeepFlowing() throws Exception {
+        // A single send thread: while the stalled write holds it nobody else is served
+        ExecutorService sendPool = Executors.newSingleThreadExecutor();
+        ChangeStreamBroker realBroker = new ChangeStreamBroker(3, 60_000, 50, sendPool);
+        try {
+            BlockingSink stuck = new BlockingSink();
+            BlockingQueue<ChangeEvent> received = new LinkedBlockingQueue<>();
+            ChangeSubscriber stalled = realBroker.addGroupSubscriber(1L, stuck);
+            realBroker.addGroupSubscriber(2L, new ChangeSubscriber.Sink() {
+                @Override
+                public void send(ChangeEvent event) {
+                    received.add(event);
+                }
+
+                @Override
+                public void close() {
+                }
+            });
+
+            realBroker.onSettlementPlanUpdated(new SettlementPlanUpdated(1L));
+            assertThat(stuck.entered.await(5, TimeUnit.SECONDS)).isTrue();
+            realBroker.onSettlementPlanUpdated(new SettlementPlanUpdated(2L));
+            assertThat(received.poll(100, TimeUnit.MILLISECONDS)).isNull();
+
+            Thread.sleep(100);
+            realBroker.abortStalled();
+
+            assertThat(received.poll(5, TimeUnit.SECONDS)).isNotNull()
+                    .extracting(ChangeEvent::groupId).isEqualTo(2L);
+            assertThat(stalled.isClosed()).isTrue();
+            assertThat(realBroker.subscriberCount()).isEqualTo(1);
+            assertThat(realBroker.stalledCount()).isEqualTo(1);
+        } finally {
+            realBroker.shutdown();
+        }
+    }
+
+    private void runPending() {
+        while (!pending.isEmpty()) {
+            pending.poll().run();
+        }
+    }
+
+    // Never completes a write on its own, like a client that stopped reading; gives up when interrupted
+    private static class BlockingSink implements ChangeSubscriber.Sink {
+        final CountDownLatch entered = new CountDownLatch(1);
+
+        @Override
+        public void send(ChangeEvent event) throws IOException {
+            entered.countDown();
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException e) {
+                throw new InterruptedIOException("Write interrupted");
+            }
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static class RecordingSink implements ChangeSubscriber.Sink {
+        final List<ChangeEvent> events = new ArrayList<>();
+        boolean failing;
+        boolean closed;
+
+        @Override
+        public void send(ChangeEvent event) throws IOException {
+            if (failing) {
+                throw new IOException("Broken pipe");
+            }
+            events.add(event);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}